@@ -2,6 +2,8 @@ package backend.academy;
 
 import backend.academy.logAnalyzer.logs.CollectedData;
 import backend.academy.logAnalyzer.logs.LogAnalyzer;
+import backend.academy.logAnalyzer.logs.ReadAhead;
+import backend.academy.logAnalyzer.logs.RejectPolicy;
 import backend.academy.logAnalyzer.parsers.InputParser;
 import backend.academy.logAnalyzer.report.LogReportGenerator;
 import java.io.PrintStream;
@@ -15,7 +17,15 @@ import lombok.experimental.UtilityClass;
  * <pre>
  * analyzer --path logs/[file_name] --from [ISO8601_date_pattern]
  * --to [ISO8601_date_pattern] --filter-field agent
- * --filter-value "[filter_pattern]" --format markdown
+ * --filter-value "[filter_pattern]" --format markdown --tokenizer combined --resources normalized
+ * --max-malformed 0.5 --read mapped --threads 8 --gzip-index on --read-ahead 2 --read-ahead-block 1024
+ * --connections 4 --cache-dir .cache/logs --cache-size 1024 --cache-compress off --walk-cache .cache/listings
+ * --time-probe on --histogram-digits 3 --percentiles 50,90,95,99,99.9 --percentile-mode exact --exact-memory 256
+ * --log-format '$remote_addr - $remote_user [$time_local] "$request" $status $body_bytes_sent "$http_user_agent"'
+ * </pre>
+ * The arguments can also be passed on the command line, which leaves the standard input to a piped log:
+ * <pre>
+ * zstdcat access.log.zst | analyzer --path - --format markdown
  * </pre>
  * After the program execution, the generated log file will be in the project directory.
  */
@@ -26,14 +36,19 @@ public class Main {
      * It initializes the InputParser, LogAnalyzer, and LogReportGenerator,
      * and coordinates the whole log processing workflow.
      *
-     * @param args the command line arguments
+     * @param args the command line arguments, or none to read them from the first line of the standard input
      */
     public static void main(String[] args) {
-        printUsage(System.out);
         InputParser inputParser = new InputParser(System.out, System.in);
-        String inputString = inputParser.readInputString();
+        String inputString;
+        if (args.length > 0) {
+            inputString = String.join(" ", args);
+        } else {
+            printUsage(System.out);
+            inputString = inputParser.readInputString();
+        }
         inputParser.parseData(inputString);
-        LogAnalyzer logAnalyzer = new LogAnalyzer();
+        LogAnalyzer logAnalyzer = new LogAnalyzer(inputParser.analyzerOptions());
         CollectedData parsedData =
             logAnalyzer.analyze(inputParser.path(), inputParser.from(), inputParser.to(), inputParser.agentValue());
         LogReportGenerator logReport =
@@ -44,8 +59,27 @@ public class Main {
     private static void printUsage(PrintStream output) {
         output.println("It is the program which analyzes nginx logs and generates a report.");
         output.println("Input format is the following:");
-        output.println("analyzer --path [local path] --from [from] --to [to] "
-            + "--filter-field agent --filter-value [value] --format [markdown/adoc]");
-        output.println("Note that last five arguments are optional.");
+        output.println("analyzer --path [local path/URL/- for stdin] --from [from] --to [to] "
+            + "--filter-field agent --filter-value [value] --format [markdown/adoc] --tokenizer [combined/regex/simd] "
+            + "--log-format [nginx log_format] --resources [raw/normalized] --max-malformed [0..1] "
+            + "--read [lines/mapped] --threads [number] --gzip-index [on/off] --read-ahead [blocks] "
+            + "--read-ahead-block [KiB] --connections [number] --cache-dir [directory] --cache-size [MiB] "
+            + "--cache-compress [on/off] --walk-cache [file] "
+            + "--time-probe [on/off] --histogram-digits [1..5] --percentiles [comma-separated, 0..100] "
+            + "--percentile-mode [histogram/exact] --exact-memory [MiB]");
+        output.println("Note that last twenty-four arguments are optional, "
+            + "--log-format takes precedence over --tokenizer.");
+        output.println("--tokenizer simd scans lines with the Vector API only when java is started with "
+            + "--add-modules jdk.incubator.vector, and with a scalar loop otherwise.");
+        output.println("The analysis is aborted if more than --max-malformed (0.5 by default) of the first "
+            + RejectPolicy.DEFAULT_CHECKED_LINES + " lines of a source, or of all sources together, are malformed.");
+        output.println("With --read-ahead, files and remote logs are read in blocks of --read-ahead-block KiB "
+            + "on a background thread; gzip streams are always inflated ahead in such blocks, at least "
+            + ReadAhead.MIN_INFLATION_DEPTH + " deep; the parser stall time is logged to tune both.");
+        output.println("With --time-probe on, files are taken as written in the order of time: with --from or --to, "
+            + "files outside the range are skipped and large files are read from a binary-searched offset. "
+            + "Keep it off for merged or unordered logs.");
+        output.println("Percentiles of response sizes are estimated within 10^-[--histogram-digits] of their value, "
+            + "--percentile-mode exact keeps every size and spills them to disk beyond --exact-memory MiB.");
     }
 }
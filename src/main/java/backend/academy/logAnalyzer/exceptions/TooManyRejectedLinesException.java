@@ -0,0 +1,7 @@
+package backend.academy.logAnalyzer.exceptions;
+
+public class TooManyRejectedLinesException extends RuntimeException {
+    public TooManyRejectedLinesException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,166 @@
+package backend.academy.logAnalyzer.filters;
+
+import backend.academy.logAnalyzer.tokenizers.ByteSlice;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A precompiled filter for the http_user_agent field.
+ *
+ * <p>The filter value is a pattern where {@code *} matches any sequence of characters. The most common
+ * shapes of the pattern (exact value, {@code prefix*}, {@code *suffix} and {@code *contains*}) are matched
+ * with plain string operations, or with byte comparisons on a {@link ByteSlice} of the line, so only
+ * the other patterns need a String. Any other pattern is compiled into a regular expression only once.
+ * A pattern which isn't a valid regular expression is matched as a literal glob.
+ */
+public final class AgentFilter {
+    private static final char WILDCARD = '*';
+    private static final String REGEX_SYMBOLS = "\\^$.|?+()[]{}";
+
+    /**
+     * Enumeration of the supported filter shapes.
+     */
+    private enum Shape {
+        ANY,
+        EXACT,
+        PREFIX,
+        SUFFIX,
+        CONTAINS,
+        REGEX
+    }
+
+    private final Shape shape;
+    private final String filter;
+    private final String literal;
+    private final byte[] literalBytes;
+    private final Pattern pattern;
+
+    private AgentFilter(Shape shape, String filter, String literal, Pattern pattern) {
+        this.shape = shape;
+        this.filter = filter;
+        this.literal = literal;
+        this.literalBytes = literal == null ? null : literal.getBytes(StandardCharsets.UTF_8);
+        this.pattern = pattern;
+    }
+
+    /**
+     * Compiles the filter value into a matcher.
+     *
+     * @param filter the filter value, or {@code null} if the user agent is not filtered
+     * @return the compiled filter
+     */
+    public static AgentFilter compile(String filter) {
+        if (filter == null) {
+            return new AgentFilter(Shape.ANY, null, null, null);
+        }
+        if (!containsRegexSymbols(filter)) {
+            String literal = stripWildcards(filter);
+            if (literal.indexOf(WILDCARD) < 0) {
+                boolean leading = !filter.isEmpty() && filter.charAt(0) == WILDCARD;
+                boolean trailing = !filter.isEmpty() && filter.charAt(filter.length() - 1) == WILDCARD;
+                return new AgentFilter(shapeOf(literal, leading, trailing), filter, literal, null);
+            }
+        }
+        return new AgentFilter(Shape.REGEX, filter, null, compileRegex(filter));
+    }
+
+    /**
+     * Checks whether the user agent matches the filter.
+     *
+     * @param userAgent the user agent from the log to compare with the filter
+     * @return {@code true} if the user agent matches the filter; {@code false} otherwise
+     */
+    public boolean matches(String userAgent) {
+        return switch (shape) {
+            case ANY -> true;
+            case EXACT -> userAgent.equals(literal);
+            case PREFIX -> userAgent.startsWith(literal);
+            case SUFFIX -> userAgent.endsWith(literal);
+            case CONTAINS -> userAgent.contains(literal);
+            case REGEX -> pattern.matcher(userAgent).matches() || userAgent.equals(filter);
+        };
+    }
+
+    /**
+     * Checks whether the user agent read as UTF-8 bytes matches the filter. Only a regular expression decodes
+     * the user agent into a String.
+     *
+     * @param userAgent the slice of the user agent from the log to compare with the filter
+     * @return {@code true} if the user agent matches the filter; {@code false} otherwise
+     */
+    public boolean matches(ByteSlice userAgent) {
+        return switch (shape) {
+            case ANY -> true;
+            case EXACT -> userAgent.contentEquals(literalBytes);
+            case PREFIX -> userAgent.startsWith(literalBytes);
+            case SUFFIX -> userAgent.endsWith(literalBytes);
+            case CONTAINS -> userAgent.contains(literalBytes);
+            case REGEX -> matches(userAgent.toString());
+        };
+    }
+
+    /**
+     * Checks whether the filter accepts any user agent, so there is no need to extract it from logs.
+     *
+     * @return {@code true} if the filter accepts any user agent; {@code false} otherwise
+     */
+    public boolean acceptsAll() {
+        return shape == Shape.ANY;
+    }
+
+    private static Shape shapeOf(String literal, boolean leading, boolean trailing) {
+        Shape result;
+        if (literal.isEmpty() && (leading || trailing)) {
+            result = Shape.ANY;
+        } else if (leading && trailing) {
+            result = Shape.CONTAINS;
+        } else if (leading) {
+            result = Shape.SUFFIX;
+        } else if (trailing) {
+            result = Shape.PREFIX;
+        } else {
+            result = Shape.EXACT;
+        }
+        return result;
+    }
+
+    /**
+     * Compiles the filter as a regular expression, or as a literal glob if it isn't a valid regular expression.
+     */
+    private static Pattern compileRegex(String filter) {
+        try {
+            return Pattern.compile(filter.replace("*", ".*"));
+        } catch (PatternSyntaxException e) {
+            StringBuilder regex = new StringBuilder();
+            for (String part : filter.split("\\*", -1)) {
+                if (!regex.isEmpty()) {
+                    regex.append(".*");
+                }
+                regex.append(Pattern.quote(part));
+            }
+            return Pattern.compile(regex.toString());
+        }
+    }
+
+    private static String stripWildcards(String filter) {
+        int start = 0;
+        int end = filter.length();
+        while (start < end && filter.charAt(start) == WILDCARD) {
+            start++;
+        }
+        while (end > start && filter.charAt(end - 1) == WILDCARD) {
+            end--;
+        }
+        return filter.substring(start, end);
+    }
+
+    private static boolean containsRegexSymbols(String filter) {
+        for (int i = 0; i < filter.length(); i++) {
+            if (REGEX_SYMBOLS.indexOf(filter.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
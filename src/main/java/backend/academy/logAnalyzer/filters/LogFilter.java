@@ -0,0 +1,37 @@
+package backend.academy.logAnalyzer.filters;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * The filters applied to every log entry during a single analysis.
+ *
+ * @param fromEpochSecond the start of the time range in seconds since the epoch (inclusive).
+ * @param toEpochSecond   the end of the time range in seconds since the epoch (inclusive).
+ * @param agentFilter     the compiled filter for matching specific user agents.
+ */
+public record LogFilter(long fromEpochSecond, long toEpochSecond, AgentFilter agentFilter) {
+    /**
+     * Creates the filters from the user input. Date-times without an offset are treated as UTC.
+     *
+     * @param from        the start date-time for filtering logs, or {@code null} if there is no lower bound
+     * @param to          the end date-time for filtering logs, or {@code null} if there is no upper bound
+     * @param agentFilter the filter for matching specific user agents, or {@code null} if there is no filter
+     * @return the filters of the analysis
+     */
+    public static LogFilter of(LocalDateTime from, LocalDateTime to, String agentFilter) {
+        long fromEpochSecond = from == null ? Long.MIN_VALUE : from.toEpochSecond(ZoneOffset.UTC);
+        long toEpochSecond = to == null ? Long.MAX_VALUE : to.toEpochSecond(ZoneOffset.UTC);
+        return new LogFilter(fromEpochSecond, toEpochSecond, AgentFilter.compile(agentFilter));
+    }
+
+    /**
+     * Checks whether the timestamp is within the time range.
+     *
+     * @param epochSecond the timestamp in seconds since the epoch
+     * @return {@code true} if the timestamp is within the time range; {@code false} otherwise
+     */
+    public boolean isInTimeRange(long epochSecond) {
+        return epochSecond >= fromEpochSecond && epochSecond <= toEpochSecond;
+    }
+}
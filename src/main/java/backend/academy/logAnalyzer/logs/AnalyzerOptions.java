@@ -0,0 +1,89 @@
+package backend.academy.logAnalyzer.logs;
+
+import backend.academy.logAnalyzer.tokenizers.LogFormat;
+import backend.academy.logAnalyzer.tokenizers.TokenizerType;
+import java.nio.file.Path;
+import java.util.List;
+import lombok.Builder;
+
+/**
+ * A record that stores the settings of a {@link LogAnalyzer}.
+ *
+ * @param tokenizerType      The type of the tokenizer used to split log lines into fields.
+ * @param logFormat          The custom log format which takes precedence over the tokenizer type, or {@code null}.
+ * @param normalizeResources Whether resources are counted in the normalized form produced by
+ *                           {@link ResourceNormalizer} instead of the raw one.
+ * @param rejectPolicy       The fail-fast threshold of malformed lines.
+ * @param readMode           The way local log files are read.
+ * @param threads            The maximal number of workers parsing local log files in parallel.
+ * @param gzipIndex          Whether gzip files are split at the checkpoints of their {@link GzipIndex indexes},
+ *                           which are built on the first read.
+ * @param readAheadDepth     The number of blocks of a file or a remote log read ahead of its parser, or zero to read
+ *                           on the thread of the parser.
+ * @param readAheadBlockSize The size of a block read or inflated ahead in bytes.
+ * @param connections        The maximal number of byte ranges of a remote log downloaded and parsed in parallel.
+ * @param cacheDirectory     The directory of the {@link RemoteLogCache cache} of remote logs, or {@code null} to
+ *                           download remote logs on every analysis.
+ * @param cacheSizeBudget    The maximal size of the cached remote logs in bytes.
+ * @param compressCache      Whether remote logs are cached compressed with gzip.
+ * @param listingCache       The file keeping the listings of the walked directories between runs, or {@code null}
+ *                           to read every directory on every analysis.
+ * @param probeTimeSpans     Whether local files are taken as written in the order of time, so files whose heads
+ *                           and tails are outside the date range are skipped, and large plain files are read only
+ *                           within the range found by a binary search. Off by default, since the entries of
+ *                           files which aren't in the order of time, e.g. merged logs of several hosts, are lost.
+ * @param histogramDigits    The number of significant digits of the {@link ResponseSizeHistogram histogram} of
+ *                           response sizes.
+ * @param percentiles        The percentiles of response sizes shown in the report, from 0 to 100.
+ * @param percentileMode     The way the percentiles of response sizes are computed.
+ * @param exactMemoryBudget  The maximal size of the response sizes retained in memory in the exact mode in bytes,
+ *                           beyond which they are spilled to temporary files.
+ */
+@Builder(toBuilder = true)
+public record AnalyzerOptions(TokenizerType tokenizerType, LogFormat logFormat, boolean normalizeResources,
+                              RejectPolicy rejectPolicy, ReadMode readMode, int threads,
+                              boolean gzipIndex, int readAheadDepth, int readAheadBlockSize,
+                              int connections, Path cacheDirectory, long cacheSizeBudget,
+                              boolean compressCache, Path listingCache,
+                              boolean probeTimeSpans, int histogramDigits, List<Double> percentiles,
+                              PercentileMode percentileMode, long exactMemoryBudget) {
+    /**
+     * The default number of parallel downloads of a remote log.
+     */
+    public static final int DEFAULT_CONNECTIONS = 4;
+
+    /**
+     * The default percentiles of response sizes shown in the report.
+     */
+    public static final List<Double> DEFAULT_PERCENTILES = List.of(50.0, 90.0, 95.0, 99.0, 99.9);
+
+    /**
+     * The default memory budget of the exact response sizes in bytes.
+     */
+    public static final long DEFAULT_EXACT_MEMORY_BUDGET = ExactResponseSizes.DEFAULT_MEMORY_BUDGET;
+
+    /**
+     * Creates a builder of options initialized with the default settings.
+     *
+     * @return a builder which uses the combined format tokenizer, counts raw resources, applies the default
+     *     reject policy and reads files line by line with one worker per available processor and without
+     *     reading ahead, and downloads remote logs over {@value #DEFAULT_CONNECTIONS} connections without
+     *     caching them or the listings of the walked directories, and reads files whole with a date range,
+     *     and reports the {@link #DEFAULT_PERCENTILES default percentiles} of response sizes with
+     *     {@value ResponseSizeHistogram#DEFAULT_SIGNIFICANT_DIGITS} significant digits from the histogram
+     */
+    public static AnalyzerOptionsBuilder builder() {
+        return new AnalyzerOptionsBuilder()
+            .tokenizerType(TokenizerType.COMBINED)
+            .rejectPolicy(RejectPolicy.DEFAULT)
+            .readMode(ReadMode.LINES)
+            .threads(Runtime.getRuntime().availableProcessors())
+            .readAheadBlockSize(ReadAhead.DEFAULT_BLOCK_SIZE)
+            .connections(DEFAULT_CONNECTIONS)
+            .cacheSizeBudget(RemoteLogCache.DEFAULT_SIZE_BUDGET)
+            .histogramDigits(ResponseSizeHistogram.DEFAULT_SIGNIFICANT_DIGITS)
+            .percentiles(DEFAULT_PERCENTILES)
+            .percentileMode(PercentileMode.HISTOGRAM)
+            .exactMemoryBudget(DEFAULT_EXACT_MEMORY_BUDGET);
+    }
+}
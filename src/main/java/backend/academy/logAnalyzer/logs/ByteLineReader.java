@@ -0,0 +1,164 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits raw bytes into lines without decoding them through a {@link java.nio.charset.CharsetDecoder}.
+ *
+ * <p>The bytes are read into a large direct buffer, and line feeds are searched for eight bytes at a time:
+ * a word is XOR-ed with a word of line feeds, and the first zero byte of the result is found with a borrow trick
+ * and {@link Long#numberOfTrailingZeros(long)}. The same pass collects the high bits of the bytes of the line.
+ * Combined-format lines are ASCII, since nginx escapes any other byte as {@code \xNN}, so a line is usually
+ * passed on as a plain copy of its bytes. A line with high-bit bytes falls back to a UTF-8 round trip, which
+ * replaces malformed sequences exactly as a {@link java.io.BufferedReader} does. The line terminators
+ * ({@code \n} or {@code \r\n}) aren't included into the lines. An instance must be used by a single thread only.
+ */
+final class ByteLineReader {
+    /**
+     * The initial size of the read buffer, which grows to hold the longest line.
+     */
+    static final int BUFFER_SIZE = 1024 * 1024;
+
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final long LINE_FEEDS = 0x0A0A0A0A0A0A0A0AL;
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final int BYTE_SHIFT = 3;
+    private static final int HIGH_BIT = 0x80;
+    private static final int INITIAL_LINE_SIZE = 1024;
+
+    private final RawLineConsumer consumer;
+    private byte[] line = new byte[INITIAL_LINE_SIZE];
+    private long highBits;
+
+    /**
+     * Constructs a ByteLineReader.
+     *
+     * @param consumer the consumer of the lines
+     */
+    ByteLineReader(RawLineConsumer consumer) {
+        this.consumer = consumer;
+    }
+
+    /**
+     * Passes the lines of the buffer between its position and its limit to the consumer. The last line may
+     * lack a line feed.
+     *
+     * @param buffer the buffer holding the lines, which order is changed to little-endian
+     */
+    void read(ByteBuffer buffer) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        int lineStart = readLines(buffer, buffer.position(), buffer.position(), buffer.limit());
+        if (lineStart < buffer.limit()) {
+            emit(buffer, lineStart, buffer.limit());
+        }
+    }
+
+    /**
+     * Reads the channel to its end and passes its lines to the consumer. The last line may lack a line feed.
+     *
+     * @param channel the channel to read
+     * @throws IOException if the channel can't be read
+     */
+    void read(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        int lineStart = 0;
+        int scanned = 0;
+        while (channel.read(buffer) >= 0) {
+            int filled = buffer.position();
+            lineStart = readLines(buffer, lineStart, scanned, filled);
+            scanned = filled - lineStart;
+            if (lineStart > 0) {
+                buffer.limit(filled).position(lineStart);
+                buffer.compact();
+                lineStart = 0;
+            } else if (!buffer.hasRemaining()) {
+                buffer = grow(buffer);
+            }
+        }
+        if (lineStart < buffer.position()) {
+            emit(buffer, lineStart, buffer.position());
+        }
+    }
+
+    /**
+     * Passes the complete lines of the range to the consumer.
+     *
+     * @param buffer    the buffer holding the lines
+     * @param lineStart the offset of the first byte of the current line
+     * @param from      the offset to continue the search of the line feed from
+     * @param to        the offset right after the last byte of the range
+     * @return the offset of the first byte of the incomplete last line, or {@code to} if there is none
+     */
+    private int readLines(ByteBuffer buffer, int lineStart, int from, int to) {
+        int start = lineStart;
+        int lineFeed = nextLineFeed(buffer, from, to);
+        while (lineFeed >= 0) {
+            emit(buffer, start, lineFeed);
+            start = lineFeed + 1;
+            lineFeed = nextLineFeed(buffer, start, to);
+        }
+        return start;
+    }
+
+    /**
+     * Finds the first line feed of the range and collects the high bits of the bytes before it.
+     *
+     * @return the offset of the line feed, or {@code -1} if there is none
+     */
+    private int nextLineFeed(ByteBuffer buffer, int from, int to) {
+        int position = from;
+        while (position + Long.BYTES <= to) {
+            long word = buffer.getLong(position);
+            long matches = word ^ LINE_FEEDS;
+            long found = (matches - LOW_BITS) & ~matches & HIGH_BITS;
+            if (found != 0) {
+                int index = Long.numberOfTrailingZeros(found) >>> BYTE_SHIFT;
+                highBits |= word & HIGH_BITS & ((1L << (index << BYTE_SHIFT)) - 1);
+                return position + index;
+            }
+            highBits |= word & HIGH_BITS;
+            position += Long.BYTES;
+        }
+        while (position < to) {
+            byte symbol = buffer.get(position);
+            if (symbol == LINE_FEED) {
+                return position;
+            }
+            highBits |= symbol & HIGH_BIT;
+            position++;
+        }
+        return -1;
+    }
+
+    /**
+     * Copies the line out of the buffer and passes it to the consumer.
+     */
+    private void emit(ByteBuffer buffer, int from, int to) {
+        int length = to - from;
+        if (length > 0 && buffer.get(to - 1) == CARRIAGE_RETURN) {
+            length--;
+        }
+        if (line.length < length) {
+            line = new byte[Math.max(length, line.length * 2)];
+        }
+        buffer.get(from, line, 0, length);
+        if (highBits == 0) {
+            consumer.accept(line, length);
+        } else {
+            byte[] normalized = new String(line, 0, length, StandardCharsets.UTF_8).getBytes(StandardCharsets.UTF_8);
+            consumer.accept(normalized, normalized.length);
+            highBits = 0;
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer) {
+        ByteBuffer grown = ByteBuffer.allocateDirect(buffer.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+        return grown.put(buffer.flip());
+    }
+}
@@ -1,28 +1,32 @@
 package backend.academy.logAnalyzer.logs;
 
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicLong;
+import it.unimi.dsi.fastutil.doubles.Double2LongSortedMap;
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
 
 /**
  * A record that stores various collected data metrics related to log analysis.
  *
  * @param totalRequests     The total number of requests processed.
- * @param resourceFrequency A map where the keys resource names and the values are the frequency of requests
- *                          for each resource.
- * @param responseCodes     A map where the keys are response codes and the values are the frequency of each
- *                          response code.
+ * @param resourceFrequency A read-only map where the keys resource names and the values are the frequency of
+ *                          requests for each resource.
+ * @param responseCodes     A read-only map where the keys are numeric response codes and the values are
+ *                          the frequency of each response code.
  * @param totalResponseSize The total size of all responses.
- * @param responseSizes     A list of individual response sizes.
- * @param ips               A map where the keys are IP addresses and the values are the frequency of requests
- *                          from each IP address.
- * @param users             A map where the keys are usernames and the values are the frequency of requests
- *                          from each user.
- * @param percentile        The percentile value calculated from the response sizes.
+ * @param responseSizes     The histogram of response sizes.
+ * @param ips               A read-only map where the keys are IP addresses and the values are the frequency of
+ *                          requests from each IP address.
+ * @param users             A read-only map where the keys are usernames and the values are the frequency of
+ *                          requests from each user.
+ * @param percentile        The 95th percentile of response sizes.
+ * @param sizePercentiles   A read-only map where the keys are the requested percentiles, from 0 to 100, in
+ *                          ascending order and the values are the response sizes at them.
+ * @param rejects           The counters of read lines and of lines which aren't counted, per reason.
  */
 public record CollectedData(long totalRequests,
-                            Map<String, AtomicLong> resourceFrequency,
-                            Map<String, AtomicLong> responseCodes,
-                            long totalResponseSize, List<Long> responseSizes,
-                            Map<String, AtomicLong> ips, Map<String, AtomicLong> users, double percentile) {
+                            Object2LongMap<String> resourceFrequency,
+                            Int2LongMap responseCodes,
+                            long totalResponseSize, ResponseSizeHistogram responseSizes,
+                            Object2LongMap<String> ips, Object2LongMap<String> users, double percentile,
+                            Double2LongSortedMap sizePercentiles, RejectCounters rejects) {
 }
@@ -0,0 +1,66 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Detects gzip-compressed logs by their magic bytes and decompresses them transparently.
+ *
+ * <p>A gzip stream is inflated on a dedicated thread by {@link ReadAhead#pipeline(InputStream, String)}, which
+ * hands blocks of the configured size to the parser, so inflating and parsing overlap on different cores.
+ */
+@UtilityClass
+public class Compression {
+    private static final int FIRST_MAGIC_BYTE = 0x1F;
+    private static final int SECOND_MAGIC_BYTE = 0x8B;
+    private static final int MAGIC_LENGTH = 2;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Checks whether the file starts with the gzip magic bytes.
+     *
+     * @param file the file to check
+     * @return {@code true} if the file is gzip-compressed; {@code false} otherwise
+     * @throws IOException if the file can't be read
+     */
+    public static boolean isGzip(Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            return hasGzipMagic(input.readNBytes(MAGIC_LENGTH));
+        }
+    }
+
+    /**
+     * Wraps the stream into a decompressing one if it starts with the gzip magic bytes.
+     *
+     * @param input     the raw stream of a log
+     * @param readAhead the stage inflating the stream, which receives the statistics of the waits
+     * @return the stream of the decompressed log, or the buffered raw stream if it isn't gzip-compressed
+     * @throws IOException if the stream can't be read or has a corrupted gzip header
+     */
+    public static InputStream decompressIfGzip(InputStream input, ReadAhead readAhead) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(input, BUFFER_SIZE);
+        buffered.mark(MAGIC_LENGTH);
+        byte[] magic = buffered.readNBytes(MAGIC_LENGTH);
+        buffered.reset();
+        if (!hasGzipMagic(magic)) {
+            return buffered;
+        }
+        try {
+            return readAhead.pipeline(new GZIPInputStream(buffered, BUFFER_SIZE), "gzip-inflater");
+        } catch (IOException e) {
+            buffered.close();
+            throw e;
+        }
+    }
+
+    private static boolean hasGzipMagic(byte[] magic) {
+        return magic.length == MAGIC_LENGTH
+            && (magic[0] & BYTE_MASK) == FIRST_MAGIC_BYTE && (magic[1] & BYTE_MASK) == SECOND_MAGIC_BYTE;
+    }
+}
@@ -0,0 +1,541 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import java.util.zip.ZipException;
+
+/**
+ * A decoder of gzip files which, unlike {@link java.util.zip.GZIPInputStream}, can start at any deflate block
+ * of the file and reports the offsets of the blocks it decodes.
+ *
+ * <p>Starting in the middle of a file needs the bit offset of a block and the last 32 KiB of the output before
+ * it (the window the back references of the block may point to), which are saved in the checkpoints of
+ * a {@link GzipIndex}. The decoder follows RFC 1951 and RFC 1952 and supports multi-member files. The CRC-32 and
+ * the size of every member decoded from its header are verified against its trailer, as
+ * {@link java.util.zip.GZIPInputStream} does; a member entered at a checkpoint can't be verified.
+ */
+final class DeflateInputStream extends InputStream {
+    /**
+     * The maximal distance of a back reference.
+     */
+    static final int WINDOW_SIZE = 32 * 1024;
+
+    private static final int INPUT_SIZE = 64 * 1024;
+    private static final int OUTPUT_SIZE = 256 * 1024;
+    private static final int MAX_MATCH = 258;
+    private static final int BYTE_BITS = 8;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int FIRST_MAGIC_BYTE = 0x1F;
+    private static final int SECOND_MAGIC_BYTE = 0x8B;
+    private static final int DEFLATE_METHOD = 8;
+    private static final int SKIPPED_HEADER_BYTES = 6;
+    private static final int FLAG_HCRC = 2;
+    private static final int FLAG_EXTRA = 4;
+    private static final int FLAG_NAME = 8;
+    private static final int FLAG_COMMENT = 16;
+    private static final int HCRC_SIZE = 2;
+    private static final int SHORT_BITS = 16;
+    private static final int SHORT_MASK = 0xFFFF;
+    private static final long INT_MASK = 0xFFFFFFFFL;
+    private static final int BLOCK_TYPE_BITS = 2;
+    private static final int STORED = 0;
+    private static final int FIXED = 1;
+    private static final int DYNAMIC = 2;
+    private static final int END_OF_BLOCK = 256;
+    private static final int FIRST_LENGTH_CODE = 257;
+    private static final int LITERAL_LENGTH_CODES = 288;
+    private static final int DISTANCE_CODES = 32;
+    private static final int MAX_CODE_LENGTH = 15;
+    private static final int LENGTH_BITS = 4;
+    private static final int LENGTH_MASK = 15;
+    private static final int[] LENGTH_BASE = {3, 4, 5, 6, 7, 8, 9, 10, 11, 13, 15, 17, 19, 23, 27, 31, 35, 43, 51, 59,
+        67, 83, 99, 115, 131, 163, 195, 227, 258};
+    private static final int[] LENGTH_EXTRA = {0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 4, 4, 4, 4,
+        5, 5, 5, 5, 0};
+    private static final int[] DISTANCE_BASE = {1, 2, 3, 4, 5, 7, 9, 13, 17, 25, 33, 49, 65, 97, 129, 193, 257, 385,
+        513, 769, 1025, 1537, 2049, 3073, 4097, 6145, 8193, 12289, 16385, 24577};
+    private static final int[] DISTANCE_EXTRA = {0, 0, 0, 0, 1, 1, 2, 2, 3, 3, 4, 4, 5, 5, 6, 6, 7, 7, 8, 8, 9, 9, 10,
+        10, 11, 11, 12, 12, 13, 13};
+    private static final int[] CODE_LENGTH_ORDER = {16, 17, 18, 0, 8, 7, 9, 6, 10, 5, 11, 4, 12, 3, 13, 2, 14, 1, 15};
+    private static final int LITERAL_COUNT_BASE = 257;
+    private static final int DISTANCE_COUNT_BASE = 1;
+    private static final int CODE_LENGTH_COUNT_BASE = 4;
+    private static final int COUNT_BITS = 5;
+    private static final int CODE_LENGTH_COUNT_BITS = 4;
+    private static final int CODE_LENGTH_BITS = 3;
+    private static final int REPEAT_PREVIOUS = 16;
+    private static final int[] REPEAT_BITS = {2, 3, 7};
+    private static final int[] REPEAT_BASE = {3, 3, 11};
+    private static final int FIXED_LITERALS_8 = 144;
+    private static final int FIXED_LITERALS_9 = 256;
+    private static final int FIXED_LENGTHS_7 = 280;
+    private static final int FIXED_LITERAL_LENGTH_7 = 7;
+    private static final int FIXED_LITERAL_LENGTH_8 = 8;
+    private static final int FIXED_LITERAL_LENGTH_9 = 9;
+    private static final int FIXED_DISTANCE_LENGTH = 5;
+
+    /**
+     * The part of the file the decoder is in.
+     */
+    private enum State { GZIP_HEADER, BLOCK_START, STORED_BLOCK, HUFFMAN_BLOCK, MEMBER_END, DONE }
+
+    private final FileChannel channel;
+    private final GzipIndex.Builder builder;
+    private final ByteBuffer input = ByteBuffer.allocate(INPUT_SIZE).flip();
+    private long inputPosition;
+    private long bits;
+    private int bitCount;
+    private int paddedBytes;
+
+    private final byte[] output = new byte[WINDOW_SIZE + OUTPUT_SIZE];
+    private int readPosition = WINDOW_SIZE;
+    private int writePosition = WINDOW_SIZE;
+    private int historyStart;
+    private long outputBase;
+
+    private State state;
+    private boolean lastBlock;
+    private int storedRemaining;
+    private final int[] codeLengths = new int[LITERAL_LENGTH_CODES + DISTANCE_CODES];
+    private int[] literalTable;
+    private int literalBits;
+    private int[] distanceTable;
+    private int distanceBits;
+
+    private final CRC32 checksum = new CRC32();
+    private long memberSize;
+    private boolean verifying;
+
+    private DeflateInputStream(FileChannel channel, long bitOffset, long uncompressedOffset, byte[] window,
+        GzipIndex.Builder builder, State state) throws IOException {
+        this.channel = channel;
+        this.builder = builder;
+        this.state = state;
+        this.inputPosition = bitOffset / BYTE_BITS;
+        this.outputBase = uncompressedOffset - WINDOW_SIZE;
+        this.historyStart = WINDOW_SIZE - window.length;
+        System.arraycopy(window, 0, output, historyStart, window.length);
+        dropBits((int) (bitOffset % BYTE_BITS));
+    }
+
+    /**
+     * Creates a decoder of the whole gzip file.
+     *
+     * @param channel the channel of the file, which is closed with the decoder
+     * @param builder the builder receiving the offsets of the blocks, or {@code null}
+     * @return the decoder positioned at the start of the file
+     * @throws IOException if the file can't be read
+     */
+    static DeflateInputStream fromStart(FileChannel channel, GzipIndex.Builder builder) throws IOException {
+        return new DeflateInputStream(channel, 0, 0, new byte[0], builder, State.GZIP_HEADER);
+    }
+
+    /**
+     * Creates a decoder which starts at the checkpoint of the file.
+     *
+     * @param channel    the channel of the file, which is closed with the decoder
+     * @param checkpoint the checkpoint of a deflate block
+     * @return the decoder positioned at the uncompressed offset of the checkpoint
+     * @throws IOException if the file can't be read
+     */
+    static DeflateInputStream atCheckpoint(FileChannel channel, GzipIndex.Checkpoint checkpoint) throws IOException {
+        return new DeflateInputStream(channel, checkpoint.bitOffset(), checkpoint.uncompressedOffset(),
+            checkpoint.window(), null, State.BLOCK_START);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return output[readPosition++] & BYTE_MASK;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        if (length == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int count = Math.min(length, writePosition - readPosition);
+        System.arraycopy(output, readPosition, bytes, offset, count);
+        readPosition += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        state = State.DONE;
+        channel.close();
+    }
+
+    /**
+     * Decodes the next part of the data when all decoded bytes have been read. The last 32 KiB of the output
+     * are moved to the start of the buffer first, so back references always find their bytes.
+     *
+     * @return {@code true} if there are unread bytes; {@code false} at the end of the data
+     */
+    private boolean fill() throws IOException {
+        while (readPosition == writePosition && state != State.DONE) {
+            int shift = writePosition - WINDOW_SIZE;
+            System.arraycopy(output, shift, output, 0, WINDOW_SIZE);
+            outputBase += shift;
+            historyStart = Math.max(0, historyStart - shift);
+            readPosition = WINDOW_SIZE;
+            writePosition = WINDOW_SIZE;
+            decode(output.length - MAX_MATCH);
+        }
+        return readPosition < writePosition;
+    }
+
+    private void decode(int limit) throws IOException {
+        int checked = writePosition;
+        while (writePosition < limit && state != State.DONE) {
+            switch (state) {
+                case GZIP_HEADER -> {
+                    state = readGzipHeader() ? State.BLOCK_START : State.DONE;
+                    verifying = true;
+                    checksum.reset();
+                    memberSize = 0;
+                }
+                case BLOCK_START -> startBlock();
+                case STORED_BLOCK -> copyStored(limit);
+                case HUFFMAN_BLOCK -> decodeHuffman(limit);
+                case MEMBER_END -> {
+                    checked = updateChecksum(checked);
+                    readTrailer();
+                    state = State.GZIP_HEADER;
+                }
+                default -> throw new IllegalStateException("Unexpected state " + state);
+            }
+        }
+        updateChecksum(checked);
+    }
+
+    /**
+     * Adds the bytes decoded since the given position to the checksum of the member.
+     *
+     * @return the position the next bytes are added from
+     */
+    private int updateChecksum(int from) {
+        if (verifying) {
+            checksum.update(output, from, writePosition - from);
+            memberSize += writePosition - from;
+        }
+        return writePosition;
+    }
+
+    /**
+     * Reads the trailer of the member and compares it with the decoded bytes if the member has been decoded
+     * from its header.
+     */
+    private void readTrailer() throws IOException {
+        dropBits(bitCount % BYTE_BITS);
+        long crc = readBits(SHORT_BITS) | (long) readBits(SHORT_BITS) << SHORT_BITS;
+        long size = readBits(SHORT_BITS) | (long) readBits(SHORT_BITS) << SHORT_BITS;
+        if (verifying && (crc != checksum.getValue() || size != (memberSize & INT_MASK))) {
+            throw new ZipException("Corrupt GZIP trailer");
+        }
+    }
+
+    /**
+     * Reads the header of the next gzip member.
+     *
+     * @return {@code true} if a member follows; {@code false} at the end of the file or before trailing garbage
+     */
+    private boolean readGzipHeader() throws IOException {
+        if (!hasMoreInput() || readBits(BYTE_BITS) != FIRST_MAGIC_BYTE || !hasMoreInput()
+            || readBits(BYTE_BITS) != SECOND_MAGIC_BYTE) {
+            return false;
+        }
+        if (readBits(BYTE_BITS) != DEFLATE_METHOD) {
+            throw new ZipException("Unsupported compression method");
+        }
+        int flags = readBits(BYTE_BITS);
+        for (int i = 0; i < SKIPPED_HEADER_BYTES; i++) {
+            readBits(BYTE_BITS);
+        }
+        if ((flags & FLAG_EXTRA) != 0) {
+            int length = readBits(SHORT_BITS);
+            for (int i = 0; i < length; i++) {
+                readBits(BYTE_BITS);
+            }
+        }
+        if ((flags & FLAG_NAME) != 0) {
+            skipZeroTerminated();
+        }
+        if ((flags & FLAG_COMMENT) != 0) {
+            skipZeroTerminated();
+        }
+        if ((flags & FLAG_HCRC) != 0) {
+            readBits(HCRC_SIZE * BYTE_BITS);
+        }
+        return true;
+    }
+
+    private void skipZeroTerminated() throws IOException {
+        int symbol = readBits(BYTE_BITS);
+        while (symbol != 0) {
+            symbol = readBits(BYTE_BITS);
+        }
+    }
+
+    /**
+     * Reads the header of the next deflate block, which is reported to the builder first.
+     */
+    private void startBlock() throws IOException {
+        if (builder != null) {
+            builder.blockStart(bitPosition(), outputBase + writePosition, output,
+                Math.max(historyStart, writePosition - WINDOW_SIZE), writePosition);
+        }
+        lastBlock = readBits(1) == 1;
+        int type = readBits(BLOCK_TYPE_BITS);
+        if (type == STORED) {
+            dropBits(bitCount % BYTE_BITS);
+            storedRemaining = readBits(SHORT_BITS);
+            if ((readBits(SHORT_BITS) ^ SHORT_MASK) != storedRemaining) {
+                throw new ZipException("Invalid stored block length");
+            }
+            state = State.STORED_BLOCK;
+        } else if (type == FIXED) {
+            readFixedTables();
+            state = State.HUFFMAN_BLOCK;
+        } else if (type == DYNAMIC) {
+            readDynamicTables();
+            state = State.HUFFMAN_BLOCK;
+        } else {
+            throw new ZipException("Invalid block type");
+        }
+    }
+
+    private void copyStored(int limit) throws IOException {
+        while (storedRemaining > 0 && writePosition < limit) {
+            output[writePosition++] = (byte) readBits(BYTE_BITS);
+            storedRemaining--;
+        }
+        if (storedRemaining == 0) {
+            state = lastBlock ? State.MEMBER_END : State.BLOCK_START;
+        }
+    }
+
+    private void decodeHuffman(int limit) throws IOException {
+        while (writePosition < limit) {
+            int symbol = decodeSymbol(literalTable, literalBits);
+            if (symbol < END_OF_BLOCK) {
+                output[writePosition++] = (byte) symbol;
+            } else if (symbol == END_OF_BLOCK) {
+                state = lastBlock ? State.MEMBER_END : State.BLOCK_START;
+                return;
+            } else {
+                copyMatch(symbol - FIRST_LENGTH_CODE);
+            }
+        }
+    }
+
+    private void copyMatch(int lengthCode) throws IOException {
+        if (lengthCode >= LENGTH_BASE.length) {
+            throw new ZipException("Invalid length code");
+        }
+        int length = LENGTH_BASE[lengthCode] + readBits(LENGTH_EXTRA[lengthCode]);
+        int distanceCode = decodeSymbol(distanceTable, distanceBits);
+        if (distanceCode >= DISTANCE_BASE.length) {
+            throw new ZipException("Invalid distance code");
+        }
+        int distance = DISTANCE_BASE[distanceCode] + readBits(DISTANCE_EXTRA[distanceCode]);
+        int from = writePosition - distance;
+        if (from < historyStart) {
+            throw new ZipException("Invalid distance too far back");
+        }
+        if (distance >= length) {
+            System.arraycopy(output, from, output, writePosition, length);
+            writePosition += length;
+        } else {
+            for (int i = 0; i < length; i++) {
+                output[writePosition++] = output[from + i];
+            }
+        }
+    }
+
+    private void readFixedTables() throws ZipException {
+        for (int symbol = 0; symbol < LITERAL_LENGTH_CODES; symbol++) {
+            if (symbol < FIXED_LITERALS_8) {
+                codeLengths[symbol] = FIXED_LITERAL_LENGTH_8;
+            } else if (symbol < FIXED_LITERALS_9) {
+                codeLengths[symbol] = FIXED_LITERAL_LENGTH_9;
+            } else if (symbol < FIXED_LENGTHS_7) {
+                codeLengths[symbol] = FIXED_LITERAL_LENGTH_7;
+            } else {
+                codeLengths[symbol] = FIXED_LITERAL_LENGTH_8;
+            }
+        }
+        for (int symbol = 0; symbol < DISTANCE_CODES; symbol++) {
+            codeLengths[LITERAL_LENGTH_CODES + symbol] = FIXED_DISTANCE_LENGTH;
+        }
+        buildTables(LITERAL_LENGTH_CODES, DISTANCE_CODES);
+    }
+
+    private void readDynamicTables() throws IOException {
+        int literalCount = readBits(COUNT_BITS) + LITERAL_COUNT_BASE;
+        int distanceCount = readBits(COUNT_BITS) + DISTANCE_COUNT_BASE;
+        int codeLengthCount = readBits(CODE_LENGTH_COUNT_BITS) + CODE_LENGTH_COUNT_BASE;
+        int[] codeLengthLengths = new int[CODE_LENGTH_ORDER.length];
+        for (int i = 0; i < codeLengthCount; i++) {
+            codeLengthLengths[CODE_LENGTH_ORDER[i]] = readBits(CODE_LENGTH_BITS);
+        }
+        int codeLengthBits = maxLength(codeLengthLengths, 0, codeLengthLengths.length);
+        int[] codeLengthTable = buildTable(codeLengthLengths, 0, codeLengthLengths.length, codeLengthBits);
+        int total = literalCount + distanceCount;
+        int position = 0;
+        while (position < total) {
+            int symbol = decodeSymbol(codeLengthTable, codeLengthBits);
+            if (symbol < REPEAT_PREVIOUS) {
+                codeLengths[position++] = symbol;
+                continue;
+            }
+            if (symbol == REPEAT_PREVIOUS && position == 0) {
+                throw new ZipException("Invalid code length repeat");
+            }
+            int value = symbol == REPEAT_PREVIOUS ? codeLengths[position - 1] : 0;
+            int repeat = REPEAT_BASE[symbol - REPEAT_PREVIOUS] + readBits(REPEAT_BITS[symbol - REPEAT_PREVIOUS]);
+            if (position + repeat > total) {
+                throw new ZipException("Invalid code length repeat");
+            }
+            for (int i = 0; i < repeat; i++) {
+                codeLengths[position++] = value;
+            }
+        }
+        System.arraycopy(codeLengths, literalCount, codeLengths, LITERAL_LENGTH_CODES, distanceCount);
+        for (int i = literalCount; i < LITERAL_LENGTH_CODES; i++) {
+            codeLengths[i] = 0;
+        }
+        for (int i = LITERAL_LENGTH_CODES + distanceCount; i < codeLengths.length; i++) {
+            codeLengths[i] = 0;
+        }
+        buildTables(LITERAL_LENGTH_CODES, DISTANCE_CODES);
+    }
+
+    private void buildTables(int literalCount, int distanceCount) throws ZipException {
+        literalBits = maxLength(codeLengths, 0, literalCount);
+        literalTable = buildTable(codeLengths, 0, literalCount, literalBits);
+        distanceBits = maxLength(codeLengths, literalCount, literalCount + distanceCount);
+        distanceTable = buildTable(codeLengths, literalCount, literalCount + distanceCount, distanceBits);
+    }
+
+    private static int maxLength(int[] lengths, int from, int to) {
+        int max = 0;
+        for (int i = from; i < to; i++) {
+            max = Math.max(max, lengths[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Builds the lookup table of a canonical Huffman code. The table is indexed by the next {@code tableBits}
+     * bits of the stream, an entry holds the symbol shifted left by four bits and the length of its code.
+     * The entries of unused codes are zero.
+     */
+    private static int[] buildTable(int[] lengths, int from, int to, int tableBits) throws ZipException {
+        int[] counts = new int[MAX_CODE_LENGTH + 1];
+        for (int i = from; i < to; i++) {
+            counts[lengths[i]]++;
+        }
+        counts[0] = 0;
+        int[] nextCode = new int[MAX_CODE_LENGTH + 1];
+        int code = 0;
+        for (int length = 1; length <= MAX_CODE_LENGTH; length++) {
+            code = (code + counts[length - 1]) << 1;
+            nextCode[length] = code;
+            if (counts[length] > (1 << length) - code) {
+                throw new ZipException("Oversubscribed Huffman code");
+            }
+        }
+        int[] table = new int[1 << tableBits];
+        for (int symbol = from; symbol < to; symbol++) {
+            int length = lengths[symbol];
+            if (length != 0) {
+                int reversed = Integer.reverse(nextCode[length]++) >>> (Integer.SIZE - length);
+                int entry = (symbol - from) << LENGTH_BITS | length;
+                for (int index = reversed; index < table.length; index += 1 << length) {
+                    table[index] = entry;
+                }
+            }
+        }
+        return table;
+    }
+
+    private int decodeSymbol(int[] table, int tableBits) throws IOException {
+        ensureBits(tableBits);
+        int entry = table[(int) bits & ((1 << tableBits) - 1)];
+        int length = entry & LENGTH_MASK;
+        if (length == 0) {
+            throw new ZipException("Invalid Huffman code");
+        }
+        dropBits(length);
+        return entry >>> LENGTH_BITS;
+    }
+
+    private int readBits(int count) throws IOException {
+        ensureBits(count);
+        int value = (int) bits & ((1 << count) - 1);
+        dropBits(count);
+        return value;
+    }
+
+    private void ensureBits(int count) throws IOException {
+        while (bitCount < count) {
+            bits |= (long) nextByte() << bitCount;
+            bitCount += BYTE_BITS;
+        }
+    }
+
+    private void dropBits(int count) throws IOException {
+        ensureBits(count);
+        bits >>>= count;
+        bitCount -= count;
+        if (bitCount < paddedBytes * BYTE_BITS) {
+            throw new EOFException("Unexpected end of gzip data");
+        }
+    }
+
+    /**
+     * Returns the next byte of the file. Past the end of the file zero bytes are returned, which may be needed
+     * to fill the lookup of the last code of the file, but must never be consumed.
+     */
+    private int nextByte() throws IOException {
+        if (!input.hasRemaining() && !refill()) {
+            paddedBytes++;
+            return 0;
+        }
+        return input.get() & BYTE_MASK;
+    }
+
+    private boolean refill() throws IOException {
+        input.clear();
+        int read = channel.read(input, inputPosition);
+        input.flip();
+        if (read <= 0) {
+            return false;
+        }
+        inputPosition += read;
+        return true;
+    }
+
+    private boolean hasMoreInput() throws IOException {
+        return bitCount > paddedBytes * BYTE_BITS || input.hasRemaining() || refill();
+    }
+
+    /**
+     * Returns the offset of the next unread bit of the file.
+     */
+    private long bitPosition() {
+        return (inputPosition - input.remaining() + paddedBytes) * BYTE_BITS - bitCount;
+    }
+}
@@ -0,0 +1,157 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The names of the entries of directories, kept in a file between runs.
+ *
+ * <p>Adding, removing or renaming an entry updates the modification time of its directory, so a listing is reused
+ * while the modification time of the directory is the one it has been taken at. A listing of a directory modified
+ * less than {@value #RACY_MILLIS} ms before it has been taken isn't cached, because the directory could have been
+ * modified again within the granularity of its timestamp. The cache is thread-safe.
+ */
+@Slf4j
+final class DirectoryListingCache {
+    private static final long RACY_MILLIS = 2_000;
+    private static final int MAGIC = 0x4C444952;
+    private static final int VERSION = 1;
+
+    private record Listing(long modified, List<String> names) {
+    }
+
+    private final Path file;
+    private final Map<String, Listing> listings = new ConcurrentHashMap<>();
+    private volatile boolean changed;
+
+    /**
+     * Constructs a DirectoryListingCache and loads the listings saved into the file.
+     *
+     * @param file the file of the cache, which doesn't have to exist
+     */
+    DirectoryListingCache(Path file) {
+        this.file = file;
+        load();
+    }
+
+    /**
+     * Lists the names of the entries of the directory, reading the directory only if it has been modified since
+     * the cached listing.
+     *
+     * @param directory  the directory
+     * @param attributes the attributes of the directory
+     * @return the names of the entries
+     * @throws IOException if the directory can't be read
+     */
+    List<String> names(Path directory, BasicFileAttributes attributes) throws IOException {
+        String key = directory.toAbsolutePath().normalize().toString();
+        long modified = attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+        Listing cached = listings.get(key);
+        if (cached != null && cached.modified() == modified) {
+            return cached.names();
+        }
+        long listedAt = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - RACY_MILLIS);
+        List<String> names = read(directory);
+        if (modified < listedAt) {
+            listings.put(key, new Listing(modified, names));
+            changed = true;
+        } else if (cached != null) {
+            listings.remove(key);
+            changed = true;
+        }
+        return names;
+    }
+
+    /**
+     * Reads the names of the entries of the directory.
+     *
+     * @param directory the directory
+     * @return the names of the entries
+     * @throws IOException if the directory can't be read
+     */
+    static List<String> read(Path directory) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                names.add(entry.getFileName().toString());
+            }
+        }
+        return List.copyOf(names);
+    }
+
+    /**
+     * Saves the listings into the file if any of them has changed. The file is written under a temporary name
+     * and then renamed, so concurrent runs never see a partially written cache.
+     *
+     * @throws IOException if the file can't be written
+     */
+    void save() throws IOException {
+        if (!changed) {
+            return;
+        }
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                new DeflaterOutputStream(Files.newOutputStream(temporary))))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(listings.size());
+                for (Map.Entry<String, Listing> entry : listings.entrySet()) {
+                    output.writeUTF(entry.getKey());
+                    output.writeLong(entry.getValue().modified());
+                    output.writeInt(entry.getValue().names().size());
+                    for (String name : entry.getValue().names()) {
+                        output.writeUTF(name);
+                    }
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            changed = false;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void load() {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+            new InflaterInputStream(Files.newInputStream(file))))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                return;
+            }
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = input.readUTF();
+                long modified = input.readLong();
+                String[] names = new String[input.readInt()];
+                for (int j = 0; j < names.length; j++) {
+                    names[j] = input.readUTF();
+                }
+                listings.put(key, new Listing(modified, List.of(names)));
+            }
+        } catch (NoSuchFileException e) {
+            log.debug("There is no directory listing cache {} yet", file);
+        } catch (IOException e) {
+            listings.clear();
+            log.warn("The directory listing cache {} can't be read", file, e);
+        }
+    }
+}
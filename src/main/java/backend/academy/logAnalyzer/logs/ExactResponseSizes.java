@@ -0,0 +1,466 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Retains every response size seen by a worker to compute exact percentiles in the {@link PercentileMode#EXACT
+ * exact mode}.
+ *
+ * <p>The sizes are kept in a growable primitive array. Its growth beyond the first {@value #INITIAL_CAPACITY}
+ * values is reserved from a {@link MemoryBudget budget} shared by all workers of an analysis, and when the budget
+ * is exhausted the array is appended to a temporary file and reused. The percentiles of sizes in memory are
+ * selected at once by a multi-rank introselect, which partitions the array around a pivot and descends only into
+ * the parts holding requested ranks, in {@code O(n)} expected time, falling back to {@link Arrays#sort(long[],
+ * int, int)} for parts which partition badly. The percentiles of spilled sizes are selected externally: every
+ * pass over the file counts the sizes of the current value range of each rank in {@value #SUB_RANGES} sub-ranges
+ * and narrows the range to the sub-range holding the rank, until the sizes within the range fit into the budget
+ * and are selected in memory, or the range is a single value.
+ *
+ * <p>The store isn't thread-safe: every worker fills its own instance, and the instances are merged once
+ * the workers are done.
+ */
+final class ExactResponseSizes implements Closeable {
+    /**
+     * The default memory budget of the exact sizes of an analysis in bytes (256 MiB).
+     */
+    static final long DEFAULT_MEMORY_BUDGET = 256L * 1024 * 1024;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    private static final int SORT_THRESHOLD = 32;
+    private static final int SUB_RANGES = 4096;
+    private static final int SPILL_BUFFER_SIZE = 1024 * 1024;
+
+    private final MemoryBudget budget;
+    private long[] values = new long[INITIAL_CAPACITY];
+    private long reservedBytes;
+    private int size;
+    private Path spillFile;
+    private long spilled;
+    private long minValue = Long.MAX_VALUE;
+    private long maxValue = Long.MIN_VALUE;
+
+    /**
+     * Constructs an empty store.
+     *
+     * @param budget the memory budget shared by all workers of the analysis
+     */
+    ExactResponseSizes(MemoryBudget budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Returns the number of retained sizes.
+     *
+     * @return the number of sizes in memory and on disk
+     */
+    long count() {
+        return spilled + size;
+    }
+
+    /**
+     * Retains a size.
+     *
+     * @param value the response size
+     * @throws UncheckedIOException if the sizes can't be spilled to disk
+     */
+    void record(long value) {
+        if (size == values.length && !grow()) {
+            spill();
+        }
+        values[size++] = value;
+        minValue = Math.min(minValue, value);
+        maxValue = Math.max(maxValue, value);
+    }
+
+    /**
+     * Moves the sizes of another store into this one. The memory of the other store stays reserved until its
+     * sizes are copied, so this store grows only within what is left of the budget, and spills otherwise.
+     *
+     * @param other the store of another worker, which is closed
+     * @throws UncheckedIOException if the sizes can't be spilled to disk
+     */
+    void merge(ExactResponseSizes other) {
+        try {
+            minValue = Math.min(minValue, other.minValue);
+            maxValue = Math.max(maxValue, other.maxValue);
+            for (int copied = 0; copied < other.size;) {
+                if (size == values.length && !grow()) {
+                    spill();
+                }
+                int length = Math.min(other.size - copied, values.length - size);
+                System.arraycopy(other.values, copied, values, size, length);
+                size += length;
+                copied += length;
+            }
+            if (other.spillFile != null) {
+                try (FileChannel source = FileChannel.open(other.spillFile, StandardOpenOption.READ);
+                     FileChannel target = openSpillFile()) {
+                    long transferred = 0;
+                    while (transferred < source.size()) {
+                        transferred += source.transferTo(transferred, source.size() - transferred, target);
+                    }
+                }
+                spilled += other.spilled;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("The response sizes can't be spilled to disk", e);
+        } finally {
+            other.close();
+        }
+    }
+
+    /**
+     * Selects the exact sizes at the percentiles by the nearest-rank method.
+     *
+     * @param percentiles the percentiles, from 0 to 100
+     * @return the sizes at the percentiles in the same order, or zeros if no size has been retained
+     * @throws UncheckedIOException if the spilled sizes can't be read
+     */
+    long[] valuesAtPercentiles(double[] percentiles) {
+        long count = count();
+        long[] result = new long[percentiles.length];
+        if (count == 0) {
+            return result;
+        }
+        long[] ranks = new long[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            ranks[i] = ResponseSizeHistogram.rankOf(percentiles[i], count) - 1;
+        }
+        long[] distinctRanks = Arrays.stream(ranks).sorted().distinct().toArray();
+        long[] selected;
+        if (spillFile == null) {
+            select(values, 0, size, distinctRanks, 0, distinctRanks.length, 2 * log2(size));
+            selected = new long[distinctRanks.length];
+            for (int i = 0; i < distinctRanks.length; i++) {
+                selected[i] = values[(int) distinctRanks[i]];
+            }
+        } else {
+            try {
+                spill();
+                releaseMemory();
+                selected = selectExternally(distinctRanks);
+            } catch (IOException e) {
+                throw new UncheckedIOException("The spilled response sizes can't be read", e);
+            }
+        }
+        for (int i = 0; i < ranks.length; i++) {
+            result[i] = selected[Arrays.binarySearch(distinctRanks, ranks[i])];
+        }
+        return result;
+    }
+
+    /**
+     * Releases the reserved memory and deletes the temporary file.
+     */
+    @Override
+    public void close() {
+        releaseMemory();
+        if (spillFile != null) {
+            try {
+                Files.deleteIfExists(spillFile);
+            } catch (IOException e) {
+                spillFile.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Doubles the capacity of the array if the budget allows it.
+     *
+     * @return whether the array has grown
+     */
+    private boolean grow() {
+        int capacity = (int) Math.min(2L * values.length, MAX_CAPACITY);
+        long bytes = (long) (capacity - values.length) * Long.BYTES;
+        if (capacity == values.length || !budget.reserve(bytes)) {
+            return false;
+        }
+        values = Arrays.copyOf(values, capacity);
+        reservedBytes += bytes;
+        return true;
+    }
+
+    private void releaseMemory() {
+        budget.release(reservedBytes);
+        reservedBytes = 0;
+        values = new long[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Appends the sizes in memory to the temporary file and empties the array.
+     */
+    private void spill() {
+        try (FileChannel channel = openSpillFile()) {
+            ByteBuffer buffer = ByteBuffer.allocate(SPILL_BUFFER_SIZE);
+            LongBuffer longs = buffer.asLongBuffer();
+            for (int written = 0; written < size;) {
+                int length = Math.min(size - written, longs.capacity());
+                longs.clear();
+                longs.put(values, written, length);
+                buffer.clear().limit(length * Long.BYTES);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                written += length;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("The response sizes can't be spilled to disk", e);
+        }
+        spilled += size;
+        size = 0;
+    }
+
+    private FileChannel openSpillFile() throws IOException {
+        if (spillFile == null) {
+            spillFile = Files.createTempFile("response-sizes", ".bin");
+            spillFile.toFile().deleteOnExit();
+        }
+        return FileChannel.open(spillFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Selects the values at the ranks among the spilled sizes by narrowing a value range per rank.
+     *
+     * @param ranks the distinct zero-based ranks in ascending order
+     * @return the values at the ranks
+     */
+    private long[] selectExternally(long[] ranks) throws IOException {
+        int targets = ranks.length;
+        long[] low = new long[targets];
+        long[] high = new long[targets];
+        long[] below = new long[targets];
+        long[] within = new long[targets];
+        Arrays.fill(low, minValue);
+        Arrays.fill(high, maxValue);
+        Arrays.fill(within, spilled);
+        long capacity = Math.clamp(budget.total() / Long.BYTES / targets, SUB_RANGES, MAX_CAPACITY);
+        while (true) {
+            boolean[] narrowed = new boolean[targets];
+            long[][] counts = new long[targets][];
+            long[] widths = new long[targets];
+            for (int t = 0; t < targets; t++) {
+                if (low[t] < high[t] && within[t] > capacity) {
+                    narrowed[t] = true;
+                    counts[t] = new long[SUB_RANGES];
+                    widths[t] = (high[t] - low[t]) / SUB_RANGES + 1;
+                }
+            }
+            if (!contains(narrowed)) {
+                break;
+            }
+            scanSpilled(value -> {
+                for (int t = 0; t < targets; t++) {
+                    if (narrowed[t] && value >= low[t] && value <= high[t]) {
+                        counts[t][(int) ((value - low[t]) / widths[t])]++;
+                    }
+                }
+            });
+            for (int t = 0; t < targets; t++) {
+                if (narrowed[t]) {
+                    int subRange = 0;
+                    while (below[t] + counts[t][subRange] <= ranks[t]) {
+                        below[t] += counts[t][subRange];
+                        subRange++;
+                    }
+                    low[t] += subRange * widths[t];
+                    high[t] = Math.min(high[t], low[t] + widths[t] - 1);
+                    within[t] = counts[t][subRange];
+                }
+            }
+        }
+        return selectWithinRanges(ranks, low, high, below, within);
+    }
+
+    /**
+     * Collects the sizes within the narrowed range of every rank in a single pass and selects the ranks among
+     * them in memory.
+     */
+    private long[] selectWithinRanges(long[] ranks, long[] low, long[] high, long[] below, long[] within)
+        throws IOException {
+        int targets = ranks.length;
+        long[] result = new long[targets];
+        long[][] candidates = new long[targets][];
+        int[] collected = new int[targets];
+        for (int t = 0; t < targets; t++) {
+            result[t] = low[t];
+            if (low[t] < high[t]) {
+                candidates[t] = new long[(int) within[t]];
+            }
+        }
+        scanSpilled(value -> {
+            for (int t = 0; t < targets; t++) {
+                if (candidates[t] != null && value >= low[t] && value <= high[t]) {
+                    candidates[t][collected[t]++] = value;
+                }
+            }
+        });
+        for (int t = 0; t < targets; t++) {
+            if (candidates[t] != null) {
+                long[] rank = {ranks[t] - below[t]};
+                select(candidates[t], 0, candidates[t].length, rank, 0, 1, 2 * log2(candidates[t].length));
+                result[t] = candidates[t][(int) rank[0]];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Passes the spilled sizes to the consumer in the order they have been written.
+     */
+    private void scanSpilled(LongConsumer consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(spillFile, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(SPILL_BUFFER_SIZE);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                LongBuffer longs = buffer.asLongBuffer();
+                while (longs.hasRemaining()) {
+                    consumer.accept(longs.get());
+                }
+                buffer.position(longs.position() * Long.BYTES);
+                buffer.compact();
+            }
+        }
+    }
+
+    /**
+     * Rearranges the part of the array so that the values at the ranks are the ones of the sorted part.
+     *
+     * @param array     the array
+     * @param from      the start of the part, inclusive
+     * @param to        the end of the part, exclusive
+     * @param ranks     the indexes of the array in ascending order
+     * @param rankFrom  the first of the ranks within the part, inclusive
+     * @param rankTo    the last of the ranks within the part, exclusive
+     * @param depth     the number of partitions left before the part is sorted instead
+     */
+    private static void select(long[] array, int from, int to, long[] ranks, int rankFrom, int rankTo, int depth) {
+        int start = from;
+        int end = to;
+        int firstRank = rankFrom;
+        int levels = depth;
+        while (firstRank < rankTo) {
+            if (end - start <= SORT_THRESHOLD || levels == 0) {
+                Arrays.sort(array, start, end);
+                return;
+            }
+            levels--;
+            long pivot = medianOfThree(array[start], array[start + (end - start) / 2], array[end - 1]);
+            int less = start;
+            int greater = end;
+            int i = start;
+            while (i < greater) {
+                if (array[i] < pivot) {
+                    swap(array, less, i);
+                    less++;
+                    i++;
+                } else if (array[i] > pivot) {
+                    greater--;
+                    swap(array, i, greater);
+                } else {
+                    i++;
+                }
+            }
+            int leftRanks = lowerBound(ranks, firstRank, rankTo, less);
+            select(array, start, less, ranks, firstRank, leftRanks, levels);
+            firstRank = lowerBound(ranks, leftRanks, rankTo, greater);
+            start = greater;
+        }
+    }
+
+    private static long medianOfThree(long a, long b, long c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private static void swap(long[] array, int i, int j) {
+        long value = array[i];
+        array[i] = array[j];
+        array[j] = value;
+    }
+
+    private static int lowerBound(long[] ranks, int from, int to, long index) {
+        int position = from;
+        while (position < to && ranks[position] < index) {
+            position++;
+        }
+        return position;
+    }
+
+    private static int log2(int value) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(value);
+    }
+
+    private static boolean contains(boolean[] flags) {
+        for (boolean flag : flags) {
+            if (flag) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The number of bytes the exact sizes of all workers of an analysis may keep in memory.
+     */
+    static final class MemoryBudget {
+        private final long total;
+        private final AtomicLong available;
+
+        /**
+         * Constructs a budget.
+         *
+         * @param total the number of bytes
+         */
+        MemoryBudget(long total) {
+            this.total = total;
+            this.available = new AtomicLong(total);
+        }
+
+        /**
+         * Returns the number of bytes of the budget.
+         *
+         * @return the number of bytes
+         */
+        long total() {
+            return total;
+        }
+
+        /**
+         * Reserves bytes if they are available.
+         *
+         * @param bytes the number of bytes
+         * @return whether the bytes have been reserved
+         */
+        boolean reserve(long bytes) {
+            long current = available.get();
+            while (current >= bytes) {
+                if (available.compareAndSet(current, current - bytes)) {
+                    return true;
+                }
+                current = available.get();
+            }
+            return false;
+        }
+
+        /**
+         * Returns reserved bytes to the budget.
+         *
+         * @param bytes the number of bytes
+         */
+        void release(long bytes) {
+            available.addAndGet(bytes);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A newline-aligned range of a log file, which is read through a memory mapping independently of the other
+ * chunks of the file.
+ *
+ * <p>A chunk is mapped as a {@link MappedByteBuffer} rather than a {@code MemorySegment}: chunks of about
+ * {@value #DEFAULT_SIZE} bytes stay far below the 2 GiB limit of a buffer mapping, and the line reader works
+ * on byte buffers, so a segment would only add an arena to every chunk.
+ *
+ * @param file  The log file.
+ * @param start The offset of the first byte of the chunk, which is the first byte of a line.
+ * @param end   The offset right after the last byte of the chunk, which is right after a line feed or the end
+ *              of the file.
+ */
+public record FileChunk(Path file, long start, long end) implements LineSource {
+    /**
+     * The default size of a chunk.
+     */
+    public static final long DEFAULT_SIZE = 32L * 1024 * 1024;
+
+    private static final byte LINE_FEED = '\n';
+    private static final int PROBE_SIZE = 4096;
+
+    /**
+     * Splits the file into chunks of about the specified size. Every chunk boundary is moved forward to
+     * the start of the next line, so a line always belongs to a single chunk.
+     *
+     * @param file      the log file
+     * @param chunkSize the approximate size of a chunk, which must not exceed {@link Integer#MAX_VALUE}
+     * @return the chunks of the file in the order of their offsets
+     * @throws IOException if the file can't be read
+     */
+    public static List<FileChunk> split(Path file, long chunkSize) throws IOException {
+        return new FileChunk(file, 0, Files.size(file)).split(chunkSize);
+    }
+
+    /**
+     * Splits this range of the file into chunks of about the specified size, the same way as
+     * {@link #split(Path, long)} splits a whole file.
+     *
+     * @param chunkSize the approximate size of a chunk, which must not exceed {@link Integer#MAX_VALUE}
+     * @return the chunks of the range in the order of their offsets
+     * @throws IOException if the file can't be read
+     */
+    public List<FileChunk> split(long chunkSize) throws IOException {
+        List<FileChunk> chunks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+            long chunkStart = start;
+            while (chunkStart < end) {
+                long chunkEnd = chunkStart + chunkSize < end
+                    ? Math.min(nextLineStart(channel, chunkStart + chunkSize, probe), end) : end;
+                chunks.add(new FileChunk(file, chunkStart, chunkEnd));
+                chunkStart = chunkEnd;
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Finds the start of the first line which begins after the position.
+     *
+     * @return the offset right after the first line feed at or after the position, or the size of the file
+     */
+    private static long nextLineStart(FileChannel channel, long position, ByteBuffer probe) throws IOException {
+        long offset = position;
+        while (true) {
+            probe.clear();
+            int read = channel.read(probe, offset);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == LINE_FEED) {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+    }
+
+    @Override
+    public long size() {
+        return end - start;
+    }
+
+    /**
+     * Maps the chunk into memory and passes its lines to the consumer. The line terminators ({@code \n} or
+     * {@code \r\n}) aren't included into the lines.
+     *
+     * @param consumer the consumer of the lines
+     * @throws IOException if the file can't be mapped
+     */
+    @Override
+    public void forEachRawLine(RawLineConsumer consumer) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        }
+        new ByteLineReader(consumer).read(buffer);
+    }
+}
@@ -0,0 +1,40 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A part of a gzip file between two checkpoints of its {@link GzipIndex}, which is decompressed independently
+ * of the other parts of the file.
+ *
+ * <p>Like a {@link FileChunk}, the chunk owns the lines which start within its range of the uncompressed data:
+ * the partial first line is skipped, and the last line is read past the end of the range.
+ *
+ * @param file       The gzip file.
+ * @param checkpoint The checkpoint the chunk starts at.
+ * @param end        The offset right after the range in the uncompressed data.
+ * @param size       The number of compressed bytes of the chunk.
+ */
+public record GzipChunk(Path file, GzipIndex.Checkpoint checkpoint, long end, long size) implements LineSource {
+    private static final int LINE_FEED = '\n';
+
+    @Override
+    public void forEachRawLine(RawLineConsumer consumer) throws IOException {
+        try (InputStream input = DeflateInputStream.atCheckpoint(FileChannel.open(file, StandardOpenOption.READ),
+            checkpoint)) {
+            long remaining = end - checkpoint.uncompressedOffset();
+            byte[] window = checkpoint.window();
+            if (window.length > 0 && window[window.length - 1] != LINE_FEED) {
+                remaining -= LineBoundedInputStream.skipLine(input);
+            }
+            if (remaining <= 0) {
+                return;
+            }
+            new ByteLineReader(consumer).read(Channels.newChannel(new LineBoundedInputStream(input, remaining)));
+        }
+    }
+}
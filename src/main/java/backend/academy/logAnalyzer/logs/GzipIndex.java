@@ -0,0 +1,226 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A random-access index of a gzip file, which lets several workers decompress and parse a single file.
+ *
+ * <p>The index holds a checkpoint every {@code span} bytes of the uncompressed data: the bit offset of a deflate
+ * block and the last 32 KiB of the data before the block, which are enough for {@link DeflateInputStream} to start
+ * decoding at the block. The index is saved into a sidecar file ({@code access.log.2.gz.gzidx}) with deflated
+ * windows, and is valid while the size and the modification time of the gzip file are the same. Sidecar files
+ * and their temporary files are never taken for logs, see {@link #isIndexFile(Path)}.
+ *
+ * @param file         The gzip file.
+ * @param fileSize     The size of the gzip file when the index has been built.
+ * @param lastModified The modification time of the gzip file in milliseconds when the index has been built.
+ * @param checkpoints  The checkpoints in the order of their offsets, the first one is at the start of the data.
+ */
+@Slf4j
+public record GzipIndex(Path file, long fileSize, long lastModified, List<Checkpoint> checkpoints) {
+    /**
+     * The default distance between checkpoints in bytes of the uncompressed data.
+     */
+    public static final long DEFAULT_SPAN = 64L * 1024 * 1024;
+
+    private static final String SIDECAR_EXTENSION = ".gzidx";
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+    private static final int MAGIC = 0x475A4958;
+    private static final int VERSION = 1;
+
+    /**
+     * A point of the gzip file where decoding can start.
+     *
+     * @param bitOffset          The offset of the first bit of a deflate block in the gzip file.
+     * @param uncompressedOffset The offset of the first byte of the block in the uncompressed data.
+     * @param window             Up to 32 KiB of the uncompressed data right before the block.
+     */
+    public record Checkpoint(long bitOffset, long uncompressedOffset, byte[] window) {
+    }
+
+    /**
+     * Collects checkpoints while a gzip file is decoded from the start.
+     */
+    static final class Builder {
+        private final long span;
+        private final List<Checkpoint> checkpoints = new ArrayList<>();
+        private long nextOffset;
+
+        /**
+         * Constructs a Builder.
+         *
+         * @param span the minimal distance between checkpoints in bytes of the uncompressed data
+         */
+        Builder(long span) {
+            this.span = span;
+        }
+
+        /**
+         * Records a checkpoint at the block if the previous one is at least {@code span} bytes back.
+         *
+         * @param bitOffset          the offset of the first bit of the block
+         * @param uncompressedOffset the offset of the first byte of the block in the uncompressed data
+         * @param data               the buffer holding the data before the block
+         * @param from               the offset of the window in the buffer
+         * @param to                 the offset right after the window in the buffer
+         */
+        void blockStart(long bitOffset, long uncompressedOffset, byte[] data, int from, int to) {
+            if (uncompressedOffset >= nextOffset) {
+                checkpoints.add(new Checkpoint(bitOffset, uncompressedOffset, Arrays.copyOfRange(data, from, to)));
+                nextOffset = uncompressedOffset + span;
+            }
+        }
+
+        /**
+         * Creates the index of the decoded file.
+         *
+         * @param file the gzip file
+         * @return the index holding the collected checkpoints
+         * @throws IOException if the attributes of the file can't be read
+         */
+        GzipIndex build(Path file) throws IOException {
+            return new GzipIndex(file, Files.size(file), Files.getLastModifiedTime(file).toMillis(),
+                List.copyOf(checkpoints));
+        }
+    }
+
+    /**
+     * Builds the index by decoding the whole file.
+     *
+     * @param file the gzip file
+     * @param span the minimal distance between checkpoints in bytes of the uncompressed data
+     * @return the index of the file
+     * @throws IOException if the file can't be read or isn't a valid gzip file
+     */
+    public static GzipIndex build(Path file, long span) throws IOException {
+        Builder builder = new Builder(span);
+        try (InputStream input = DeflateInputStream.fromStart(FileChannel.open(file, StandardOpenOption.READ),
+            builder)) {
+            input.transferTo(OutputStream.nullOutputStream());
+        }
+        return builder.build(file);
+    }
+
+    /**
+     * Returns the path of the sidecar file of the index.
+     *
+     * @param file the gzip file
+     * @return the path of the index next to the gzip file
+     */
+    public static Path sidecarOf(Path file) {
+        return file.resolveSibling(file.getFileName() + SIDECAR_EXTENSION);
+    }
+
+    /**
+     * Checks whether the file is the sidecar file of an index, or the temporary file of a sidecar being saved.
+     * These files live next to the logs but aren't logs themselves.
+     *
+     * @param file the file
+     * @return {@code true} if the file belongs to an index
+     */
+    public static boolean isIndexFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(SIDECAR_EXTENSION)
+            || name.endsWith(TEMPORARY_EXTENSION) && name.contains(SIDECAR_EXTENSION);
+    }
+
+    /**
+     * Loads the index of the file from its sidecar file.
+     *
+     * @param file the gzip file
+     * @return the index, or {@code null} if there is no index, or it is outdated or can't be read
+     */
+    public static GzipIndex load(Path file) {
+        Path sidecar = sidecarOf(file);
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+            new InflaterInputStream(Files.newInputStream(sidecar))))) {
+            long fileSize = Files.size(file);
+            long lastModified = Files.getLastModifiedTime(file).toMillis();
+            if (input.readInt() != MAGIC || input.readInt() != VERSION || input.readLong() != fileSize
+                || input.readLong() != lastModified) {
+                return null;
+            }
+            int count = input.readInt();
+            List<Checkpoint> checkpoints = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long bitOffset = input.readLong();
+                long uncompressedOffset = input.readLong();
+                byte[] window = new byte[input.readInt()];
+                input.readFully(window);
+                checkpoints.add(new Checkpoint(bitOffset, uncompressedOffset, window));
+            }
+            return new GzipIndex(file, fileSize, lastModified, List.copyOf(checkpoints));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("The gzip index {} can't be read", sidecar, e);
+            return null;
+        }
+    }
+
+    /**
+     * Saves the index into its sidecar file. The file is written under a temporary name and then renamed, so
+     * concurrent runs never see a partially written index.
+     *
+     * @throws IOException if the sidecar file can't be written
+     */
+    public void save() throws IOException {
+        Path sidecar = sidecarOf(file);
+        Path temporary = Files.createTempFile(sidecar.toAbsolutePath().getParent(), sidecar.getFileName().toString(),
+            TEMPORARY_EXTENSION);
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                new DeflaterOutputStream(Files.newOutputStream(temporary))))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeLong(fileSize);
+                output.writeLong(lastModified);
+                output.writeInt(checkpoints.size());
+                for (Checkpoint checkpoint : checkpoints) {
+                    output.writeLong(checkpoint.bitOffset());
+                    output.writeLong(checkpoint.uncompressedOffset());
+                    output.writeInt(checkpoint.window().length);
+                    output.write(checkpoint.window());
+                }
+            }
+            Files.move(temporary, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Splits the file into chunks which start at the checkpoints.
+     *
+     * @return the chunks of the file in the order of their offsets
+     */
+    public List<LineSource> chunks() {
+        List<LineSource> chunks = new ArrayList<>(checkpoints.size());
+        for (int i = 0; i < checkpoints.size(); i++) {
+            boolean last = i == checkpoints.size() - 1;
+            long end = last ? Long.MAX_VALUE : checkpoints.get(i + 1).uncompressedOffset();
+            long endBit = last ? fileSize * Byte.SIZE : checkpoints.get(i + 1).bitOffset();
+            chunks.add(new GzipChunk(file, checkpoints.get(i), end, (endBit - checkpoints.get(i).bitOffset())
+                / Byte.SIZE));
+        }
+        return chunks;
+    }
+}
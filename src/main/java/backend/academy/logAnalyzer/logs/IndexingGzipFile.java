@@ -0,0 +1,38 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A gzip file without a valid {@link GzipIndex}, which is read whole while its index is built. The file is
+ * inflated by {@link DeflateInputStream} on a dedicated thread, and the index is saved once the file has been
+ * read, so the next runs split the file into {@link GzipChunk chunks}.
+ *
+ * @param logFile The gzip file.
+ * @param span    The minimal distance between checkpoints in bytes of the uncompressed data.
+ */
+@Slf4j
+public record IndexingGzipFile(LogFile logFile, long span) implements LineSource {
+    @Override
+    public long size() {
+        return logFile.size();
+    }
+
+    @Override
+    public void forEachRawLine(RawLineConsumer consumer) throws IOException {
+        GzipIndex.Builder builder = new GzipIndex.Builder(span);
+        try (InputStream input = logFile.readAhead().pipeline(DeflateInputStream.fromStart(
+            FileChannel.open(logFile.file(), StandardOpenOption.READ), builder), "gzip-indexer")) {
+            new ByteLineReader(consumer).read(Channels.newChannel(input));
+        }
+        try {
+            builder.build(logFile.file()).save();
+        } catch (IOException e) {
+            log.warn("The gzip index of {} can't be saved", logFile.file(), e);
+        }
+    }
+}
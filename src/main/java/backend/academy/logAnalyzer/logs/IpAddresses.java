@@ -0,0 +1,232 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.util.Arrays;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Converts textual IP addresses into primitive values and back.
+ *
+ * <p>An IPv4 address is packed into an {@code int}, an IPv6 address into two {@code long} values holding
+ * its higher and lower 64 bits. IPv6 addresses are formatted in the canonical form of RFC 5952.
+ */
+@UtilityClass
+public class IpAddresses {
+    /**
+     * The value returned by {@link #parseIpv4(CharSequence, int, int)} for text which isn't an IPv4 address.
+     */
+    public static final long NOT_IPV4 = -1;
+
+    /**
+     * The number of 16-bit groups of an IPv6 address.
+     */
+    public static final int IPV6_GROUPS = 8;
+
+    private static final int OCTETS = 4;
+    private static final int MAX_OCTET = 255;
+    private static final int MAX_OCTET_DIGITS = 3;
+    private static final int BITS_PER_OCTET = 8;
+    private static final int BITS_PER_GROUP = 16;
+    private static final int GROUPS_PER_LONG = 4;
+    private static final int MAX_GROUP_DIGITS = 4;
+    private static final int GROUP_MASK = 0xFFFF;
+    private static final int OCTET_MASK = 0xFF;
+    private static final long IPV4_MAPPED_PREFIX = 0xFFFFL;
+    private static final int IPV4_SHIFT = 32;
+    private static final int HEX_BASE = 16;
+    private static final int DECIMAL_BASE = 10;
+
+    /**
+     * Parses a canonical dotted-decimal IPv4 address (without leading zeros) from {@code text[from, to)}.
+     *
+     * @param text the text to parse
+     * @param from the index of the first char of the address
+     * @param to   the index right after the last char of the address
+     * @return the address as an unsigned 32-bit value, or {@link #NOT_IPV4} if the text isn't an IPv4 address
+     */
+    public static long parseIpv4(CharSequence text, int from, int to) {
+        long result = 0;
+        int position = from;
+        for (int octet = 0; octet < OCTETS; octet++) {
+            if (octet > 0) {
+                if (position >= to || text.charAt(position) != '.') {
+                    return NOT_IPV4;
+                }
+                position++;
+            }
+            int start = position;
+            int value = 0;
+            while (position < to && position - start < MAX_OCTET_DIGITS && isDigit(text.charAt(position))) {
+                value = value * DECIMAL_BASE + text.charAt(position) - '0';
+                position++;
+            }
+            if (position == start || value > MAX_OCTET || text.charAt(start) == '0' && position - start > 1) {
+                return NOT_IPV4;
+            }
+            result = result << BITS_PER_OCTET | value;
+        }
+        return position == to ? result : NOT_IPV4;
+    }
+
+    /**
+     * Parses an IPv6 address, including the compressed ({@code ::}) and the mixed ({@code ::ffff:1.2.3.4}) forms.
+     *
+     * @param text   the text to parse
+     * @param groups the array receiving the eight 16-bit groups of the address
+     * @return {@code true} if the text is an IPv6 address; {@code false} otherwise
+     */
+    public static boolean parseIpv6(CharSequence text, int[] groups) {
+        int length = text.length();
+        int compressedAt = indexOfDoubleColon(text);
+        if (compressedAt < 0) {
+            return parseGroups(text, 0, length, groups, 0, true) == IPV6_GROUPS;
+        }
+        int head = parseGroups(text, 0, compressedAt, groups, 0, false);
+        int tail = head < 0 ? -1 : parseGroups(text, compressedAt + 2, length, groups, head, true);
+        if (tail < 0 || head + tail >= IPV6_GROUPS) {
+            return false;
+        }
+        System.arraycopy(groups, head, groups, IPV6_GROUPS - tail, tail);
+        Arrays.fill(groups, head, IPV6_GROUPS - tail, 0);
+        return true;
+    }
+
+    /**
+     * Parses colon-separated groups of {@code text[from, to)} into {@code groups} starting at {@code offset}.
+     *
+     * @return the number of parsed groups, or {@code -1} if the text is malformed
+     */
+    private static int parseGroups(CharSequence text, int from, int to, int[] groups, int offset, boolean allowIpv4) {
+        int count = 0;
+        int position = from;
+        boolean valid = true;
+        while (valid && position < to) {
+            int end = position;
+            while (end < to && end - position < MAX_GROUP_DIGITS && hexValue(text.charAt(end)) >= 0) {
+                end++;
+            }
+            if (end < to && text.charAt(end) == '.') {
+                boolean fits = allowIpv4 && offset + count + 2 <= IPV6_GROUPS;
+                long ipv4 = fits ? parseIpv4(text, position, to) : NOT_IPV4;
+                valid = ipv4 != NOT_IPV4;
+                if (valid) {
+                    groups[offset + count++] = (int) (ipv4 >>> BITS_PER_GROUP) & GROUP_MASK;
+                    groups[offset + count++] = (int) ipv4 & GROUP_MASK;
+                }
+                position = to;
+            } else {
+                valid = end > position && offset + count < IPV6_GROUPS
+                    && (end == to || text.charAt(end) == ':' && end + 1 < to);
+                if (valid) {
+                    groups[offset + count++] = parseHex(text, position, end);
+                }
+                position = end + 1;
+            }
+        }
+        return valid ? count : -1;
+    }
+
+    private static int indexOfDoubleColon(CharSequence text) {
+        for (int i = 0; i + 1 < text.length(); i++) {
+            if (text.charAt(i) == ':' && text.charAt(i + 1) == ':') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int parseHex(CharSequence text, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            result = result * HEX_BASE + hexValue(text.charAt(i));
+        }
+        return result;
+    }
+
+    private static int hexValue(char symbol) {
+        int result = -1;
+        if (symbol >= '0' && symbol <= '9') {
+            result = symbol - '0';
+        } else if (symbol >= 'a' && symbol <= 'f') {
+            result = symbol - 'a' + DECIMAL_BASE;
+        } else if (symbol >= 'A' && symbol <= 'F') {
+            result = symbol - 'A' + DECIMAL_BASE;
+        }
+        return result;
+    }
+
+    /**
+     * Packs four groups of an IPv6 address into a {@code long}.
+     *
+     * @param groups the groups of the address
+     * @param from   the index of the first group to pack
+     * @return the packed groups
+     */
+    public static long pack(int[] groups, int from) {
+        long result = 0;
+        for (int i = from; i < from + GROUPS_PER_LONG; i++) {
+            result = result << BITS_PER_GROUP | groups[i];
+        }
+        return result;
+    }
+
+    /**
+     * Formats a packed IPv4 address.
+     *
+     * @param address the address as an unsigned 32-bit value
+     * @return the dotted-decimal address
+     */
+    public static String formatIpv4(int address) {
+        return (address >>> (BITS_PER_OCTET * 3) & OCTET_MASK) + "." + (address >>> (BITS_PER_OCTET * 2) & OCTET_MASK)
+            + "." + (address >>> BITS_PER_OCTET & OCTET_MASK) + "." + (address & OCTET_MASK);
+    }
+
+    /**
+     * Formats a packed IPv6 address in the canonical form of RFC 5952.
+     *
+     * @param high the higher 64 bits of the address
+     * @param low  the lower 64 bits of the address
+     * @return the canonical textual address
+     */
+    public static String formatIpv6(long high, long low) {
+        if (high == 0 && low >>> IPV4_SHIFT == IPV4_MAPPED_PREFIX) {
+            return "::ffff:" + formatIpv4((int) low);
+        }
+        int[] groups = new int[IPV6_GROUPS];
+        for (int i = 0; i < GROUPS_PER_LONG; i++) {
+            int shift = BITS_PER_GROUP * (GROUPS_PER_LONG - 1 - i);
+            groups[i] = (int) (high >>> shift) & GROUP_MASK;
+            groups[i + GROUPS_PER_LONG] = (int) (low >>> shift) & GROUP_MASK;
+        }
+        int bestStart = -1;
+        int bestLength = 1;
+        for (int i = 0; i < IPV6_GROUPS; i++) {
+            int end = i;
+            while (end < IPV6_GROUPS && groups[end] == 0) {
+                end++;
+            }
+            if (end - i > bestLength) {
+                bestStart = i;
+                bestLength = end - i;
+            }
+        }
+        StringBuilder result = new StringBuilder();
+        int group = 0;
+        while (group < IPV6_GROUPS) {
+            if (group == bestStart) {
+                result.append("::");
+                group += bestLength;
+            } else {
+                if (!result.isEmpty() && result.charAt(result.length() - 1) != ':') {
+                    result.append(':');
+                }
+                result.append(Integer.toHexString(groups[group]));
+                group++;
+            }
+        }
+        return result.toString();
+    }
+
+    private static boolean isDigit(char symbol) {
+        return symbol >= '0' && symbol <= '9';
+    }
+}
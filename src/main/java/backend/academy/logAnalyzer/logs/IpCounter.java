@@ -0,0 +1,128 @@
+package backend.academy.logAnalyzer.logs;
+
+import backend.academy.logAnalyzer.tokenizers.ByteSlice;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMaps;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+
+/**
+ * Counts requests per remote address with primitive keys.
+ *
+ * <p>IPv4 addresses are packed into an {@code int}, IPv6 addresses into two {@code long} values, so a repeated
+ * address costs neither a String nor a boxed counter. Addresses which are neither (e.g. host names) are counted
+ * by their text. The counter isn't thread-safe.
+ */
+public final class IpCounter {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_FILL_PERCENT = 50;
+    private static final int PERCENT = 100;
+
+    private final Int2LongOpenHashMap ipv4 = new Int2LongOpenHashMap();
+    private final Object2LongOpenHashMap<ByteSlice> others = new Object2LongOpenHashMap<>();
+    private final int[] groups = new int[IpAddresses.IPV6_GROUPS];
+
+    /**
+     * Open addressing table of IPv6 addresses: the slot {@code i} holds the address
+     * {@code ipv6Keys[2 * i], ipv6Keys[2 * i + 1]}, a slot with zero count is free.
+     */
+    private long[] ipv6Keys = new long[2 * INITIAL_CAPACITY];
+    private long[] ipv6Counts = new long[INITIAL_CAPACITY];
+    private int ipv6Size;
+
+    /**
+     * Increments the counter of the address.
+     *
+     * @param ip the reusable slice holding the address of the current log entry
+     */
+    public void increment(ByteSlice ip) {
+        long address = IpAddresses.parseIpv4(ip, 0, ip.length());
+        if (address != IpAddresses.NOT_IPV4) {
+            ipv4.addTo((int) address, 1);
+        } else if (IpAddresses.parseIpv6(ip, groups)) {
+            addIpv6(IpAddresses.pack(groups, 0), IpAddresses.pack(groups, IpAddresses.IPV6_GROUPS / 2), 1);
+        } else if (others.containsKey(ip)) {
+            others.addTo(ip, 1);
+        } else {
+            others.put(ip.copy(), 1);
+        }
+    }
+
+    /**
+     * Adds the counters of another counter to this one.
+     *
+     * @param other the counter to add, which must not be used afterwards
+     */
+    public void merge(IpCounter other) {
+        other.ipv4.int2LongEntrySet().fastForEach(entry -> ipv4.addTo(entry.getIntKey(), entry.getLongValue()));
+        for (int i = 0; i < other.ipv6Counts.length; i++) {
+            if (other.ipv6Counts[i] != 0) {
+                addIpv6(other.ipv6Keys[2 * i], other.ipv6Keys[2 * i + 1], other.ipv6Counts[i]);
+            }
+        }
+        other.others.object2LongEntrySet().fastForEach(entry -> others.addTo(entry.getKey(), entry.getLongValue()));
+    }
+
+    private void addIpv6(long high, long low, long count) {
+        int mask = ipv6Counts.length - 1;
+        int slot = slotOf(high, low, mask);
+        while (ipv6Counts[slot] != 0 && (ipv6Keys[2 * slot] != high || ipv6Keys[2 * slot + 1] != low)) {
+            slot = (slot + 1) & mask;
+        }
+        if (ipv6Counts[slot] == 0) {
+            ipv6Keys[2 * slot] = high;
+            ipv6Keys[2 * slot + 1] = low;
+            ipv6Size++;
+        }
+        ipv6Counts[slot] += count;
+        if (ipv6Size * PERCENT > ipv6Counts.length * MAX_FILL_PERCENT) {
+            rehashIpv6();
+        }
+    }
+
+    private void rehashIpv6() {
+        long[] oldKeys = ipv6Keys;
+        long[] oldCounts = ipv6Counts;
+        ipv6Keys = new long[2 * 2 * oldCounts.length];
+        ipv6Counts = new long[2 * oldCounts.length];
+        int mask = ipv6Counts.length - 1;
+        for (int i = 0; i < oldCounts.length; i++) {
+            if (oldCounts[i] != 0) {
+                long high = oldKeys[2 * i];
+                long low = oldKeys[2 * i + 1];
+                int slot = slotOf(high, low, mask);
+                while (ipv6Counts[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                ipv6Keys[2 * slot] = high;
+                ipv6Keys[2 * slot + 1] = low;
+                ipv6Counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    private static int slotOf(long high, long low, int mask) {
+        return (int) HashCommon.mix(HashCommon.mix(high) + low) & mask;
+    }
+
+    /**
+     * Converts the counters into a map keyed by textual addresses. IPv6 addresses are formatted in the
+     * canonical form of RFC 5952, so different spellings of the same address are counted together.
+     *
+     * @return the read-only map of counters with String keys
+     */
+    public Object2LongMap<String> toMap() {
+        Object2LongOpenHashMap<String> result = new Object2LongOpenHashMap<>(ipv4.size() + ipv6Size + others.size());
+        ipv4.int2LongEntrySet().fastForEach(
+            entry -> result.put(IpAddresses.formatIpv4(entry.getIntKey()), entry.getLongValue()));
+        for (int i = 0; i < ipv6Counts.length; i++) {
+            if (ipv6Counts[i] != 0) {
+                result.addTo(IpAddresses.formatIpv6(ipv6Keys[2 * i], ipv6Keys[2 * i + 1]), ipv6Counts[i]);
+            }
+        }
+        others.object2LongEntrySet()
+            .fastForEach(entry -> result.addTo(entry.getKey().toString(), entry.getLongValue()));
+        return Object2LongMaps.unmodifiable(result);
+    }
+}
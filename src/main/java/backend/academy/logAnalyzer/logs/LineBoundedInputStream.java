@@ -0,0 +1,71 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A stream which ends at the end of the line containing the last byte of the given range. Together with
+ * {@link #skipLine(InputStream)} it lets a part of a log own exactly the lines which start within its range:
+ * the partial first line belongs to the previous part, and the last line is read past the end of the range.
+ */
+final class LineBoundedInputStream extends FilterInputStream {
+    private static final int LINE_FEED = '\n';
+    private static final int BYTE_MASK = 0xFF;
+
+    private long remaining;
+    private boolean finished;
+
+    /**
+     * Constructs a LineBoundedInputStream.
+     *
+     * @param input the stream positioned at the start of the range
+     * @param limit the length of the range
+     */
+    LineBoundedInputStream(InputStream input, long limit) {
+        super(input);
+        this.remaining = limit;
+    }
+
+    /**
+     * Skips the rest of the current line.
+     *
+     * @param input the stream to skip the line of
+     * @return the number of skipped bytes including the line feed
+     * @throws IOException if the stream can't be read
+     */
+    static long skipLine(InputStream input) throws IOException {
+        long skipped = 0;
+        int symbol = input.read();
+        while (symbol >= 0) {
+            skipped++;
+            if (symbol == LINE_FEED) {
+                break;
+            }
+            symbol = input.read();
+        }
+        return skipped;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) < 0 ? -1 : single[0] & BYTE_MASK;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (finished || length == 0) {
+            return finished ? -1 : 0;
+        }
+        int count = remaining > 0 ? in.read(bytes, offset, (int) Math.min(length, remaining))
+            : in.read(bytes, offset, 1);
+        if (count < 0) {
+            finished = true;
+            return -1;
+        }
+        remaining -= Math.min(remaining, count);
+        finished = remaining == 0 && bytes[offset + count - 1] == LINE_FEED;
+        return count;
+    }
+}
@@ -0,0 +1,35 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * A unit of work of the analysis: a whole log file or a part of it, whose lines are read by a single worker.
+ */
+public interface LineSource {
+    /**
+     * Returns the size of the source, which is used to schedule the largest sources first.
+     *
+     * @return the size of the source in bytes
+     */
+    long size();
+
+    /**
+     * Reads the source and passes its lines as raw bytes without the line terminators to the consumer.
+     *
+     * @param consumer the consumer of the lines
+     * @throws IOException if the source can't be read
+     */
+    void forEachRawLine(RawLineConsumer consumer) throws IOException;
+
+    /**
+     * Reads the source and passes its lines decoded as UTF-8 without the line terminators to the consumer.
+     *
+     * @param consumer the consumer of the lines
+     * @throws IOException if the source can't be read
+     */
+    default void forEachLine(Consumer<String> consumer) throws IOException {
+        forEachRawLine((line, length) -> consumer.accept(new String(line, 0, length, StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,201 @@
+package backend.academy.logAnalyzer.logs;
+
+import backend.academy.logAnalyzer.tokenizers.ByteSlice;
+import it.unimi.dsi.fastutil.doubles.Double2LongAVLTreeMap;
+import it.unimi.dsi.fastutil.doubles.Double2LongSortedMap;
+import it.unimi.dsi.fastutil.doubles.Double2LongSortedMaps;
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongMaps;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMaps;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import java.util.List;
+
+/**
+ * Accumulates the metrics of the log entries seen by a single worker.
+ *
+ * <p>The aggregator isn't thread-safe: every worker fills its own instance without any synchronization,
+ * and the partial aggregates are combined by {@link #merge(LogAggregator)} once the workers are done.
+ * Counters are primitive values of open hash maps keyed by the bytes of the fields, so counting a repeated
+ * key neither allocates nor hashes a String, and response sizes are recorded into a fixed-memory
+ * {@link ResponseSizeHistogram} instead of being retained one by one. In the {@link PercentileMode#EXACT exact
+ * mode} the sizes are also retained in {@link ExactResponseSizes primitive arrays}, from which the reported
+ * percentiles are selected.
+ */
+final class LogAggregator {
+    /**
+     * The percentile of response sizes kept in {@link CollectedData#percentile()}.
+     */
+    private static final double PERCENTILE = 95;
+
+    /**
+     * The number of distinct three-digit response codes.
+     */
+    private static final int RESPONSE_CODES = 1000;
+
+    private final ResourceNormalizer resourceNormalizer;
+    private final IpCounter ips = new IpCounter();
+    private final Object2LongOpenHashMap<ByteSlice> users = new Object2LongOpenHashMap<>();
+    private final Object2LongOpenHashMap<ByteSlice> resourceFrequency = new Object2LongOpenHashMap<>();
+    private final long[] responseCodeFrequency = new long[RESPONSE_CODES];
+    private final ResponseSizeHistogram responseSizes;
+    private final ExactResponseSizes.MemoryBudget exactBudget;
+    private final ExactResponseSizes exactSizes;
+    private long totalRequests;
+    private long totalResponseSize;
+
+    /**
+     * Constructs an empty LogAggregator.
+     *
+     * @param resourceNormalizer the normalizer of requested resources shared by all workers, or {@code null}
+     *                           if raw resources are counted
+     * @param significantDigits  the number of significant digits of the histogram of response sizes
+     * @param exactBudget        the memory budget of the exact response sizes shared by all workers, or
+     *                           {@code null} if percentiles are estimated from the histogram
+     */
+    LogAggregator(ResourceNormalizer resourceNormalizer, int significantDigits,
+        ExactResponseSizes.MemoryBudget exactBudget) {
+        this.resourceNormalizer = resourceNormalizer;
+        this.responseSizes = new ResponseSizeHistogram(significantDigits);
+        this.exactBudget = exactBudget;
+        this.exactSizes = exactBudget == null ? null : new ExactResponseSizes(exactBudget);
+    }
+
+    /**
+     * Creates an empty aggregator with the same settings for a worker.
+     *
+     * @return the aggregator of the partial metrics of a worker
+     */
+    LogAggregator newPartial() {
+        return new LogAggregator(resourceNormalizer, responseSizes.significantDigits(), exactBudget);
+    }
+
+    /**
+     * Counts a log entry.
+     *
+     * @param log the view of the current log entry
+     */
+    void accept(LogRecordView log) {
+        totalRequests++;
+        increment(resourceFrequency,
+            resourceNormalizer == null ? log.resource() : resourceNormalizer.normalize(log.resource()));
+        responseCodeFrequency[log.responseCode()]++;
+        ips.increment(log.ip());
+        increment(users, log.user());
+        totalResponseSize += log.responseSize();
+        responseSizes.record(log.responseSize());
+        if (exactSizes != null) {
+            exactSizes.record(log.responseSize());
+        }
+    }
+
+    /**
+     * Adds the metrics of another aggregator to this one.
+     *
+     * @param other the aggregator of another worker, which must not be used afterwards
+     */
+    void merge(LogAggregator other) {
+        totalRequests += other.totalRequests;
+        totalResponseSize += other.totalResponseSize;
+        other.resourceFrequency.object2LongEntrySet()
+            .fastForEach(entry -> resourceFrequency.addTo(entry.getKey(), entry.getLongValue()));
+        other.users.object2LongEntrySet().fastForEach(entry -> users.addTo(entry.getKey(), entry.getLongValue()));
+        for (int code = 0; code < RESPONSE_CODES; code++) {
+            responseCodeFrequency[code] += other.responseCodeFrequency[code];
+        }
+        ips.merge(other.ips);
+        responseSizes.merge(other.responseSizes);
+        if (exactSizes != null) {
+            exactSizes.merge(other.exactSizes);
+        }
+    }
+
+    /**
+     * Builds the collected data from the accumulated metrics. The retained exact sizes are released.
+     *
+     * @param rejects     the counters of read and rejected lines
+     * @param percentiles the percentiles of response sizes shown in the report, from 0 to 100
+     * @return the collected data of the analysis
+     */
+    CollectedData toCollectedData(RejectCounters rejects, List<Double> percentiles) {
+        double[] requested = new double[percentiles.size() + 1];
+        for (int i = 0; i < percentiles.size(); i++) {
+            requested[i] = percentiles.get(i);
+        }
+        requested[percentiles.size()] = PERCENTILE;
+        long[] values = valuesAtPercentiles(requested);
+        Double2LongSortedMap sizePercentiles = new Double2LongAVLTreeMap();
+        for (int i = 0; i < percentiles.size(); i++) {
+            sizePercentiles.put(requested[i], values[i]);
+        }
+        return new CollectedData(totalRequests, toStringKeys(resourceFrequency),
+            toCodeMap(responseCodeFrequency), totalResponseSize, responseSizes, ips.toMap(),
+            toStringKeys(users), values[percentiles.size()],
+            Double2LongSortedMaps.unmodifiable(sizePercentiles), rejects);
+    }
+
+    /**
+     * Selects the exact response sizes at the percentiles in the exact mode, or estimates them from
+     * the histogram otherwise.
+     *
+     * @param percentiles the percentiles, from 0 to 100
+     * @return the response sizes at the percentiles in the same order
+     */
+    private long[] valuesAtPercentiles(double[] percentiles) {
+        if (exactSizes != null) {
+            try (exactSizes) {
+                return exactSizes.valuesAtPercentiles(percentiles);
+            }
+        }
+        long[] values = new long[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            values[i] = responseSizes.valueAtPercentile(percentiles[i]);
+        }
+        return values;
+    }
+
+    /**
+     * Increments the counter of the key. The key is copied only when it is inserted into the map
+     * for the first time, so repeated keys don't allocate anything.
+     *
+     * @param counters the map of counters
+     * @param key      the reusable slice of the current log entry
+     */
+    private static void increment(Object2LongOpenHashMap<ByteSlice> counters, ByteSlice key) {
+        if (counters.containsKey(key)) {
+            counters.addTo(key, 1);
+        } else {
+            counters.put(key.copy(), 1);
+        }
+    }
+
+    /**
+     * Converts the keys of the counters into Strings.
+     *
+     * @param counters the map of counters
+     * @return the read-only map of counters with String keys
+     */
+    private static Object2LongMap<String> toStringKeys(Object2LongOpenHashMap<ByteSlice> counters) {
+        Object2LongOpenHashMap<String> result = new Object2LongOpenHashMap<>(counters.size());
+        counters.object2LongEntrySet().fastForEach(entry -> result.addTo(entry.getKey().toString(),
+            entry.getLongValue()));
+        return Object2LongMaps.unmodifiable(result);
+    }
+
+    /**
+     * Converts the counters indexed by response code into a read-only map which contains only seen codes.
+     *
+     * @param counters the counters indexed by response code
+     * @return the map of counters with response code keys
+     */
+    private static Int2LongMap toCodeMap(long[] counters) {
+        Int2LongOpenHashMap result = new Int2LongOpenHashMap();
+        for (int code = 0; code < counters.length; code++) {
+            if (counters[code] != 0) {
+                result.put(code, counters[code]);
+            }
+        }
+        return Int2LongMaps.unmodifiable(result);
+    }
+}
@@ -1,36 +1,29 @@
 package backend.academy.logAnalyzer.logs;
 
-import java.io.BufferedReader;
+import backend.academy.logAnalyzer.exceptions.TooManyRejectedLinesException;
+import backend.academy.logAnalyzer.filters.LogFilter;
+import backend.academy.logAnalyzer.tokenizers.LogFormat;
+import backend.academy.logAnalyzer.tokenizers.LogTokenizer;
+import backend.academy.logAnalyzer.tokenizers.TokenizerType;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
 import java.net.URI;
-import java.net.URISyntaxException;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.FileSystems;
-import java.nio.file.FileVisitResult;
-import java.nio.file.Files;
+import java.net.http.HttpClient;
 import java.nio.file.InvalidPathException;
 import java.nio.file.NoSuchFileException;
-import java.nio.file.Path;
-import java.nio.file.PathMatcher;
-import java.nio.file.Paths;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Stream;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -41,258 +34,409 @@ import lombok.extern.slf4j.Slf4j;
  * and generating output in one of two formats (.md/.adoc).
  *
  * <p>This class processes log entries, collects relevant metrics (total requests, average response size,
- * resource access frequency, response code frequency, 95p answer size, the most frequent username, and
- * the most frequent IP address), and generates reports containing metrics described above.
+ * resource access frequency, response code frequency, percentiles of response sizes, the most frequent
+ * username, and the most frequent IP address), and generates reports containing metrics described above.
  *
  * <p>Features:
  * <ul>
  *     <li>Supports filtering by date range and http_user_agent fields</li>
- *     <li>Processes local log files matching a glob pattern or remote logs from a URL</li>
+ *     <li>Processes local log files matching a glob pattern or remote logs from a URL, downloading byte ranges
+ *     of a remote log in parallel when the server supports them</li>
+ *     <li>Optionally skips files whose head and tail show that all their entries are outside the date range,
+ *     and reads large plain files only from the offset of the start of the range found by a binary search</li>
+ *     <li>Walks only the directories which can contain matching files, in parallel, optionally reusing
+ *     the listings of unchanged directories from the previous runs</li>
+ *     <li>Caches remote logs on disk between runs, downloading only what has been appended since</li>
+ *     <li>Reads a log piped into the standard input with {@code --path -}</li>
  *     <li>Handles multiple log files and generates the output report based on the provided format</li>
+ *     <li>Parses local files, or memory-mapped chunks of them, on a bounded pool of workers</li>
+ *     <li>Decompresses gzip-compressed files and remote logs transparently, large gzip files are split
+ *     by their indexes</li>
+ *     <li>Estimates any percentile of response sizes from a mergeable histogram of fixed precision, or selects
+ *     the exact ones from the retained sizes, spilled to disk beyond a memory budget</li>
  * </ul>
  */
 
 @Getter @Slf4j public class LogAnalyzer {
     /**
-     * The percentage (95%) used for calculating the response size percentile.
+     * List to store analyzed files
      */
-    private static final double PERCENTILE = 0.95;
+    private final List<String> processedFiles = new ArrayList<>();
 
     /**
-     * Regular expression pattern for parsing log entries.
+     * Settings of the analysis
      */
-    private static final Pattern LOG_PATTERN = Pattern.compile(
-        "^(\\S+) - (\\S+) \\[([^]]+)] "
-            + "\"([^\"]+)\" (\\d{3}) (\\d+) "
-            + "\"([^\"]*)\" \"([^\"]*)\"$"
-    );
+    private final AnalyzerOptions options;
 
     /**
-     * Formatter for parsing date and time in log entries.
+     * Normalizer of requested resources, or {@code null} if raw resources are counted
      */
-    private static final DateTimeFormatter LOG_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z");
+    private final ResourceNormalizer resourceNormalizer;
 
     /**
-     * List to store analyzed files
+     * Read-ahead stage of local files and remote logs and inflation stage of gzip streams, which collects the stall
+     * statistics of all analyses
      */
-    private final List<String> processedFiles = new ArrayList<>();
+    private final ReadAhead readAhead;
 
     /**
-     * Analyzes log files or a log URL based on the given filters and generates a report.
-     *
-     * @param path        the file path or URL to the logs
-     * @param fromDate    the start date-time for filtering logs
-     * @param toDate      the end date-time for filtering logs
-     * @param agentFilter the filter for matching specific user agents
+     * Cache of remote logs, or {@code null} if remote logs are downloaded on every analysis
      */
-    public CollectedData analyze(
-        String path,
-        LocalDateTime fromDate,
-        LocalDateTime toDate,
-        String agentFilter
-    ) {
-        AtomicLong totalRequests = new AtomicLong();
-        Map<String, AtomicLong> ips = new ConcurrentHashMap<>();
-        Map<String, AtomicLong> users = new ConcurrentHashMap<>();
-        Map<String, AtomicLong> resourceFrequency = new ConcurrentHashMap<>();
-        Map<String, AtomicLong> responseCodeFrequency = new ConcurrentHashMap<>();
-        AtomicLong totalResponseSize = new AtomicLong();
-        List<Long> responseSizes = new ArrayList<>();
+    private final RemoteLogCache remoteLogCache;
 
-        Supplier<Stream<LogData>> logDataStreamSupplier = () -> getLogDataStream(path, fromDate, toDate, agentFilter);
+    /**
+     * Finder of local files matching a glob pattern
+     */
+    private final LogFileFinder fileFinder;
 
-        try (Stream<LogData> logDataStream = logDataStreamSupplier.get()) {
-            logDataStream.forEach(log -> {
-                totalRequests.incrementAndGet();
-                resourceFrequency.computeIfAbsent(log.resource(), k -> new AtomicLong()).incrementAndGet();
-                responseCodeFrequency.computeIfAbsent(log.responseCode(), k -> new AtomicLong()).incrementAndGet();
-                ips.computeIfAbsent(log.ip(), k -> new AtomicLong()).incrementAndGet();
-                users.computeIfAbsent(log.user(), k -> new AtomicLong()).incrementAndGet();
-                totalResponseSize.addAndGet(log.responseSize());
-                responseSizes.add(log.responseSize());
-            });
-        }
-        double percentile = calculatePercentile(responseSizes);
-        return new CollectedData(totalRequests.get(), resourceFrequency,
-            responseCodeFrequency, totalResponseSize.get(), responseSizes, ips, users, percentile);
+    /**
+     * Constructs a LogAnalyzer which uses the single-pass combined format tokenizer.
+     */
+    public LogAnalyzer() {
+        this(TokenizerType.COMBINED);
+    }
+
+    /**
+     * Constructs a LogAnalyzer which uses the specified tokenizer.
+     *
+     * @param tokenizerType the type of the tokenizer used to split log lines into fields
+     */
+    public LogAnalyzer(TokenizerType tokenizerType) {
+        this(AnalyzerOptions.builder().tokenizerType(tokenizerType).build());
+    }
+
+    /**
+     * Constructs a LogAnalyzer with the specified settings.
+     *
+     * @param options the settings of the analysis
+     */
+    public LogAnalyzer(AnalyzerOptions options) {
+        this.options = options;
+        this.resourceNormalizer = options.normalizeResources() ? new ResourceNormalizer() : null;
+        this.readAhead = new ReadAhead(options.readAheadBlockSize(), options.readAheadDepth());
+        this.remoteLogCache = options.cacheDirectory() == null ? null
+            : new RemoteLogCache(options.cacheDirectory(), options.cacheSizeBudget(), options.compressCache());
+        this.fileFinder = new LogFileFinder(options.listingCache(), options.threads());
     }
 
     /**
-     * Creates a stream of {@code LogData} objects based on the given path.
-     * If the path is a valid URL, it fetches log data from the URL.
-     * Otherwise, it fetches log data from files matching the path pattern.
+     * Analyzes log files or a log URL based on the given filters and generates a report.
      *
-     * @param path        the file path or URL to the logs
-     * @param fromDate    the start date-time for filtering log entries
-     * @param toDate      the end date-time for filtering log entries
+     * @param path        the file path or URL to the logs, or {@value StandardInput#PATH} to read the standard input
+     * @param fromDate    the start date-time for filtering logs
+     * @param toDate      the end date-time for filtering logs
      * @param agentFilter the filter for matching specific user agents
-     * @return a stream of {@code LogData} objects parsed from the specified path
+     * @throws IllegalArgumentException      if the custom log format doesn't contain the fields needed by
+     *                                       the analysis
+     * @throws TooManyRejectedLinesException if a source, or all sources together, exceed the fail-fast threshold
+     *                                       of malformed lines
      */
-    private Stream<LogData> getLogDataStream(
+    public CollectedData analyze(
         String path,
         LocalDateTime fromDate,
         LocalDateTime toDate,
         String agentFilter
     ) {
-        if (isValidURL(path)) {
+        LogFilter filter = LogFilter.of(fromDate, toDate, agentFilter);
+        LogFormat logFormat = options.logFormat();
+        Supplier<LogTokenizer> tokenizers = logFormat == null ? options.tokenizerType()::create
+            : logFormat.compile(LogLineParser.requiredParams(filter));
+        List<RejectCounters> rejectCounters = new CopyOnWriteArrayList<>();
+        Supplier<LogLineParser> parsers = () -> {
+            LogLineParser parser = new LogLineParser(tokenizers.get(), filter, options.rejectPolicy());
+            rejectCounters.add(parser.rejectCounters());
+            return parser;
+        };
+        LogAggregator aggregator = new LogAggregator(resourceNormalizer, options.histogramDigits(),
+            options.percentileMode() == PercentileMode.EXACT
+                ? new ExactResponseSizes.MemoryBudget(options.exactMemoryBudget()) : null);
+        TimeSpanProbe probe = timeSpanProbe(filter, tokenizers);
+        if (StandardInput.PATH.equals(path)) {
+            processedFiles.add(StandardInput.NAME);
+            analyzeInParallel(new ArrayList<>(List.of(new StandardInput(System.in, readAhead))), parsers, aggregator,
+                1);
+        } else if (isValidURL(path)) {
             processedFiles.add(path);
-            return createStreamFromURL(path, fromDate, toDate, agentFilter);
+            try (HttpClient client = RemoteLog.newClient()) {
+                URI uri = URI.create(path);
+                LogFile cached = fetchCached(client, uri);
+                if (cached != null) {
+                    analyzeInParallel(toSources(List.of(cached), probe), parsers, aggregator, options.threads());
+                } else {
+                    analyzeInParallel(remoteSources(new RemoteLog(client, uri, readAhead)), parsers, aggregator,
+                        options.connections());
+                }
+            }
         } else {
-            List<Path> logFiles = getMatchingFiles(path);
-            logFiles.forEach(file -> processedFiles.add(file.toString()));
-            return logFiles.stream().flatMap(file -> parseFileToStream(file, fromDate, toDate, agentFilter));
+            RejectCounters skipped = new RejectCounters();
+            rejectCounters.add(skipped);
+            List<LogFile> logFiles = skipOutOfRange(getMatchingFiles(path), probe, skipped);
+            logFiles.forEach(file -> processedFiles.add(file.file().toString()));
+            analyzeInParallel(toSources(logFiles, probe), parsers, aggregator, options.threads());
         }
+        if (readAhead.blocks() > 0) {
+            log.info("Read ahead or inflated {} blocks, parsers stalled {} times for {} ms, readers waited for {} ms",
+                readAhead.blocks(), readAhead.parserStalls(), readAhead.parserStallMillis(),
+                readAhead.readerWaitMillis());
+        }
+        RejectCounters rejects = new RejectCounters();
+        rejectCounters.forEach(rejects::add);
+        if (options.rejectPolicy().isExceeded(rejects)) {
+            throw new TooManyRejectedLinesException(String.format("%d of %d lines are malformed, check the log "
+                + "format", rejects.malformed(), rejects.lines()));
+        }
+        return aggregator.toCollectedData(rejects, options.percentiles());
     }
 
     /**
-     * Finds log files (in current directory by given path) folder matching the given glob pattern and returns
-     * a list of their paths.
+     * Parses the sources on a bounded pool of workers. The sources are
+     * scheduled from the largest to the smallest one, so a big file doesn't start last and delay the end
+     * of the run. Every worker takes the next unprocessed source until none is left, and counts the entries
+     * with its own parser and aggregator, so the workers share nothing but the index of the next source and
+     * the abort flag. The partial aggregates are merged into the total one when the workers are done. When
+     * a worker fails, the flag stops the other workers at their next line instead of the end of their sources.
      *
-     * @param userPathPattern the glob pattern for matching log files
-     * @return a list of paths to the matching log files
+     * @param sources the files, the chunks of the files or the ranges of a remote log
+     * @param parsers the factory of parsers, one per worker
+     * @param total   the aggregator receiving the metrics of all sources
+     * @param threads the maximal number of workers
+     * @throws TooManyRejectedLinesException if a source, or the sources read by a worker, exceed the fail-fast
+     *                                       threshold of malformed lines
      */
-    private static List<Path> getMatchingFiles(String userPathPattern) {
-        List<Path> logFiles = new ArrayList<>();
-        String mainFolder = userPathPattern.split("/")[0];
-        PathMatcher pathMatcher = FileSystems.getDefault().getPathMatcher("glob:" + userPathPattern);
-
-        try {
-            Files.walkFileTree(Paths.get(mainFolder), new SimpleFileVisitor<>() {
-                @Override
-                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-                    if (pathMatcher.matches(file)) {
-                        logFiles.add(file);
-                    }
-                    return FileVisitResult.CONTINUE;
+    private void analyzeInParallel(List<LineSource> sources, Supplier<LogLineParser> parsers, LogAggregator total,
+        int threads) {
+        sources.sort(Comparator.comparingLong(LineSource::size).reversed());
+        int workers = Math.max(1, Math.min(threads, sources.size()));
+        AtomicInteger nextSource = new AtomicInteger();
+        AtomicBoolean aborted = new AtomicBoolean();
+        try (ExecutorService executor = Executors.newFixedThreadPool(workers)) {
+            CompletionService<LogAggregator> partials = new ExecutorCompletionService<>(executor);
+            for (int i = 0; i < workers; i++) {
+                partials.submit(() -> processSources(sources, nextSource, aborted, parsers.get(),
+                    total.newPartial()));
+            }
+            try {
+                for (int i = 0; i < workers; i++) {
+                    total.merge(partials.take().get());
                 }
-            });
-        } catch (InvalidPathException | NoSuchFileException e) {
-            log.error("Impossible to reach some files", e);
-        } catch (IOException e) {
-            log.error("Error during files searching has been occurred!", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("The analysis has been interrupted", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException("A worker has failed", e.getCause());
+            } finally {
+                aborted.set(true);
+                executor.shutdownNow();
+            }
         }
-        return logFiles;
     }
 
     /**
-     * Calculates the specified percentile of response sizes.
+     * Brings the cached copy of the remote log up to date if the cache is enabled.
      *
-     * @param responseSizes a list of response sizes
-     * @return the value at the specified percentile or {@code 0} if list is empty
+     * @param client the client sending the requests
+     * @param uri    the URI of the remote log
+     * @return the cached copy, or {@code null} if the cache is disabled or the log can't be cached
      */
-    private double calculatePercentile(List<Long> responseSizes) {
-        if (responseSizes.isEmpty()) {
-            return 0;
+    private LogFile fetchCached(HttpClient client, URI uri) {
+        if (remoteLogCache == null) {
+            return null;
+        }
+        try {
+            return remoteLogCache.fetch(client, uri);
+        } catch (IOException e) {
+            log.warn("The log {} can't be cached, reading it without the cache", uri, e);
+            return null;
         }
-
-        Collections.sort(responseSizes);
-
-        int index = (int) Math.ceil(PERCENTILE * responseSizes.size()) - 1;
-        return responseSizes.get(index);
     }
 
     /**
-     * Parses a log file into a stream of {@code LogData} objects based on the given filters.
+     * Splits the remote log into ranges downloaded in parallel, or reads it with a single request if the server
+     * doesn't accept byte ranges.
      *
-     * @param filePath    the path to the log file
-     * @param fromDate    the start date-time for filtering logs
-     * @param toDate      the end date-time for filtering logs
-     * @param agentFilter the filter for matching specific user agents
-     * @return a stream of {@code LogData} objects parsed from the log file
+     * @param remoteLog the remote log
+     * @return the sources of the log
      */
-    private static Stream<LogData> parseFileToStream(
-        Path filePath,
-        LocalDateTime fromDate,
-        LocalDateTime toDate,
-        String agentFilter
-    ) {
+    private static List<LineSource> remoteSources(RemoteLog remoteLog) {
         try {
-            return Files.lines(filePath)
-                .map(line -> parseLineToLogData(line, fromDate, toDate, agentFilter))
-                .filter(Objects::nonNull);
+            return new ArrayList<>(remoteLog.split(RemoteLog.DEFAULT_RANGE_SIZE));
         } catch (IOException e) {
-            return Stream.empty();
+            log.warn("The log {} can't be split into ranges, reading it with a single request", remoteLog.uri(), e);
+            return new ArrayList<>(List.of(remoteLog));
         }
     }
 
     /**
-     * Parses a single line of a log file into a {@code LogData} object if it matches the specified filter.
+     * Splits the files into the units of work of the workers according to the read mode. In the mapped mode
+     * plain files are split into chunks of the default size, otherwise they are read whole through the read-ahead
+     * stage. A plain file narrowed to the lines within the time range by the probe is split into chunks of
+     * the range in both modes. Gzip files can't be mapped: they are split at the
+     * checkpoints of their indexes when the gzip index is enabled, otherwise they are read whole.
      *
-     * @param line        the line to parse
-     * @param from        the start date-time for filtering a log
-     * @param to          the end date-time for filtering a log
-     * @param agentFilter the filter for matching specific user agents
-     * @return the parsed {@code LogData} object, or {@code null} if the line doesn't match the criteria
+     * @param files the log files
+     * @param probe the probe narrowing plain files to the time range, or {@code null} to read them whole
+     * @return the sources of all files which can be read
      */
-    private static LogData parseLineToLogData(String line, LocalDateTime from, LocalDateTime to, String agentFilter) {
-        Matcher matcher = LOG_PATTERN.matcher(line);
-        if (matcher.find()) {
-            String currentLogTime = matcher.group(LogParams.TIMESTAMP.ordinal() + 1);
-            LocalDateTime timestamp = LocalDateTime.parse(currentLogTime, LOG_DATE_FORMATTER);
+    private List<LineSource> toSources(List<LogFile> files, TimeSpanProbe probe) {
+        List<LineSource> sources = new ArrayList<>();
+        for (LogFile found : files) {
+            LogFile file = new LogFile(found.file(), found.size(), readAhead);
+            try {
+                boolean gzip = Compression.isGzip(file.file());
+                FileChunk range = gzip || probe == null ? null : probe.seek(file.file());
+                if (gzip) {
+                    sources.addAll(gzipSources(file));
+                } else if (range != null) {
+                    log.debug("Reading bytes {}-{} of {} within the time range", range.start(), range.end(),
+                        file.file());
+                    sources.addAll(range.split(FileChunk.DEFAULT_SIZE));
+                } else if (options.readMode() == ReadMode.MAPPED) {
+                    sources.addAll(FileChunk.split(file.file(), FileChunk.DEFAULT_SIZE));
+                } else {
+                    sources.add(file);
+                }
+            } catch (IOException e) {
+                log.error("Error during reading the log file {}", file.file(), e);
+            }
+        }
+        return sources;
+    }
 
-            if ((from == null || !timestamp.isBefore(from)) && (to == null || !timestamp.isAfter(to))) {
-                String resource = matcher.group(LogParams.REQUEST.ordinal() + 1).split(" ")[1];
-                String responseCode = matcher.group(LogParams.STATUS.ordinal() + 1);
-                long responseSize = Long.parseLong(matcher.group(LogParams.BODY_BYTES_SENT.ordinal() + 1));
-                String ip = matcher.group(LogParams.REMOTE_ADDR.ordinal() + 1);
-                String user = matcher.group(LogParams.REMOTE_USER.ordinal() + 1);
-                String userAgent = matcher.group(LogParams.HTTP_USER_AGENT.ordinal() + 1);
+    /**
+     * Splits a gzip file at the checkpoints of its index, or reads it whole while its index is built
+     * if the index doesn't exist yet.
+     *
+     * @param file the gzip file
+     * @return the sources of the file
+     */
+    private List<LineSource> gzipSources(LogFile file) {
+        if (!options.gzipIndex()) {
+            return List.of(file);
+        }
+        GzipIndex index = GzipIndex.load(file.file());
+        return index == null ? List.of(new IndexingGzipFile(file, GzipIndex.DEFAULT_SPAN)) : index.chunks();
+    }
 
-                LogData logData = new LogData(ip, user, resource, responseCode, responseSize);
-                if (isFollowAgentFilter(agentFilter, userAgent)) {
-                    return logData;
+    /**
+     * Parses sources until none is left or the analysis is aborted. The reject policy of the parser is
+     * applied to every source from its first line, and to all lines of the worker once a source ends.
+     *
+     * @param sources    the sources of the analysis
+     * @param nextSource the index of the next source shared by the workers
+     * @param aborted    the flag set when the analysis is aborted
+     * @param parser     the parser of the worker
+     * @param aggregator the empty aggregator of the worker
+     * @return the partial aggregate of the worker
+     * @throws CancellationException if the analysis is aborted while a source is read
+     */
+    private LogAggregator processSources(List<LineSource> sources, AtomicInteger nextSource, AtomicBoolean aborted,
+        LogLineParser parser, LogAggregator aggregator) {
+        for (int i = nextSource.getAndIncrement(); i < sources.size() && !aborted.get();
+             i = nextSource.getAndIncrement()) {
+            LineSource source = sources.get(i);
+            parser.startSource();
+            try {
+                source.forEachRawLine(collector(parser, aggregator, aborted));
+            } catch (IOException e) {
+                if (aborted.get()) {
+                    throw new CancellationException("The analysis has been aborted");
                 }
+                log.error("Error during reading the log source {}", source, e);
             }
+            parser.endSource();
         }
-        return null;
+        return aggregator;
     }
 
     /**
-     * Checks whether the user agent matches the specified filter.
+     * Creates a consumer which parses raw lines and passes the matching entries to the aggregator. The consumer
+     * checks the abort flag before every line, so a worker stops in the middle of a large source.
      *
-     * @param agentFilter the filter for matching specific user agents
-     * @param userAgent   the current user agent from the log to compare with the filter
-     * @return {@code true} if the user agent matches the filter; {@code false} otherwise
+     * @param parser     the parser of the lines
+     * @param aggregator the aggregator of the entries
+     * @param aborted    the flag set when the analysis is aborted
+     * @return the consumer of the lines
      */
-    private static boolean isFollowAgentFilter(String agentFilter, String userAgent) {
-        if (agentFilter == null) {
-            return true;
-        }
-        String regex = agentFilter.replace("*", ".*");
-        Pattern pattern = Pattern.compile(regex);
-        Matcher agentMatcher = pattern.matcher(userAgent);
-        return agentMatcher.matches() || userAgent.equals(agentFilter);
+    private static RawLineConsumer collector(LogLineParser parser, LogAggregator aggregator, AtomicBoolean aborted) {
+        return (line, length) -> {
+            if (aborted.get()) {
+                throw new CancellationException("The analysis has been aborted");
+            }
+            LogRecordView entry = parser.parse(line, length);
+            if (entry != null) {
+                aggregator.accept(entry);
+            }
+        };
     }
 
     /**
-     * Creates a stream of {@code LogData} objects from a remote log URL.
+     * Creates the probe of the time spans of local files, unless probing is disabled or the time range is
+     * unbounded.
      *
-     * @param urlString   the URL to the remote log file
-     * @param fromDate    the start date-time for filtering log entries
-     * @param toDate      the end date-time for filtering log entries
-     * @param agentFilter the filter for matching specific user agents
-     * @return a stream of {@code LogData} objects parsed from the remote log
+     * @param filter     the filters of the analysis
+     * @param tokenizers the factory of tokenizers locating the timestamps of the lines
+     * @return the probe, or {@code null} if the files are read whole
      */
-    private static Stream<LogData> createStreamFromURL(
-        String urlString,
-        LocalDateTime fromDate,
-        LocalDateTime toDate,
-        String agentFilter
-    ) {
-        try {
-            URL url = new URI(urlString).toURL();
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
+    private TimeSpanProbe timeSpanProbe(LogFilter filter, Supplier<LogTokenizer> tokenizers) {
+        if (!options.probeTimeSpans()
+            || filter.fromEpochSecond() == Long.MIN_VALUE && filter.toEpochSecond() == Long.MAX_VALUE) {
+            return null;
+        }
+        return new TimeSpanProbe(tokenizers.get(), filter);
+    }
 
-            return new BufferedReader(
-                new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8)).lines()
-                .map(line -> parseLineToLogData(line, fromDate, toDate, agentFilter))
-                .filter(Objects::nonNull);
+    /**
+     * Drops the files whose entries are all outside the time range according to the timestamps of their heads
+     * and tails.
+     *
+     * @param files   the log files
+     * @param probe   the probe of the time spans of the files, or {@code null} to keep all files
+     * @param skipped the counters of the skipped files
+     * @return the files which can contain entries within the time range
+     */
+    private static List<LogFile> skipOutOfRange(List<LogFile> files, TimeSpanProbe probe, RejectCounters skipped) {
+        if (probe == null) {
+            return files;
+        }
+        List<LogFile> overlapping = new ArrayList<>();
+        for (LogFile file : files) {
+            try {
+                if (probe.mayOverlap(file)) {
+                    overlapping.add(file);
+                } else {
+                    skipped.skipFile(file.size());
+                }
+            } catch (IOException e) {
+                log.debug("The time span of {} can't be probed", file.file(), e);
+                overlapping.add(file);
+            }
+        }
+        if (skipped.skippedFiles() > 0) {
+            log.info("Skipped {} files of {} bytes outside of the time range", skipped.skippedFiles(),
+                skipped.skippedBytes());
+        }
+        return overlapping;
+    }
 
-        } catch (IOException | URISyntaxException e) {
-            log.error("An error occurred while reading logs from the URL", e);
-            return Stream.empty();
+    /**
+     * Finds log files matching the given glob pattern, walking only the directories which can contain them,
+     * and returns a list of their paths.
+     *
+     * @param userPathPattern the glob pattern for matching log files
+     * @return a list of the matching log files with their sizes
+     */
+    private List<LogFile> getMatchingFiles(String userPathPattern) {
+        try {
+            return fileFinder.find(userPathPattern);
+        } catch (InvalidPathException | NoSuchFileException e) {
+            log.error("Impossible to reach some files", e);
+        } catch (IOException e) {
+            log.error("Error during files searching has been occurred!", e);
         }
+        return new ArrayList<>();
     }
 
     /**
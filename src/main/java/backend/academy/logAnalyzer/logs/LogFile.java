@@ -0,0 +1,47 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A local log file read sequentially line by line. Plain files are read straight from their channel by
+ * {@link ByteLineReader} unless they are read ahead, gzip-compressed files are detected by their magic bytes and
+ * decompressed on the fly by {@link Compression}.
+ *
+ * @param file      The log file.
+ * @param size      The size of the file in bytes when it has been found.
+ * @param readAhead The read-ahead stage of the raw bytes of the file.
+ */
+public record LogFile(Path file, long size, ReadAhead readAhead) implements LineSource {
+    /**
+     * Constructs a LogFile which is read on the thread of the parser.
+     *
+     * @param file the log file
+     * @param size the size of the file in bytes
+     */
+    public LogFile(Path file, long size) {
+        this(file, size, ReadAhead.DISABLED);
+    }
+
+    @Override
+    public void forEachRawLine(RawLineConsumer consumer) throws IOException {
+        try (ReadableByteChannel channel = open()) {
+            new ByteLineReader(consumer).read(channel);
+        }
+    }
+
+    private ReadableByteChannel open() throws IOException {
+        boolean gzip = Compression.isGzip(file);
+        if (!gzip && !readAhead.enabled()) {
+            return FileChannel.open(file, StandardOpenOption.READ);
+        }
+        InputStream input = readAhead.wrap(Files.newInputStream(file), "read-ahead");
+        return Channels.newChannel(gzip ? Compression.decompressIfGzip(input, readAhead) : input);
+    }
+}
@@ -0,0 +1,232 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Finds the local files matching a glob pattern without walking the parts of the tree which can't match.
+ *
+ * <p>The leading segments of the pattern without glob characters are the directory the walk starts at, so
+ * {@code /var/log/nginx/access*.gz} only reads {@code /var/log/nginx}. Every other segment is matched against
+ * the names of the entries at its depth: a directory is entered only if its name matches the segment of its
+ * depth, and an entry is examined at all only if its name matches, so the files which can't match are never
+ * even stat'ed. From a segment containing {@code **}, which can span any number of directories, on, the whole
+ * subtree is walked. Whether a file matches is always decided by the whole pattern, the same way as by
+ * {@link FileSystems#getPathMatcher(String)}, except that the {@link GzipIndex#isIndexFile(Path) index files}
+ * of gzip logs are never matched.
+ *
+ * <p>Directories are walked by a fork/join pool, and the entries of a directory with more than
+ * {@value #BATCH_SIZE} entries are examined in parallel batches. The listings of directories can be kept between
+ * runs in a {@link DirectoryListingCache}, so unchanged directories aren't read again. Symbolic links to
+ * directories aren't followed.
+ */
+@Slf4j
+public final class LogFileFinder {
+    private static final String GLOB = "glob:";
+    private static final String SEPARATOR = "/";
+    private static final String GLOB_CHARACTERS = "*?[]{}\\";
+    private static final String ANY_DEPTH = "**";
+    private static final int BATCH_SIZE = 512;
+
+    private final DirectoryListingCache listingCache;
+    private final int parallelism;
+
+    /**
+     * Constructs a LogFileFinder.
+     *
+     * @param listingCache the file keeping the listings of directories between runs, or {@code null} to read
+     *                     every directory on every search
+     * @param parallelism  the number of threads walking directories
+     */
+    public LogFileFinder(Path listingCache, int parallelism) {
+        this.listingCache = listingCache == null ? null : new DirectoryListingCache(listingCache);
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Finds the files matching the pattern. Directories which can't be read are skipped with a warning.
+     *
+     * @param pattern the glob pattern of the paths of the files
+     * @return the matching files in the order of their paths
+     * @throws IOException if the directory the walk starts at can't be reached
+     */
+    public List<LogFile> find(String pattern) throws IOException {
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher(GLOB + pattern);
+        String[] segments = pattern.split(SEPARATOR, -1);
+        int literal = 0;
+        while (literal < segments.length - 1 && isLiteral(segments[literal])) {
+            literal++;
+        }
+        String prefix = String.join(SEPARATOR, List.of(segments).subList(0, literal));
+        Path start = Path.of(prefix.isEmpty() && pattern.startsWith(SEPARATOR) ? SEPARATOR : prefix);
+        BasicFileAttributes attributes = Files.readAttributes(start, BasicFileAttributes.class);
+        List<LogFile> found = new ArrayList<>();
+        if (!attributes.isDirectory()) {
+            return found;
+        }
+        Walk walk = new Walk(matcher, List.of(segments).subList(literal, segments.length));
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(walk.new DirectoryTask(start, attributes, 0));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+        if (listingCache != null) {
+            listingCache.save();
+        }
+        found.addAll(walk.found);
+        found.sort(Comparator.comparing(LogFile::file));
+        return found;
+    }
+
+    private static boolean isLiteral(String segment) {
+        return segment.chars().noneMatch(symbol -> GLOB_CHARACTERS.indexOf(symbol) >= 0);
+    }
+
+    /**
+     * The state of a single search.
+     */
+    private final class Walk {
+        private final PathMatcher matcher;
+        private final PathMatcher[] segments;
+        private final int anyDepthFrom;
+        private final Queue<LogFile> found = new ConcurrentLinkedQueue<>();
+
+        /**
+         * Compiles the segments of the pattern below the directory the walk starts at. A segment which isn't a
+         * valid pattern on its own, like a part of {@code {a,b/c}}, can match at any depth as well.
+         */
+        Walk(PathMatcher matcher, List<String> segments) {
+            this.matcher = matcher;
+            this.segments = new PathMatcher[segments.size()];
+            int anyDepth = segments.size();
+            for (int i = 0; i < segments.size() && anyDepth == segments.size(); i++) {
+                try {
+                    this.segments[i] = FileSystems.getDefault().getPathMatcher(GLOB + segments.get(i));
+                } catch (IllegalArgumentException e) {
+                    anyDepth = i;
+                }
+                if (segments.get(i).contains(ANY_DEPTH)) {
+                    anyDepth = i;
+                }
+            }
+            this.anyDepthFrom = anyDepth;
+        }
+
+        /**
+         * Checks whether a directory with the name at the depth can contain matching files.
+         */
+        boolean mayEnter(Path name, int depth) {
+            return depth >= anyDepthFrom || depth < segments.length - 1 && segments[depth].matches(name);
+        }
+
+        /**
+         * Checks whether a file with the name at the depth can match the pattern.
+         */
+        boolean mayMatch(Path name, int depth) {
+            return depth >= anyDepthFrom || depth == segments.length - 1 && segments[depth].matches(name);
+        }
+
+        /**
+         * Lists a directory and examines its entries.
+         */
+        private final class DirectoryTask extends RecursiveAction {
+            private final Path directory;
+            private final BasicFileAttributes attributes;
+            private final int depth;
+
+            DirectoryTask(Path directory, BasicFileAttributes attributes, int depth) {
+                this.directory = directory;
+                this.attributes = attributes;
+                this.depth = depth;
+            }
+
+            @Override
+            protected void compute() {
+                List<String> names;
+                try {
+                    names = listingCache == null ? DirectoryListingCache.read(directory)
+                        : listingCache.names(directory, attributes);
+                } catch (AccessDeniedException e) {
+                    log.warn("The directory {} can't be read", directory);
+                    return;
+                } catch (NoSuchFileException e) {
+                    return;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                new EntriesTask(directory, names, depth).compute();
+            }
+        }
+
+        /**
+         * Examines a batch of the entries of a directory, splitting large batches in halves.
+         */
+        private final class EntriesTask extends RecursiveAction {
+            private final Path directory;
+            private final List<String> names;
+            private final int depth;
+
+            EntriesTask(Path directory, List<String> names, int depth) {
+                this.directory = directory;
+                this.names = names;
+                this.depth = depth;
+            }
+
+            @Override
+            protected void compute() {
+                if (names.size() > BATCH_SIZE) {
+                    int middle = names.size() / 2;
+                    invokeAll(new EntriesTask(directory, names.subList(0, middle), depth),
+                        new EntriesTask(directory, names.subList(middle, names.size()), depth));
+                    return;
+                }
+                List<DirectoryTask> subdirectories = new ArrayList<>();
+                for (String name : names) {
+                    Path entry = directory.resolve(name);
+                    Path fileName = entry.getFileName();
+                    boolean mayEnter = mayEnter(fileName, depth);
+                    boolean mayMatch = mayMatch(fileName, depth);
+                    if (!mayEnter && !mayMatch) {
+                        continue;
+                    }
+                    BasicFileAttributes entryAttributes;
+                    try {
+                        entryAttributes = Files.readAttributes(entry, BasicFileAttributes.class,
+                            LinkOption.NOFOLLOW_LINKS);
+                    } catch (NoSuchFileException e) {
+                        continue;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    if (entryAttributes.isDirectory()) {
+                        if (mayEnter) {
+                            subdirectories.add(new DirectoryTask(entry, entryAttributes, depth + 1));
+                        }
+                    } else if (mayMatch && matcher.matches(entry) && !GzipIndex.isIndexFile(entry)) {
+                        found.add(new LogFile(entry, entryAttributes.size()));
+                    }
+                }
+                invokeAll(subdirectories);
+            }
+        }
+    }
+}
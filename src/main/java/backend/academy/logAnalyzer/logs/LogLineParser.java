@@ -0,0 +1,171 @@
+package backend.academy.logAnalyzer.logs;
+
+import backend.academy.logAnalyzer.exceptions.TooManyRejectedLinesException;
+import backend.academy.logAnalyzer.filters.AgentFilter;
+import backend.academy.logAnalyzer.filters.LogFilter;
+import backend.academy.logAnalyzer.parsers.TimestampDecoder;
+import backend.academy.logAnalyzer.tokenizers.ByteSlice;
+import backend.academy.logAnalyzer.tokenizers.LogTokenizer;
+import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
+import java.util.Set;
+import lombok.Getter;
+
+/**
+ * Parses lines of log sources into a reusable {@link LogRecordView}.
+ *
+ * <p>The timestamp is checked first, and then the user agent, so rejected lines never materialize
+ * the rest of the fields. Every rejected line is counted in the {@link RejectCounters} of the parser by its
+ * {@link RejectReason}. A parser can read several sources one after another, and the {@link RejectPolicy} is
+ * applied to the lines of every source from its start, marked by {@link #startSource()}, and to the lines of all
+ * sources of the parser at the end of every source, marked by {@link #endSource()}. An instance keeps per-line
+ * state and must be used by a single thread only.
+ */
+public class LogLineParser {
+    private final LogTokenizer tokenizer;
+    private final LogFilter filter;
+    private final RejectPolicy rejectPolicy;
+    @Getter private final RejectCounters rejectCounters = new RejectCounters();
+    private final TimestampDecoder timestampDecoder = new TimestampDecoder();
+    private final ByteSlice timestamp = new ByteSlice();
+    private final ByteSlice userAgent = new ByteSlice();
+    private final LogRecordView view = new LogRecordView();
+    private long sourceLines;
+    private long sourceMalformed;
+
+    /**
+     * Constructs a LogLineParser with the specified tokenizer and filters.
+     *
+     * @param tokenizer    the tokenizer used to split lines into fields
+     * @param filter       the filters applied to log entries
+     * @param rejectPolicy the fail-fast threshold of malformed lines
+     */
+    public LogLineParser(LogTokenizer tokenizer, LogFilter filter, RejectPolicy rejectPolicy) {
+        this.tokenizer = tokenizer;
+        this.filter = filter;
+        this.rejectPolicy = rejectPolicy;
+    }
+
+    /**
+     * Marks the start of the next source, so the reject policy checks the first lines of that source.
+     */
+    public void startSource() {
+        sourceLines = 0;
+        sourceMalformed = 0;
+    }
+
+    /**
+     * Marks the end of the current source and checks the lines of all sources read by the parser so far.
+     *
+     * @throws TooManyRejectedLinesException if the lines read by the parser exceed the fail-fast threshold of
+     *                                       malformed lines
+     */
+    public void endSource() {
+        if (rejectPolicy.isExceeded(rejectCounters)) {
+            throw new TooManyRejectedLinesException(String.format("%d of %d lines of several sources are "
+                + "malformed, check the log format", rejectCounters.malformed(), rejectCounters.lines()));
+        }
+    }
+
+    /**
+     * Returns the fields a tokenizer must locate for lines to be parsed with the given filters.
+     *
+     * @param filter the filters applied to log entries
+     * @return the fields read by the parser
+     */
+    public static Set<LogParams> requiredParams(LogFilter filter) {
+        Set<LogParams> params = EnumSet.of(LogParams.TIMESTAMP);
+        params.addAll(LogRecordView.FIELDS);
+        if (!filter.agentFilter().acceptsAll()) {
+            params.add(LogParams.HTTP_USER_AGENT);
+        }
+        return params;
+    }
+
+    /**
+     * Parses a single line of a log into the view if it matches the filters.
+     *
+     * @param line the line to parse
+     * @return the view of the parsed line, which is valid until the next call, or {@code null} if the line
+     *     doesn't match the criteria
+     * @throws TooManyRejectedLinesException if the line exceeds the fail-fast threshold of malformed lines
+     */
+    public LogRecordView parse(String line) {
+        return parseTokenized(tokenizer.tokenizeTimestamp(line));
+    }
+
+    /**
+     * Parses a single line of a log read as raw UTF-8 bytes into the view if it matches the filters.
+     *
+     * @param line   the buffer holding the bytes of the line from its start, which must stay unchanged
+     *               while the view is used
+     * @param length the number of bytes of the line
+     * @return the view of the parsed line, which is valid until the next call, or {@code null} if the line
+     *     doesn't match the criteria
+     * @throws TooManyRejectedLinesException if the line exceeds the fail-fast threshold of malformed lines
+     */
+    public LogRecordView parse(byte[] line, int length) {
+        return parseTokenized(tokenizer.tokenizeTimestamp(line, length));
+    }
+
+    /**
+     * Parses the line whose head has just been passed to the tokenizer.
+     *
+     * @param headFound whether the tokenizer has located the fields up to the timestamp
+     */
+    private LogRecordView parseTokenized(boolean headFound) {
+        rejectCounters.countLine();
+        sourceLines++;
+        RejectReason reason = headFound ? checkTimestamp() : RejectReason.NO_MATCH;
+        if (reason == null) {
+            reason = loadRest();
+        }
+        if (reason != null) {
+            rejectCounters.reject(reason);
+            if (reason.malformed()) {
+                sourceMalformed++;
+            }
+        }
+        if (rejectPolicy.isExceeded(sourceLines, sourceMalformed)) {
+            throw new TooManyRejectedLinesException(String.format("%d of the first %d lines of a source are "
+                + "malformed, check the log format", sourceMalformed, sourceLines));
+        }
+        return reason == null ? view : null;
+    }
+
+    /**
+     * Decodes the timestamp of the line and checks whether it is within the time range of the filter.
+     *
+     * @return the reason of the rejection, or {@code null} if the line passes the check
+     */
+    private RejectReason checkTimestamp() {
+        long epochSecond;
+        try {
+            epochSecond = timestampDecoder.decode(tokenizer.slice(LogParams.TIMESTAMP, timestamp));
+        } catch (DateTimeParseException e) {
+            return RejectReason.BAD_TIMESTAMP;
+        }
+        return filter.isInTimeRange(epochSecond) ? null : RejectReason.FILTERED_BY_DATE;
+    }
+
+    /**
+     * Locates the rest of the fields, checks the user agent and loads the view.
+     *
+     * @return the reason of the rejection, or {@code null} if the view has been loaded
+     */
+    private RejectReason loadRest() {
+        if (!tokenizer.tokenizeRest()) {
+            return RejectReason.NO_MATCH;
+        }
+        AgentFilter agentFilter = filter.agentFilter();
+        if (!agentFilter.acceptsAll()
+            && !agentFilter.matches(tokenizer.slice(LogParams.HTTP_USER_AGENT, userAgent))) {
+            return RejectReason.FILTERED_BY_AGENT;
+        }
+        try {
+            return view.load(tokenizer) ? null : RejectReason.NO_MATCH;
+        } catch (NumberFormatException e) {
+            return RejectReason.BAD_SIZE;
+        }
+    }
+}
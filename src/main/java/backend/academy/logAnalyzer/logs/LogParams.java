@@ -1,46 +1,59 @@
 package backend.academy.logAnalyzer.logs;
 
+import lombok.Getter;
+
 /**
  * Enumeration representing the parameters in a log entry.
  */
-public enum LogParams {
+@Getter public enum LogParams {
     /**
      * The IP address from which the request originated.
      */
-    REMOTE_ADDR,
+    REMOTE_ADDR("remote_addr"),
 
     /**
      * The user who made the request.
      */
-    REMOTE_USER,
+    REMOTE_USER("remote_user"),
 
     /**
      * The timestamp of the request.
      */
-    TIMESTAMP,
+    TIMESTAMP("time_local"),
 
     /**
      * The request made by the user.
      */
-    REQUEST,
+    REQUEST("request"),
 
     /**
      * The HTTP status code returned by the server.
      */
-    STATUS,
+    STATUS("status"),
 
     /**
      * The size of the response body in bytes.
      */
-    BODY_BYTES_SENT,
+    BODY_BYTES_SENT("body_bytes_sent"),
 
     /**
      * The HTTP referer header.
      */
-    HTTP_REFERER,
+    HTTP_REFERER("http_referer"),
 
     /**
      * The HTTP user agent header.
      */
-    HTTP_USER_AGENT
+    HTTP_USER_AGENT("http_user_agent");
+
+    private final String variable;
+
+    /**
+     * Constructs a LogParams enum with the specified nginx variable name.
+     *
+     * @param variable the name of the nginx variable holding the parameter, without {@code $}.
+     */
+    LogParams(String variable) {
+        this.variable = variable;
+    }
 }
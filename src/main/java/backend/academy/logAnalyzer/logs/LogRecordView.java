@@ -0,0 +1,71 @@
+package backend.academy.logAnalyzer.logs;
+
+import backend.academy.logAnalyzer.tokenizers.ByteSlice;
+import backend.academy.logAnalyzer.tokenizers.LogTokenizer;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import lombok.Getter;
+
+/**
+ * A reusable view of a single log entry, which exposes the same fields as {@link LogData}.
+ *
+ * <p>The response code and size are parsed into primitives, the other fields are {@link ByteSlice} flyweights
+ * pointing into the buffer of the tokenizer, so loading a line doesn't allocate anything. The view is overwritten
+ * by the next line: it may be used as a lookup key, while {@link ByteSlice#copy()} or {@link #toLogData()}
+ * must be used to keep the values.
+ */
+public final class LogRecordView {
+    /**
+     * The fields of a line read by {@link #load(LogTokenizer)}.
+     */
+    public static final Set<LogParams> FIELDS = Collections.unmodifiableSet(EnumSet.of(LogParams.REMOTE_ADDR,
+        LogParams.REMOTE_USER, LogParams.REQUEST, LogParams.STATUS, LogParams.BODY_BYTES_SENT));
+
+    private final ByteSlice request = new ByteSlice();
+    private final ByteSlice responseCodeDigits = new ByteSlice();
+    private final ByteSlice responseSizeDigits = new ByteSlice();
+    @Getter private final ByteSlice ip = new ByteSlice();
+    @Getter private final ByteSlice user = new ByteSlice();
+    @Getter private final ByteSlice method = new ByteSlice();
+    @Getter private final ByteSlice resource = new ByteSlice();
+    @Getter private final ByteSlice protocol = new ByteSlice();
+    @Getter private short responseCode;
+    @Getter private long responseSize;
+
+    /**
+     * Points the view to the fields of the line which has been tokenized by the tokenizer.
+     * The request line is split into the method, the resource and the protocol by the offsets of the spaces.
+     *
+     * @param tokenizer the tokenizer which has located all fields of the line
+     * @return {@code true} if the request of the line contains a resource; {@code false} otherwise
+     * @throws NumberFormatException if the response code or size isn't a number or the size doesn't fit
+     *                               into {@code long}
+     */
+    public boolean load(LogTokenizer tokenizer) {
+        tokenizer.slice(LogParams.REQUEST, request);
+        int resourceStart = request.indexOf((byte) ' ', 0) + 1;
+        if (resourceStart == 0) {
+            return false;
+        }
+        int resourceEnd = request.indexOf((byte) ' ', resourceStart);
+        request.slice(method, 0, resourceStart - 1);
+        request.slice(resource, resourceStart, resourceEnd < 0 ? request.length() : resourceEnd);
+        request.slice(protocol, resourceEnd < 0 ? request.length() : resourceEnd + 1, request.length());
+        tokenizer.slice(LogParams.REMOTE_ADDR, ip);
+        tokenizer.slice(LogParams.REMOTE_USER, user);
+        responseCode = (short) tokenizer.slice(LogParams.STATUS, responseCodeDigits).parseLong();
+        responseSize = tokenizer.slice(LogParams.BODY_BYTES_SENT, responseSizeDigits).parseLong();
+        return !resource.isEmpty();
+    }
+
+    /**
+     * Materializes the view into an independent {@link LogData} record.
+     *
+     * @return the log entry with the values of the view
+     */
+    public LogData toLogData() {
+        return new LogData(ip.toString(), user.toString(), resource.toString(), String.valueOf(responseCode),
+            responseSize);
+    }
+}
@@ -0,0 +1,18 @@
+package backend.academy.logAnalyzer.logs;
+
+/**
+ * Enumeration of the ways percentiles of response sizes are computed.
+ */
+public enum PercentileMode {
+    /**
+     * Percentiles are estimated from a {@link ResponseSizeHistogram} of fixed memory within the precision of its
+     * significant digits.
+     */
+    HISTOGRAM,
+
+    /**
+     * Every response size is retained in primitive arrays, spilled to disk beyond the memory budget, and
+     * the exact percentiles are selected from them.
+     */
+    EXACT
+}
@@ -0,0 +1,161 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * An input stream which reads its source on a dedicated thread.
+ *
+ * <p>The producer thread reads the source in large blocks and hands them to the reader through a bounded queue,
+ * so an expensive source (e.g. inflating gzip or a slow network storage) and the parsing of the already read
+ * bytes overlap. The queue bounds the memory held by the stream to {@code (depth + 2) * blockSize} bytes, and
+ * blocks the producer while the reader falls behind. The waits on both sides of the queue are recorded into
+ * the {@link ReadAhead} statistics. The stream must be read by a single thread.
+ */
+final class PipelinedInputStream extends InputStream {
+    private static final byte[] END = new byte[0];
+    private static final int BYTE_MASK = 0xFF;
+
+    private final BlockingQueue<byte[]> blocks;
+    private final ReadAhead readAhead;
+    private final Thread producer;
+    private volatile IOException failure;
+    private byte[] block = new byte[0];
+    private int position;
+    private boolean finished;
+
+    /**
+     * Constructs a PipelinedInputStream and starts reading the source.
+     *
+     * @param source    the stream to read on the producer thread, which is closed by the producer
+     * @param readAhead the stage providing the block size, which receives the statistics of the waits
+     * @param depth     the maximal number of blocks in the queue
+     * @param name      the name of the producer thread
+     */
+    PipelinedInputStream(InputStream source, ReadAhead readAhead, int depth, String name) {
+        this.blocks = new ArrayBlockingQueue<>(depth);
+        this.readAhead = readAhead;
+        this.producer = Thread.ofPlatform().daemon().name(name).start(() -> pump(source, readAhead.blockSize()));
+    }
+
+    /**
+     * Reads the source into the queue until the end of the source, a failure or the closing of the stream.
+     * The end of the source is queued whatever happens to the producer, so the reader never waits forever.
+     */
+    private void pump(InputStream source, int blockSize) {
+        try (source) {
+            int read = blockSize;
+            while (read == blockSize) {
+                byte[] bytes = new byte[blockSize];
+                read = source.readNBytes(bytes, 0, blockSize);
+                if (read > 0) {
+                    put(read == blockSize ? bytes : Arrays.copyOf(bytes, read));
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (UncheckedIOException e) {
+            failure = e.getCause();
+        } catch (RuntimeException | Error e) {
+            failure = new IOException("The source has failed", e);
+        } finally {
+            try {
+                put(END);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Puts the block into the queue, waiting for a free slot if the reader falls behind.
+     */
+    private void put(byte[] bytes) throws InterruptedException {
+        if (!blocks.offer(bytes)) {
+            long start = System.nanoTime();
+            blocks.put(bytes);
+            readAhead.recordReaderWait(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!nextBlock()) {
+            return -1;
+        }
+        return block[position++] & BYTE_MASK;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        if (length == 0) {
+            return 0;
+        }
+        if (!nextBlock()) {
+            return -1;
+        }
+        int count = Math.min(length, block.length - position);
+        System.arraycopy(block, position, bytes, offset, count);
+        position += count;
+        return count;
+    }
+
+    /**
+     * Takes the next block from the queue when the current one has been read.
+     *
+     * @return {@code true} if there are unread bytes in the current block; {@code false} at the end of the source
+     * @throws IOException if the producer has failed to read the source
+     */
+    private boolean nextBlock() throws IOException {
+        while (position == block.length && !finished) {
+            block = take();
+            position = 0;
+            if (block == END) {
+                finished = true;
+                if (failure != null) {
+                    throw failure;
+                }
+            }
+        }
+        return position < block.length;
+    }
+
+    /**
+     * Takes the next block from the queue, waiting for it if the producer falls behind.
+     */
+    private byte[] take() throws InterruptedIOException {
+        byte[] next = blocks.poll();
+        try {
+            if (next == null) {
+                long start = System.nanoTime();
+                next = blocks.take();
+                readAhead.recordParserStall(System.nanoTime() - start);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the next block");
+        }
+        if (next != END) {
+            readAhead.recordBlock();
+        }
+        return next;
+    }
+
+    /**
+     * Stops the producer, which closes the source.
+     */
+    @Override
+    public void close() {
+        finished = true;
+        producer.interrupt();
+    }
+}
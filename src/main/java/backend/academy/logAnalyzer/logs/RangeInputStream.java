@@ -0,0 +1,146 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A stream of the bytes of a remote log from an offset to its end, which are requested with HTTP {@code Range}
+ * requests while they are read.
+ *
+ * <p>The first request covers the expected part of the log, and every next one the following
+ * {@value #FOLLOWING_FETCH_SIZE} bytes, so a reader which stops a bit past the expected part doesn't download
+ * the rest of the log. A failed request, or a response body broken off in the middle, is retried from the first
+ * byte which hasn't been read yet, up to {@value #MAX_ATTEMPTS} times in a row with a growing pause.
+ * The stream must be read by a single thread.
+ */
+final class RangeInputStream extends InputStream {
+    private static final int FOLLOWING_FETCH_SIZE = 64 * 1024;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_PAUSE_MILLIS = 100;
+    private static final int PARTIAL_CONTENT = 206;
+    private static final int BYTE_MASK = 0xFF;
+
+    private final HttpClient client;
+    private final URI uri;
+    private final long length;
+    private long position;
+    private long fetchEnd;
+    private InputStream body;
+    private int failures;
+
+    /**
+     * Constructs a RangeInputStream. No request is sent until the stream is read.
+     *
+     * @param client        the client sending the requests
+     * @param uri           the URI of the log
+     * @param from          the offset of the first byte of the stream
+     * @param expectedEnd   the offset right after the part of the log which is expected to be read
+     * @param length        the length of the log
+     */
+    RangeInputStream(HttpClient client, URI uri, long from, long expectedEnd, long length) {
+        this.client = client;
+        this.uri = uri;
+        this.length = length;
+        this.position = from;
+        this.fetchEnd = Math.min(expectedEnd, length);
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) < 0 ? -1 : single[0] & BYTE_MASK;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int count) throws IOException {
+        Objects.checkFromIndexSize(offset, count, bytes.length);
+        while (position < length && count > 0) {
+            try {
+                if (body == null) {
+                    body = fetch();
+                }
+                int read = body.read(bytes, offset, (int) Math.min(count, fetchEnd - position));
+                if (read > 0) {
+                    position += read;
+                    failures = 0;
+                    if (position == fetchEnd) {
+                        closeBody();
+                        fetchEnd = Math.min(length, fetchEnd + FOLLOWING_FETCH_SIZE);
+                    }
+                    return read;
+                }
+                throw new IOException("The response of " + uri + " has ended at the offset " + position);
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (IOException e) {
+                retryAfter(e);
+            }
+        }
+        return count == 0 ? 0 : -1;
+    }
+
+    /**
+     * Requests the bytes from the current position up to the end of the current fetch.
+     */
+    private InputStream fetch() throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+            .header("Range", "bytes=" + position + "-" + (fetchEnd - 1))
+            .header("Accept-Encoding", "identity")
+            .build();
+        HttpResponse<InputStream> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while requesting " + uri);
+        }
+        Optional<String> contentRange = response.headers().firstValue("Content-Range");
+        if (response.statusCode() != PARTIAL_CONTENT || contentRange.isEmpty()
+            || !contentRange.get().startsWith("bytes " + position + "-")
+            || !contentRange.get().endsWith("/" + length)) {
+            response.body().close();
+            throw new IOException("Unexpected response " + response.statusCode() + " " + contentRange.orElse("")
+                + " to the range request of " + uri);
+        }
+        return response.body();
+    }
+
+    /**
+     * Drops the broken response and waits before the next attempt.
+     *
+     * @throws IOException the failure if the attempts are exhausted
+     */
+    private void retryAfter(IOException failure) throws IOException {
+        closeBody();
+        failures++;
+        if (failures >= MAX_ATTEMPTS) {
+            throw failure;
+        }
+        try {
+            Thread.sleep(RETRY_PAUSE_MILLIS * failures);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while retrying " + uri);
+        }
+    }
+
+    private void closeBody() throws IOException {
+        if (body != null) {
+            InputStream closed = body;
+            body = null;
+            closed.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeBody();
+    }
+}
@@ -0,0 +1,15 @@
+package backend.academy.logAnalyzer.logs;
+
+/**
+ * A consumer of lines as raw bytes, which are read from a reusable buffer without decoding them into Strings.
+ */
+@FunctionalInterface
+public interface RawLineConsumer {
+    /**
+     * Consumes a line without the line terminator.
+     *
+     * @param line   the buffer holding the bytes of the line from its start, which is reused for the next line
+     * @param length the number of bytes of the line
+     */
+    void accept(byte[] line, int length);
+}
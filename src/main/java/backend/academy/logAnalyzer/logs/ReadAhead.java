@@ -0,0 +1,145 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+
+/**
+ * The settings and the statistics of the read-ahead stage, which keeps blocks of a source in flight on
+ * a background thread while the parser consumes the current block.
+ *
+ * <p>The statistics are shared by all sources of an analysis and tell how to tune the stage: the time the parser
+ * has stalled waiting for a block means that the storage is too slow for the current block size and queue depth,
+ * and the time the reader has waited for a free slot in the queue means that the parser is the bottleneck and
+ * a deeper queue won't help. The inflation of gzip streams is pipelined by the same stage even if reading ahead is
+ * disabled, so its waits are part of the statistics. The class is thread-safe.
+ */
+public final class ReadAhead {
+    /**
+     * The default size of a block.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    /**
+     * The minimal number of blocks inflated ahead of the parser.
+     */
+    public static final int MIN_INFLATION_DEPTH = 4;
+
+    /**
+     * The disabled stage, which reads sources on the thread of the parser, so only gzip streams are inflated ahead.
+     */
+    public static final ReadAhead DISABLED = new ReadAhead(DEFAULT_BLOCK_SIZE, 0);
+
+    @Getter private final int blockSize;
+    @Getter private final int depth;
+    private final LongAdder blocks = new LongAdder();
+    private final LongAdder parserStalls = new LongAdder();
+    private final LongAdder parserStallNanos = new LongAdder();
+    private final LongAdder readerWaitNanos = new LongAdder();
+
+    /**
+     * Constructs a ReadAhead.
+     *
+     * @param blockSize the size of a block read by the background thread
+     * @param depth     the maximal number of blocks read ahead of the parser, or zero to disable the stage
+     */
+    public ReadAhead(int blockSize, int depth) {
+        this.blockSize = blockSize;
+        this.depth = depth;
+    }
+
+    /**
+     * Checks whether sources are read ahead.
+     *
+     * @return {@code true} if the depth of the queue is positive; {@code false} otherwise
+     */
+    public boolean enabled() {
+        return depth > 0;
+    }
+
+    /**
+     * Wraps the stream into one which reads it ahead on a dedicated thread if the stage is enabled.
+     *
+     * @param source the stream to read
+     * @param name   the name of the dedicated thread
+     * @return the stream of the blocks read ahead, or the source itself if the stage is disabled
+     */
+    InputStream wrap(InputStream source, String name) {
+        return enabled() ? new PipelinedInputStream(source, this, depth, name) : source;
+    }
+
+    /**
+     * Wraps the stream of an expensive source, such as an inflated gzip stream, into one which reads it ahead on
+     * a dedicated thread even if the stage is disabled.
+     *
+     * @param source the stream to read, which is closed by the dedicated thread
+     * @param name   the name of the dedicated thread
+     * @return the stream of the blocks read ahead, at least {@value #MIN_INFLATION_DEPTH} blocks deep
+     */
+    InputStream pipeline(InputStream source, String name) {
+        return new PipelinedInputStream(source, this, Math.max(depth, MIN_INFLATION_DEPTH), name);
+    }
+
+    /**
+     * Counts a block handed to the parser.
+     */
+    void recordBlock() {
+        blocks.increment();
+    }
+
+    /**
+     * Counts a wait of the parser for a block which hasn't been read yet.
+     *
+     * @param nanos the duration of the wait
+     */
+    void recordParserStall(long nanos) {
+        parserStalls.increment();
+        parserStallNanos.add(nanos);
+    }
+
+    /**
+     * Counts a wait of the reader for a free slot in the queue.
+     *
+     * @param nanos the duration of the wait
+     */
+    void recordReaderWait(long nanos) {
+        readerWaitNanos.add(nanos);
+    }
+
+    /**
+     * Returns the number of blocks handed to the parsers.
+     *
+     * @return the number of blocks
+     */
+    public long blocks() {
+        return blocks.sum();
+    }
+
+    /**
+     * Returns the number of times the parsers have found the queue empty.
+     *
+     * @return the number of stalls
+     */
+    public long parserStalls() {
+        return parserStalls.sum();
+    }
+
+    /**
+     * Returns the total time the parsers have waited for blocks.
+     *
+     * @return the stall time in milliseconds
+     */
+    public long parserStallMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(parserStallNanos.sum());
+    }
+
+    /**
+     * Returns the total time the background readers have waited for free slots in the queues.
+     *
+     * @return the wait time in milliseconds
+     */
+    public long readerWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(readerWaitNanos.sum());
+    }
+}
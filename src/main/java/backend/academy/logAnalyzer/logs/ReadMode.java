@@ -0,0 +1,18 @@
+package backend.academy.logAnalyzer.logs;
+
+/**
+ * Enumeration of the ways local log files are read.
+ */
+public enum ReadMode {
+    /**
+     * Every file is read sequentially and split into lines as raw bytes by {@link ByteLineReader}, without
+     * decoding them as UTF-8, different files are read in parallel.
+     */
+    LINES,
+
+    /**
+     * Every file is split into newline-aligned {@link FileChunk chunks}, which are memory-mapped and parsed
+     * in parallel, so a single large file is read by all workers.
+     */
+    MAPPED
+}
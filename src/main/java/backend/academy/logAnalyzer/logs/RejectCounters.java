@@ -0,0 +1,85 @@
+package backend.academy.logAnalyzer.logs;
+
+import lombok.Getter;
+
+/**
+ * Counters of read and rejected lines per {@link RejectReason}, and of files skipped as a whole.
+ *
+ * <p>The counters are plain {@code long} fields without any synchronization: every {@link LogLineParser}
+ * updates its own instance from a single thread, and the instances are summed by {@link #add(RejectCounters)}
+ * once their sources have been read.
+ */
+public final class RejectCounters {
+    private final long[] rejected = new long[RejectReason.values().length];
+    @Getter private long lines;
+    @Getter private long malformed;
+    @Getter private long skippedFiles;
+    @Getter private long skippedBytes;
+
+    /**
+     * Counts a line read from a source.
+     */
+    void countLine() {
+        lines++;
+    }
+
+    /**
+     * Counts a rejected line.
+     *
+     * @param reason the reason of the rejection
+     */
+    void reject(RejectReason reason) {
+        rejected[reason.ordinal()]++;
+        if (reason.malformed()) {
+            malformed++;
+        }
+    }
+
+    /**
+     * Counts a file which hasn't been read because none of its entries can match the filters.
+     *
+     * @param size the size of the file in bytes
+     */
+    void skipFile(long size) {
+        skippedFiles++;
+        skippedBytes += size;
+    }
+
+    /**
+     * Adds the counters of another source to these counters.
+     *
+     * @param other the counters to add
+     */
+    public void add(RejectCounters other) {
+        lines += other.lines;
+        malformed += other.malformed;
+        skippedFiles += other.skippedFiles;
+        skippedBytes += other.skippedBytes;
+        for (int i = 0; i < rejected.length; i++) {
+            rejected[i] += other.rejected[i];
+        }
+    }
+
+    /**
+     * Returns the number of lines rejected for the reason.
+     *
+     * @param reason the reason of the rejection
+     * @return the number of rejected lines
+     */
+    public long rejected(RejectReason reason) {
+        return rejected[reason.ordinal()];
+    }
+
+    /**
+     * Returns the number of lines rejected for any reason.
+     *
+     * @return the number of rejected lines
+     */
+    public long totalRejected() {
+        long total = 0;
+        for (long count : rejected) {
+            total += count;
+        }
+        return total;
+    }
+}
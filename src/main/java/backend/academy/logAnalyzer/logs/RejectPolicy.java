@@ -0,0 +1,46 @@
+package backend.academy.logAnalyzer.logs;
+
+/**
+ * A record that stores the fail-fast threshold of malformed lines. When the first {@code checkedLines} lines of
+ * a source have been read and more than {@code maxMalformedRatio} of them are malformed, the analysis is aborted,
+ * since the log format most likely doesn't match the source. The same ratio is checked on the lines of all sources
+ * read so far, so many short sources can't escape the check. Lines filtered out by date or agent aren't malformed.
+ *
+ * @param checkedLines      The number of lines of a source after which the ratio is checked.
+ * @param maxMalformedRatio The maximal allowed ratio of malformed lines, {@code 1} never aborts the analysis.
+ */
+public record RejectPolicy(long checkedLines, double maxMalformedRatio) {
+    /**
+     * The default number of checked lines.
+     */
+    public static final long DEFAULT_CHECKED_LINES = 10_000;
+
+    /**
+     * The default policy: abort after the first 10 000 lines if more than a half of them are malformed.
+     */
+    public static final RejectPolicy DEFAULT = new RejectPolicy(DEFAULT_CHECKED_LINES, 0.5);
+
+    /**
+     * Checks whether the totals of several sources exceed the threshold, so a run over many sources shorter than
+     * {@code checkedLines} lines is aborted as well. The check is done once at least {@code checkedLines} lines
+     * have been read in total, and compares the malformed lines with all of them.
+     *
+     * @param counters the counters summed over the read sources
+     * @return {@code true} if the analysis must be aborted; {@code false} otherwise
+     */
+    public boolean isExceeded(RejectCounters counters) {
+        return counters.lines() >= checkedLines && counters.malformed() > maxMalformedRatio * counters.lines();
+    }
+
+    /**
+     * Checks whether the lines read from the start of a source exceed the threshold. The check is done exactly
+     * once, when the number of read lines reaches {@code checkedLines}.
+     *
+     * @param lines     the number of lines read from the start of the source
+     * @param malformed the number of malformed lines among them
+     * @return {@code true} if the analysis must be aborted; {@code false} otherwise
+     */
+    public boolean isExceeded(long lines, long malformed) {
+        return lines == checkedLines && malformed > maxMalformedRatio * checkedLines;
+    }
+}
@@ -0,0 +1,47 @@
+package backend.academy.logAnalyzer.logs;
+
+import lombok.Getter;
+
+/**
+ * Enumeration representing the reasons why a log line isn't counted in the report.
+ */
+@Getter public enum RejectReason {
+    /**
+     * The line doesn't match the log format.
+     */
+    NO_MATCH("No match", true),
+
+    /**
+     * The timestamp of the line can't be parsed.
+     */
+    BAD_TIMESTAMP("Bad timestamp", true),
+
+    /**
+     * The response size of the line doesn't fit into {@code long}.
+     */
+    BAD_SIZE("Bad size", true),
+
+    /**
+     * The timestamp of the line is out of the requested time range.
+     */
+    FILTERED_BY_DATE("Filtered by date", false),
+
+    /**
+     * The user agent of the line doesn't match the filter.
+     */
+    FILTERED_BY_AGENT("Filtered by agent", false);
+
+    private final String description;
+    private final boolean malformed;
+
+    /**
+     * Constructs a RejectReason with the specified description.
+     *
+     * @param description the name of the reason shown in the report.
+     * @param malformed   whether the line is rejected because it is malformed rather than filtered out.
+     */
+    RejectReason(String description, boolean malformed) {
+        this.description = description;
+        this.malformed = malformed;
+    }
+}
@@ -0,0 +1,110 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.OptionalLong;
+
+/**
+ * A log downloaded from a URL.
+ *
+ * <p>A log served by a server which accepts byte ranges is {@link #split(long) split} into {@link RemoteRange}
+ * ranges, which are downloaded in parallel. Any other log is read by a single request line by line while it is
+ * received: the request accepts a gzip-compressed body, which is detected by its magic bytes and decompressed on
+ * the fly by {@link Compression}. Ranges are always requested without a content encoding, since a range of
+ * a compressed body can't be decompressed on its own; gzip files are never split for the same reason.
+ *
+ * @param client    The client sending the requests.
+ * @param uri       The URI of the log.
+ * @param readAhead The read-ahead stage of the raw body of a single request.
+ */
+public record RemoteLog(HttpClient client, URI uri, ReadAhead readAhead) implements LineSource {
+    /**
+     * The default size of a range downloaded by a single worker.
+     */
+    public static final long DEFAULT_RANGE_SIZE = 8L * 1024 * 1024;
+
+    private static final int OK = 200;
+    private static final String GZIP = "gzip";
+
+    /**
+     * Creates the client of remote logs, which follows redirects like a browser does.
+     *
+     * @return the new client
+     */
+    public static HttpClient newClient() {
+        return HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NORMAL).build();
+    }
+
+    /**
+     * Splits the log into ranges of about the specified size if the server accepts byte ranges.
+     *
+     * @param rangeSize the size of a range
+     * @return the ranges of the log, or the log itself if it can't be split or isn't larger than a range
+     * @throws IOException if the server can't be reached
+     */
+    public List<LineSource> split(long rangeSize) throws IOException {
+        HttpResponse<Void> head;
+        try {
+            head = client.send(HttpRequest.newBuilder(uri).method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.discarding());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while requesting " + uri);
+        }
+        OptionalLong length = head.headers().firstValueAsLong("Content-Length");
+        boolean rangesAccepted = head.statusCode() == OK
+            && head.headers().allValues("Accept-Ranges").contains("bytes")
+            && head.headers().firstValue("Content-Encoding").isEmpty()
+            && !head.headers().firstValue("Content-Type").orElse("").toLowerCase(Locale.ROOT).contains(GZIP)
+            && !uri.getPath().endsWith(".gz");
+        if (!rangesAccepted || length.isEmpty() || length.getAsLong() <= rangeSize) {
+            return List.of(this);
+        }
+        List<LineSource> ranges = new ArrayList<>();
+        for (long start = 0; start < length.getAsLong(); start += rangeSize) {
+            ranges.add(new RemoteRange(client, uri, start, Math.min(start + rangeSize, length.getAsLong()),
+                length.getAsLong()));
+        }
+        return ranges;
+    }
+
+    /**
+     * Returns zero, since the size of a log read by a single request isn't known until it is requested.
+     *
+     * @return zero
+     */
+    @Override
+    public long size() {
+        return 0;
+    }
+
+    @Override
+    public void forEachRawLine(RawLineConsumer consumer) throws IOException {
+        HttpResponse<InputStream> response;
+        try {
+            response = client.send(HttpRequest.newBuilder(uri).header("Accept-Encoding", GZIP).build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while requesting " + uri);
+        }
+        if (response.statusCode() != OK) {
+            response.body().close();
+            throw new IOException("Unexpected response " + response.statusCode() + " to the request of " + uri);
+        }
+        try (ReadableByteChannel channel = Channels.newChannel(
+            Compression.decompressIfGzip(readAhead.wrap(response.body(), "read-ahead"), readAhead))) {
+            new ByteLineReader(consumer).read(channel);
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+import java.util.zip.GZIPOutputStream;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A directory caching the bodies of remote logs between runs.
+ *
+ * <p>A body is stored with its {@code ETag}, its {@code Last-Modified} date and its length in a properties file
+ * named after the SHA-256 hash of the URL, optionally compressed with gzip. A cached log is revalidated with
+ * {@code If-None-Match} and {@code If-Modified-Since}, and the same request asks for the bytes past the cached
+ * length with a {@code Range} header, so a log which has only grown since the last run is completed by
+ * downloading its appended tail. The range starts {@value #TAIL_WINDOW} bytes before the cached length, and
+ * the tail is appended only if these bytes are the same as the last bytes of the cached body, which are kept with
+ * its metadata; a log which has been rotated or rewritten is downloaded again even if it has grown past
+ * the cached length. A compressed tail is appended as a new gzip member.
+ *
+ * <p>The least recently used entries are evicted once the cache exceeds its size budget, which covers the
+ * {@link GzipIndex indexes} of cached gzip bodies too. The cache is meant for a single process at a time.
+ */
+@Slf4j
+public final class RemoteLogCache {
+    /**
+     * The default maximal size of the cached bodies in bytes.
+     */
+    public static final long DEFAULT_SIZE_BUDGET = 1024L * 1024 * 1024;
+
+    /**
+     * The number of the last bytes of a cached body which are downloaded again to check that the log has only
+     * been appended to.
+     */
+    public static final int TAIL_WINDOW = 1024;
+
+    private static final String META_EXTENSION = ".properties";
+    private static final String BODY_EXTENSION = ".log";
+    private static final String COMPRESSED_BODY_EXTENSION = ".log.gz";
+    private static final String IDENTITY = "identity";
+    private static final int OK = 200;
+    private static final int PARTIAL_CONTENT = 206;
+    private static final int NOT_MODIFIED = 304;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Getter private final Path directory;
+    @Getter private final long sizeBudget;
+    @Getter private final boolean compress;
+
+    /**
+     * Constructs a RemoteLogCache.
+     *
+     * @param directory  the directory of the cache, which is created on the first download
+     * @param sizeBudget the maximal size of the cached bodies in bytes
+     * @param compress   whether new bodies are stored compressed with gzip
+     */
+    public RemoteLogCache(Path directory, long sizeBudget, boolean compress) {
+        this.directory = directory;
+        this.sizeBudget = sizeBudget;
+        this.compress = compress;
+    }
+
+    /**
+     * The metadata of a cached body.
+     *
+     * @param etag         The entity tag of the body, or {@code null}.
+     * @param lastModified The {@code Last-Modified} date of the body, or {@code null}.
+     * @param length       The length of the body as received.
+     * @param tail         The last {@value #TAIL_WINDOW} bytes of the body, or the whole body if it is shorter.
+     * @param compressed   Whether the body is stored compressed with gzip.
+     * @param storedSize   The size of the stored body, which detects interrupted writes.
+     */
+    private record Entry(String etag, String lastModified, long length, byte[] tail, boolean compressed,
+                         long storedSize) {
+    }
+
+    /**
+     * Brings the cached copy of the log up to date and returns it.
+     *
+     * @param client the client sending the requests
+     * @param uri    the URI of the log
+     * @return the cached body, which is read like any local log file
+     * @throws IOException if the log can't be downloaded or the cache can't be written
+     */
+    public LogFile fetch(HttpClient client, URI uri) throws IOException {
+        Files.createDirectories(directory);
+        String key = keyOf(uri);
+        Entry entry = load(key);
+        Entry updated = entry == null ? download(client, uri, key) : revalidate(client, uri, key, entry);
+        Files.setLastModifiedTime(metaPath(key), FileTime.from(Instant.now()));
+        evict(key);
+        return new LogFile(bodyPath(key, updated.compressed()), updated.storedSize());
+    }
+
+    /**
+     * Revalidates the cached body and downloads the appended tail, or the whole body if it has been replaced.
+     */
+    private Entry revalidate(HttpClient client, URI uri, String key, Entry entry) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).header("Accept-Encoding", IDENTITY);
+        if (entry.etag() != null) {
+            request.header("If-None-Match", entry.etag());
+        }
+        if (entry.lastModified() != null) {
+            request.header("If-Modified-Since", entry.lastModified());
+        }
+        if (entry.length() > 0) {
+            request.header("Range", "bytes=" + (entry.length() - entry.tail().length) + "-");
+        }
+        HttpResponse<InputStream> response = send(client, request.build());
+        try (InputStream body = response.body()) {
+            switch (response.statusCode()) {
+                case NOT_MODIFIED:
+                    log.debug("The cached copy of {} is up to date", uri);
+                    return entry;
+                case PARTIAL_CONTENT:
+                    if (isTailOf(response, body, entry)) {
+                        return appendTail(response, body, key, entry);
+                    }
+                    break;
+                case OK:
+                    return store(response, body, key);
+                default:
+                    break;
+            }
+        }
+        log.debug("The cached copy of {} has been replaced, downloading it again", uri);
+        return download(client, uri, key);
+    }
+
+    /**
+     * Checks whether the partial response continues the cached body, consuming the last bytes of the cached body
+     * it starts with.
+     */
+    private static boolean isTailOf(HttpResponse<InputStream> response, InputStream body, Entry entry)
+        throws IOException {
+        String contentRange = response.headers().firstValue("Content-Range").orElse("");
+        return contentRange.startsWith("bytes " + (entry.length() - entry.tail().length) + "-")
+            && Arrays.equals(body.readNBytes(entry.tail().length), entry.tail());
+    }
+
+    /**
+     * Downloads the whole body.
+     */
+    private Entry download(HttpClient client, URI uri, String key) throws IOException {
+        HttpResponse<InputStream> response = send(client, HttpRequest.newBuilder(uri)
+            .header("Accept-Encoding", IDENTITY).build());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != OK) {
+                throw new IOException("Unexpected response " + response.statusCode() + " to the request of " + uri);
+            }
+            return store(response, body, key);
+        }
+    }
+
+    /**
+     * Stores the whole body under a temporary name and then replaces the cached one.
+     */
+    private Entry store(HttpResponse<InputStream> response, InputStream body, String key) throws IOException {
+        Path temporary = Files.createTempFile(directory, key, ".tmp");
+        try {
+            Transfer transfer = new Transfer(new byte[0]);
+            try (OutputStream output = open(temporary, compress, false)) {
+                transfer.copy(body, output);
+            }
+            delete(key);
+            Path target = bodyPath(key, compress);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            Entry entry = new Entry(response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null), transfer.length, transfer.tail,
+                compress, Files.size(target));
+            save(key, entry);
+            return entry;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Appends the tail of the body to the cached one.
+     */
+    private Entry appendTail(HttpResponse<InputStream> response, InputStream body, String key, Entry entry)
+        throws IOException {
+        Path target = bodyPath(key, entry.compressed());
+        Transfer transfer = new Transfer(entry.tail());
+        try (OutputStream output = open(target, entry.compressed(), true)) {
+            transfer.copy(body, output);
+        }
+        Files.deleteIfExists(GzipIndex.sidecarOf(target));
+        Entry appended = new Entry(response.headers().firstValue("ETag").orElse(entry.etag()),
+            response.headers().firstValue("Last-Modified").orElse(entry.lastModified()),
+            entry.length() + transfer.length, transfer.tail, entry.compressed(), Files.size(target));
+        save(key, appended);
+        log.debug("Appended {} bytes to the cached copy of {}", transfer.length, response.uri());
+        return appended;
+    }
+
+    /**
+     * Evicts the least recently used entries until the cache fits into its size budget.
+     *
+     * @param keep the key of the entry which has just been used and is never evicted
+     */
+    private void evict(String keep) throws IOException {
+        List<Path> metas = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + META_EXTENSION)) {
+            stream.forEach(metas::add);
+        }
+        long total = 0;
+        for (Path meta : metas) {
+            total += sizeOf(keyOf(meta));
+        }
+        metas.sort(Comparator.comparing(RemoteLogCache::lastUsed));
+        for (int i = 0; i < metas.size() && total > sizeBudget; i++) {
+            String key = keyOf(metas.get(i));
+            if (!key.equals(keep)) {
+                total -= sizeOf(key);
+                delete(key);
+                log.debug("Evicted the cached body {}", key);
+            }
+        }
+    }
+
+    private Entry load(String key) {
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(metaPath(key))) {
+            properties.load(input);
+            boolean compressed = Boolean.parseBoolean(properties.getProperty("compressed"));
+            String tail = properties.getProperty("tail");
+            if (tail == null) {
+                return null;
+            }
+            Entry entry = new Entry(properties.getProperty("etag"), properties.getProperty("lastModified"),
+                Long.parseLong(properties.getProperty("length")), Base64.getDecoder().decode(tail),
+                compressed, Long.parseLong(properties.getProperty("storedSize")));
+            return Files.size(bodyPath(key, compressed)) == entry.storedSize() ? entry : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            log.warn("The cache entry {} can't be read", key, e);
+            return null;
+        }
+    }
+
+    private void save(String key, Entry entry) throws IOException {
+        Properties properties = new Properties();
+        if (entry.etag() != null) {
+            properties.setProperty("etag", entry.etag());
+        }
+        if (entry.lastModified() != null) {
+            properties.setProperty("lastModified", entry.lastModified());
+        }
+        properties.setProperty("length", Long.toString(entry.length()));
+        properties.setProperty("tail", Base64.getEncoder().encodeToString(entry.tail()));
+        properties.setProperty("compressed", Boolean.toString(entry.compressed()));
+        properties.setProperty("storedSize", Long.toString(entry.storedSize()));
+        Path temporary = Files.createTempFile(directory, key, ".tmp");
+        try {
+            try (OutputStream output = Files.newOutputStream(temporary)) {
+                properties.store(output, null);
+            }
+            Files.move(temporary, metaPath(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void delete(String key) throws IOException {
+        for (Path file : filesOf(key)) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private long sizeOf(String key) throws IOException {
+        long size = 0;
+        for (Path file : filesOf(key)) {
+            if (Files.exists(file)) {
+                size += Files.size(file);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the files of an entry: its metadata, its plain or compressed body and the indexes of the bodies.
+     */
+    private List<Path> filesOf(String key) {
+        return List.of(metaPath(key), bodyPath(key, false), bodyPath(key, true),
+            GzipIndex.sidecarOf(bodyPath(key, false)), GzipIndex.sidecarOf(bodyPath(key, true)));
+    }
+
+    private static FileTime lastUsed(Path meta) {
+        try {
+            return Files.getLastModifiedTime(meta);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static OutputStream open(Path file, boolean compressed, boolean append) throws IOException {
+        OutputStream output = append ? Files.newOutputStream(file, StandardOpenOption.APPEND)
+            : Files.newOutputStream(file);
+        return compressed ? new GZIPOutputStream(output, BUFFER_SIZE) : output;
+    }
+
+    private static HttpResponse<InputStream> send(HttpClient client, HttpRequest request) throws IOException {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while requesting " + request.uri());
+        }
+    }
+
+    private Path metaPath(String key) {
+        return directory.resolve(key + META_EXTENSION);
+    }
+
+    private Path bodyPath(String key, boolean compressed) {
+        return directory.resolve(key + (compressed ? COMPRESSED_BODY_EXTENSION : BODY_EXTENSION));
+    }
+
+    private static String keyOf(Path meta) {
+        String name = meta.getFileName().toString();
+        return name.substring(0, name.length() - META_EXTENSION.length());
+    }
+
+    private static String keyOf(URI uri) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(uri.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 isn't supported", e);
+        }
+    }
+
+    /**
+     * Copies a body while counting its bytes and remembering the last {@value #TAIL_WINDOW} ones.
+     */
+    private static final class Transfer {
+        private long length;
+        private byte[] tail;
+
+        Transfer(byte[] tail) {
+            this.tail = tail;
+        }
+
+        void copy(InputStream input, OutputStream output) throws IOException {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read = input.read(buffer);
+            while (read >= 0) {
+                if (read > 0) {
+                    output.write(buffer, 0, read);
+                    length += read;
+                    keepTail(buffer, read);
+                }
+                read = input.read(buffer);
+            }
+        }
+
+        private void keepTail(byte[] buffer, int read) {
+            byte[] updated = new byte[(int) Math.min(TAIL_WINDOW, (long) tail.length + read)];
+            int fromBuffer = Math.min(read, updated.length);
+            int fromTail = updated.length - fromBuffer;
+            System.arraycopy(tail, tail.length - fromTail, updated, 0, fromTail);
+            System.arraycopy(buffer, read - fromBuffer, updated, fromTail, fromBuffer);
+            tail = updated;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.channels.Channels;
+
+/**
+ * A byte range of a remote log, which is downloaded with HTTP {@code Range} requests and parsed while it arrives,
+ * independently of the other ranges of the log.
+ *
+ * <p>Like a {@link FileChunk}, the range owns the lines which start within it: the byte before the range is
+ * requested too, so the partial first line can be recognized and skipped, and the last line is read past the end
+ * of the range.
+ *
+ * @param client The client sending the requests.
+ * @param uri    The URI of the log.
+ * @param start  The offset of the first byte of the range.
+ * @param end    The offset right after the last byte of the range.
+ * @param length The length of the whole log.
+ */
+public record RemoteRange(HttpClient client, URI uri, long start, long end, long length) implements LineSource {
+    /**
+     * The number of bytes requested past the end of the range to complete its last line.
+     */
+    private static final long LAST_LINE_ALLOWANCE = 16 * 1024;
+
+    @Override
+    public long size() {
+        return end - start;
+    }
+
+    @Override
+    public void forEachRawLine(RawLineConsumer consumer) throws IOException {
+        long from = start == 0 ? 0 : start - 1;
+        try (InputStream input = new RangeInputStream(client, uri, from, end + LAST_LINE_ALLOWANCE, length)) {
+            long remaining = end - start;
+            if (start > 0) {
+                remaining -= LineBoundedInputStream.skipLine(input) - 1;
+            }
+            if (remaining <= 0) {
+                return;
+            }
+            new ByteLineReader(consumer).read(Channels.newChannel(new LineBoundedInputStream(input, remaining)));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package backend.academy.logAnalyzer.logs;
+
+import backend.academy.logAnalyzer.tokenizers.ByteSlice;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reduces the cardinality of requested resources: strips the query string and the fragment, and replaces
+ * identifiers in the path with placeholders. A path segment which is a UUID becomes {@code {uuid}}, and a number
+ * which isn't glued to letters becomes {@code {n}}, so {@code /downloads/product_1?v=2} is counted as
+ * {@code /downloads/product_{n}} while {@code /api/v2} stays intact.
+ *
+ * <p>Normalized forms are kept in a bounded cache keyed by the raw resource, so a repeated resource is looked up
+ * with the reusable slice of the current line and isn't scanned again. The normalizer is thread-safe.
+ */
+public final class ResourceNormalizer {
+    /**
+     * The default number of raw resources which normalized forms are cached.
+     */
+    public static final long DEFAULT_CACHE_SIZE = 100_000;
+
+    private static final String NUMBER = "{n}";
+    private static final String UUID = "{uuid}";
+    private static final int UUID_LENGTH = 36;
+    private static final int[] UUID_HYPHENS = {8, 13, 18, 23};
+
+    private final Cache<ByteSlice, ByteSlice> cache;
+
+    /**
+     * Constructs a ResourceNormalizer with the default cache size.
+     */
+    public ResourceNormalizer() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Constructs a ResourceNormalizer with the specified cache size.
+     *
+     * @param cacheSize the maximal number of cached resources
+     */
+    public ResourceNormalizer(long cacheSize) {
+        this.cache = Caffeine.newBuilder().maximumSize(cacheSize).build();
+    }
+
+    /**
+     * Normalizes the resource.
+     *
+     * @param resource the reusable slice holding the raw resource of the current log entry
+     * @return the immutable slice holding the normalized resource
+     */
+    public ByteSlice normalize(ByteSlice resource) {
+        ByteSlice normalized = cache.getIfPresent(resource);
+        if (normalized == null) {
+            byte[] bytes = normalizedForm(resource).getBytes(StandardCharsets.ISO_8859_1);
+            normalized = new ByteSlice().set(bytes, 0, bytes.length).copy();
+            cache.put(resource.copy(), normalized);
+        }
+        return normalized;
+    }
+
+    /**
+     * Builds the normalized form of the resource. Every byte of the resource is a char of the result.
+     */
+    private static String normalizedForm(CharSequence resource) {
+        int end = 0;
+        while (end < resource.length() && resource.charAt(end) != '?' && resource.charAt(end) != '#') {
+            end++;
+        }
+        StringBuilder result = new StringBuilder(end);
+        int position = 0;
+        while (position < end) {
+            char symbol = resource.charAt(position);
+            boolean segmentStart = position == 0 || resource.charAt(position - 1) == '/';
+            if (segmentStart && isUuid(resource, position, end)) {
+                result.append(UUID);
+                position += UUID_LENGTH;
+            } else if (isDigit(symbol)) {
+                int numberEnd = position;
+                while (numberEnd < end && isDigit(resource.charAt(numberEnd))) {
+                    numberEnd++;
+                }
+                boolean gluedBefore = position > 0 && isLetter(resource.charAt(position - 1));
+                boolean gluedAfter = numberEnd < end && isLetter(resource.charAt(numberEnd));
+                if (!gluedBefore && !gluedAfter) {
+                    result.append(NUMBER);
+                } else {
+                    result.append(resource, position, numberEnd);
+                }
+                position = numberEnd;
+            } else {
+                result.append(symbol);
+                position++;
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Checks whether the path segment starting at the position is a UUID ({@code 8-4-4-4-12} hex digits).
+     */
+    private static boolean isUuid(CharSequence resource, int from, int end) {
+        int to = from + UUID_LENGTH;
+        if (to > end || to < end && resource.charAt(to) != '/') {
+            return false;
+        }
+        int hyphen = 0;
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            char symbol = resource.charAt(from + i);
+            if (hyphen < UUID_HYPHENS.length && i == UUID_HYPHENS[hyphen]) {
+                hyphen++;
+                if (symbol != '-') {
+                    return false;
+                }
+            } else if (!isHexDigit(symbol)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char symbol) {
+        return symbol >= '0' && symbol <= '9';
+    }
+
+    private static boolean isHexDigit(char symbol) {
+        return isDigit(symbol) || symbol >= 'a' && symbol <= 'f' || symbol >= 'A' && symbol <= 'F';
+    }
+
+    private static boolean isLetter(char symbol) {
+        return symbol >= 'a' && symbol <= 'z' || symbol >= 'A' && symbol <= 'Z';
+    }
+}
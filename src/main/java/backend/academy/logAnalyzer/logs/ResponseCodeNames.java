@@ -9,36 +9,36 @@ import lombok.Getter;
     /**
      * Represents server error responses (5xx).
      */
-    SERVER_ERROR_RESPONSES("500"),
+    SERVER_ERROR_RESPONSES(500),
 
     /**
      * Represents client error responses (4xx).
      */
-    CLIENT_ERROR_RESPONSES("400"),
+    CLIENT_ERROR_RESPONSES(400),
 
     /**
      * Represents redirection responses (3xx).
      */
-    REDIRECT_RESPONSES("300"),
+    REDIRECT_RESPONSES(300),
 
     /**
      * Represents successful responses (2xx).
      */
-    SUCCESS_RESPONSES("200"),
+    SUCCESS_RESPONSES(200),
 
     /**
      * Represents informational responses (1xx).
      */
-    INFORMATIONAL_RESPONSES("100");
+    INFORMATIONAL_RESPONSES(100);
 
-    private final String responseCode;
+    private final int responseCode;
 
     /**
      * Constructs a ResponseCodeNames enum with the specified response code.
      *
      * @param responseCode the HTTP response code category.
      */
-    ResponseCodeNames(String responseCode) {
+    ResponseCodeNames(int responseCode) {
         this.responseCode = responseCode;
     }
 }
@@ -0,0 +1,233 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A log-linear histogram of response sizes in the layout of HdrHistogram, which answers any percentile within
+ * a relative error of {@code 10^-significantDigits} from a fixed number of counters.
+ *
+ * <p>The values are split into buckets of powers of two, and every bucket is split into the same number of linear
+ * sub-buckets, at least {@code 2 * 10^significantDigits}, so the width of a sub-bucket is never larger than
+ * the allowed error of its values. The values below the number of sub-buckets are counted exactly. Recording
+ * a value is a couple of shifts and an increment of a {@code long}, and histograms of the same precision are
+ * merged by adding their counters. The counters are allocated up to the bucket of the largest recorded value
+ * only, so the memory depends on the range of the sizes, about 8 KiB per power of two with three significant
+ * digits, and not on the number of recorded values.
+ *
+ * <p>The histogram isn't thread-safe: every worker records into its own instance, and the instances are merged
+ * once the workers are done.
+ */
+public final class ResponseSizeHistogram {
+    /**
+     * The default number of significant decimal digits of the recorded values.
+     */
+    public static final int DEFAULT_SIGNIFICANT_DIGITS = 3;
+
+    /**
+     * The maximal number of significant decimal digits of the recorded values.
+     */
+    public static final int MAX_SIGNIFICANT_DIGITS = 5;
+
+    private static final int DECIMAL_BASE = 10;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final int significantDigits;
+    private final int subBucketHalfCountMagnitude;
+    private final int subBucketHalfCount;
+    private final long subBucketMask;
+    private final int leadingZeroCountBase;
+    private long[] counts;
+    private long totalCount;
+    private long minValue = Long.MAX_VALUE;
+    private long maxValue;
+
+    /**
+     * Constructs an empty histogram.
+     *
+     * @param significantDigits the number of significant decimal digits of the recorded values, from 1 to
+     *                          {@value #MAX_SIGNIFICANT_DIGITS}
+     * @throws IllegalArgumentException if the number of digits is out of the bounds
+     */
+    public ResponseSizeHistogram(int significantDigits) {
+        if (significantDigits < 1 || significantDigits > MAX_SIGNIFICANT_DIGITS) {
+            throw new IllegalArgumentException("The number of significant digits must be from 1 to "
+                + MAX_SIGNIFICANT_DIGITS + ": " + significantDigits);
+        }
+        this.significantDigits = significantDigits;
+        long singleUnitResolution = 2 * (long) Math.pow(DECIMAL_BASE, significantDigits);
+        int subBucketCountMagnitude = Long.SIZE - Long.numberOfLeadingZeros(singleUnitResolution - 1);
+        this.subBucketHalfCountMagnitude = subBucketCountMagnitude - 1;
+        this.subBucketHalfCount = 1 << subBucketHalfCountMagnitude;
+        this.subBucketMask = (1L << subBucketCountMagnitude) - 1;
+        this.leadingZeroCountBase = Long.SIZE - subBucketCountMagnitude;
+        this.counts = new long[2 * subBucketHalfCount];
+    }
+
+    /**
+     * Returns the number of significant decimal digits of the recorded values.
+     *
+     * @return the number of digits
+     */
+    public int significantDigits() {
+        return significantDigits;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of values
+     */
+    public long count() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the smallest recorded value.
+     *
+     * @return the smallest value, or {@code 0} if the histogram is empty
+     */
+    public long min() {
+        return totalCount == 0 ? 0 : minValue;
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return the largest value, or {@code 0} if the histogram is empty
+     */
+    public long max() {
+        return maxValue;
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value the non-negative value
+     * @throws IllegalArgumentException if the value is negative
+     */
+    public void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("A negative value can't be recorded: " + value);
+        }
+        int index = countsIndex(value);
+        if (index >= counts.length) {
+            counts = Arrays.copyOf(counts, index + 1);
+        }
+        counts[index]++;
+        totalCount++;
+        minValue = Math.min(minValue, value);
+        maxValue = Math.max(maxValue, value);
+    }
+
+    /**
+     * Adds the values of another histogram to this one.
+     *
+     * @param other the histogram of the same precision
+     * @throws IllegalArgumentException if the histograms have different numbers of significant digits
+     */
+    public void merge(ResponseSizeHistogram other) {
+        if (other.significantDigits != significantDigits) {
+            throw new IllegalArgumentException("Histograms of " + significantDigits + " and "
+                + other.significantDigits + " significant digits can't be merged");
+        }
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        minValue = Math.min(minValue, other.minValue);
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+
+    /**
+     * Returns the value at the percentile by the nearest-rank method, which is the smallest recorded value
+     * such that at least the percentage of the values are less than or equal to it.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the highest value equivalent to the value at the percentile within the precision, but not larger
+     *     than the largest recorded value, or {@code 0} if the histogram is empty
+     */
+    public long valueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = rankOf(percentile, totalCount);
+        long seen = 0;
+        int index = 0;
+        while (seen + counts[index] < rank) {
+            seen += counts[index];
+            index++;
+        }
+        return Math.min(highestEquivalentValue(index), maxValue);
+    }
+
+    /**
+     * Returns the nearest rank of the percentile, computed in decimal so that percentiles like {@code 99.9}
+     * aren't shifted by the binary representation of the fraction.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @param count      the number of values
+     * @return the rank from 1 to the number of values
+     */
+    static long rankOf(double percentile, long count) {
+        long rank = BigDecimal.valueOf(percentile).multiply(BigDecimal.valueOf(count))
+            .divide(HUNDRED, 0, RoundingMode.CEILING).longValue();
+        return Math.clamp(rank, 1, count);
+    }
+
+    private int countsIndex(long value) {
+        int bucketIndex = leadingZeroCountBase - Long.numberOfLeadingZeros(value | subBucketMask);
+        int subBucketIndex = (int) (value >>> bucketIndex);
+        return ((bucketIndex + 1) << subBucketHalfCountMagnitude) + subBucketIndex - subBucketHalfCount;
+    }
+
+    private long highestEquivalentValue(int index) {
+        int bucketIndex = (index >> subBucketHalfCountMagnitude) - 1;
+        int subBucketIndex = (index & (subBucketHalfCount - 1)) + subBucketHalfCount;
+        if (bucketIndex < 0) {
+            subBucketIndex -= subBucketHalfCount;
+            bucketIndex = 0;
+        }
+        long lowestEquivalentValue = (long) subBucketIndex << bucketIndex;
+        return lowestEquivalentValue + (1L << bucketIndex) - 1;
+    }
+
+    /**
+     * Compares the recorded values of the histograms within their precision.
+     *
+     * @param o the other object
+     * @return whether the other object is a histogram of the same precision with the same counters
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ResponseSizeHistogram other) || other.significantDigits != significantDigits
+            || other.totalCount != totalCount) {
+            return false;
+        }
+        int length = Math.max(counts.length, other.counts.length);
+        return Arrays.equals(Arrays.copyOf(counts, length), Arrays.copyOf(other.counts, length));
+    }
+
+    @Override
+    public int hashCode() {
+        int length = counts.length;
+        while (length > 0 && counts[length - 1] == 0) {
+            length--;
+        }
+        return Objects.hash(significantDigits, Arrays.hashCode(Arrays.copyOf(counts, length)));
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseSizeHistogram[count=" + totalCount + ", min=" + min() + ", max=" + maxValue
+            + ", significantDigits=" + significantDigits + "]";
+    }
+}
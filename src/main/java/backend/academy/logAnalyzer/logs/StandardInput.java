@@ -0,0 +1,79 @@
+package backend.academy.logAnalyzer.logs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * A log piped into the standard input, like {@code zstdcat access.log.zst | analyzer --path -}, read line by line
+ * as raw bytes by {@link ByteLineReader}. The stream is read in blocks of at least 64 KiB, or in the blocks of
+ * the read-ahead stage on a background thread when it is enabled, and a gzip-compressed stream is decompressed
+ * on the fly by {@link Compression}.
+ *
+ * <p>The stream isn't closed after it has been read, because it is owned by the caller.
+ *
+ * @param input     The standard input.
+ * @param readAhead The read-ahead stage of the raw bytes of the stream.
+ */
+public record StandardInput(InputStream input, ReadAhead readAhead) implements LineSource {
+    /**
+     * The path which stands for the standard input.
+     */
+    public static final String PATH = "-";
+
+    /**
+     * The name of the standard input in reports.
+     */
+    public static final String NAME = "stdin";
+
+    /**
+     * Returns zero, because the size of a stream is unknown until it has been read.
+     *
+     * @return zero
+     */
+    @Override
+    public long size() {
+        return 0;
+    }
+
+    @Override
+    public void forEachRawLine(RawLineConsumer consumer) throws IOException {
+        try (ReadableByteChannel channel = Channels.newChannel(Compression.decompressIfGzip(
+            readAhead.wrap(new UnclosableInputStream(input), "stdin-read-ahead"), readAhead))) {
+            new ByteLineReader(consumer).read(channel);
+        }
+    }
+
+    /**
+     * A view of a stream which ignores {@link #close()}, so the decompressing and the read-ahead streams can be
+     * closed without closing the standard input.
+     */
+    private static final class UnclosableInputStream extends InputStream {
+        private final InputStream input;
+
+        UnclosableInputStream(InputStream input) {
+            this.input = input;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return input.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            return input.read(buffer, offset, length);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return input.available();
+        }
+
+        @Override
+        public void close() {
+            // the standard input is owned by the caller
+        }
+    }
+}
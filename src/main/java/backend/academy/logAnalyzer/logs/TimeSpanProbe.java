@@ -0,0 +1,294 @@
+package backend.academy.logAnalyzer.logs;
+
+import backend.academy.logAnalyzer.filters.LogFilter;
+import backend.academy.logAnalyzer.parsers.TimestampDecoder;
+import backend.academy.logAnalyzer.tokenizers.ByteSlice;
+import backend.academy.logAnalyzer.tokenizers.LogTokenizer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Locates the entries of a log file within the time range of the filter by the timestamps of a few parts of the file
+ * only.
+ *
+ * <p>Log files are written in the order of time, so a file whose first entries are later than the range, or
+ * whose last entries are earlier than it, has no entry within the range. The earliest timestamp of the first
+ * {@value #WINDOW_SIZE} bytes and the latest one of the last {@value #WINDOW_SIZE} bytes are compared with
+ * the range widened by {@value #TOLERANCE_SECONDS} seconds, because nginx logs a request when it completes with
+ * the time it started, so neighbouring entries can be slightly out of order. The head of a gzip file is read from
+ * the start of its decompressed data, and its tail from the last checkpoint of its {@link GzipIndex index}; a gzip
+ * file without an index is only checked by its head. A file without a parsable timestamp in a window can always
+ * contain entries within the range.
+ *
+ * <p>A large plain file is also narrowed to the lines within the range by two binary searches over its byte
+ * offsets: a probe at an offset reads the first line with a parsable timestamp starting at or after it, so
+ * the file is read from the line following the last line earlier than the range, up to the first line after
+ * the last line within it, both with the same tolerance. Offsets followed by no parsable line are taken as
+ * within the range, so unparsable parts of a file are always read. At most {@code 2 * log2(size)} probes, each
+ * reading a couple of {@value #PROBE_SIZE} bytes windows, replace reading the whole file.
+ *
+ * <p>An instance keeps the state of the current file and must be used by a single thread only.
+ */
+final class TimeSpanProbe {
+    /**
+     * The number of seconds by which entries can be out of the order of time.
+     */
+    static final long TOLERANCE_SECONDS = 300;
+
+    private static final int WINDOW_SIZE = 64 * 1024;
+    private static final int PROBE_SIZE = 16 * 1024;
+    private static final long SEEK_THRESHOLD = 4L * WINDOW_SIZE;
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final byte LINE_FEED = '\n';
+
+    private final LogTokenizer tokenizer;
+    private final LogFilter filter;
+    private final TimestampDecoder timestampDecoder = new TimestampDecoder();
+    private final ByteSlice timestamp = new ByteSlice();
+    private final ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+    private final byte[] line = new byte[PROBE_SIZE];
+    private long earliest;
+    private long latest;
+    private long probedSecond;
+
+    /**
+     * Constructs a TimeSpanProbe.
+     *
+     * @param tokenizer the tokenizer locating the timestamps of the lines of the probed files
+     * @param filter    the filters of the analysis
+     */
+    TimeSpanProbe(LogTokenizer tokenizer, LogFilter filter) {
+        this.tokenizer = tokenizer;
+        this.filter = filter;
+    }
+
+    /**
+     * Checks whether the file can contain entries within the time range of the filter.
+     *
+     * @param file the log file
+     * @return {@code false} if all entries of the file are outside the time range
+     * @throws IOException if the file can't be read
+     */
+    boolean mayOverlap(LogFile file) throws IOException {
+        boolean gzip = Compression.isGzip(file.file());
+        reset();
+        readHead(file.file(), gzip);
+        if (earliest == Long.MAX_VALUE) {
+            return true;
+        }
+        if (earliest - TOLERANCE_SECONDS > filter.toEpochSecond()) {
+            return false;
+        }
+        reset();
+        readTail(file.file(), gzip);
+        return latest == Long.MIN_VALUE || latest + TOLERANCE_SECONDS >= filter.fromEpochSecond();
+    }
+
+    /**
+     * Narrows a plain file to the lines within the time range.
+     *
+     * @param file the plain log file
+     * @return the range of the file holding the lines within the time range, or {@code null} if the whole file
+     *     has to be read
+     * @throws IOException if the file can't be read
+     */
+    FileChunk seek(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < SEEK_THRESHOLD) {
+                return null;
+            }
+            long start = filter.fromEpochSecond() == Long.MIN_VALUE ? 0
+                : firstLineAtOrAfter(channel, filter.fromEpochSecond() - TOLERANCE_SECONDS, 0, size, true);
+            long end = filter.toEpochSecond() == Long.MAX_VALUE ? size
+                : firstLineAtOrAfter(channel, filter.toEpochSecond() + TOLERANCE_SECONDS + 1, start, size, false);
+            return start == 0 && end == size ? null : new FileChunk(file, start, end);
+        }
+    }
+
+    /**
+     * Binary searches the range for the first line whose timestamp is at or after the bound, which is the line
+     * following the last parsable line earlier than the bound. The search looks for the smallest position whose
+     * next parsable line is at or after the bound; a position followed by no parsable line within the range is
+     * unknown, and is taken as the side which widens the range read from the file.
+     *
+     * @param from             the start of the range, which is the start of a line
+     * @param to               the end of the range, which is the start of a line or the end of the file
+     * @param unknownAtOrAfter whether an unknown position is taken as at or after the bound, which moves
+     *                         the result towards the start of the range
+     * @return the start of the line, or the end of the range
+     */
+    private long firstLineAtOrAfter(FileChannel channel, long bound, long from, long to, boolean unknownAtOrAfter)
+        throws IOException {
+        long low = from;
+        long high = to;
+        while (low < high) {
+            long middle = low + (high - low) / 2;
+            long lineStart = probeLine(channel, middle, to);
+            if (lineStart < 0 ? unknownAtOrAfter : probedSecond >= bound) {
+                high = middle;
+            } else {
+                low = lineStart < 0 ? middle + 1 : lineStart + 1;
+            }
+        }
+        return lineStartAtOrAfter(channel, low, to);
+    }
+
+    /**
+     * Reads the timestamp of the first line with a parsable timestamp which starts at or after the position into
+     * {@code probedSecond}. A line longer than a probe is skipped.
+     *
+     * @param position the position in the file
+     * @param limit    the offset the line must start before
+     * @return the start of the line, or {@code -1} if there is no such line
+     */
+    private long probeLine(FileChannel channel, long position, long limit) throws IOException {
+        long lineStart = lineStartAtOrAfter(channel, position, limit);
+        while (lineStart < limit) {
+            int read = readProbe(channel, lineStart);
+            int lineFeed = indexOf(LINE_FEED, 0, read);
+            if (lineFeed < 0 && read == PROBE_SIZE) {
+                lineStart = lineStartAtOrAfter(channel, lineStart + 1, limit);
+                continue;
+            }
+            int lineEnd = lineFeed < 0 ? read : lineFeed;
+            if (lineEnd > 0 && probe.get(lineEnd - 1) == CARRIAGE_RETURN) {
+                lineEnd--;
+            }
+            probe.get(0, line, 0, lineEnd);
+            reset();
+            accept(line, lineEnd);
+            if (latest != Long.MIN_VALUE) {
+                probedSecond = latest;
+                return lineStart;
+            }
+            lineStart = lineFeed < 0 ? limit : lineStart + lineFeed + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the first line which starts at or after the position: the position itself if it follows a line
+     * feed, otherwise the position after the next line feed.
+     *
+     * @param position the position in the file
+     * @param limit    the offset the line must start before
+     * @return the start of the line, or the limit if no line starts before it
+     */
+    private long lineStartAtOrAfter(FileChannel channel, long position, long limit) throws IOException {
+        if (position == 0) {
+            return 0;
+        }
+        long offset = position - 1;
+        while (offset < limit) {
+            int read = readProbe(channel, offset);
+            int lineFeed = indexOf(LINE_FEED, 0, read);
+            if (lineFeed >= 0) {
+                return Math.min(offset + lineFeed + 1, limit);
+            }
+            offset = read == 0 ? limit : offset + read;
+        }
+        return limit;
+    }
+
+    /**
+     * Reads the bytes of the file from the position into the probe buffer.
+     *
+     * @return the number of read bytes, less than the size of the probe only at the end of the file
+     */
+    private int readProbe(FileChannel channel, long position) throws IOException {
+        probe.clear();
+        int read = 0;
+        while (probe.hasRemaining() && read >= 0) {
+            read = channel.read(probe, position + probe.position());
+        }
+        return probe.position();
+    }
+
+    private int indexOf(byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (probe.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void reset() {
+        earliest = Long.MAX_VALUE;
+        latest = Long.MIN_VALUE;
+    }
+
+    /**
+     * Reads the complete lines of the first bytes of the data of the file.
+     */
+    private void readHead(Path file, boolean gzip) throws IOException {
+        try (InputStream input = gzip ? new GZIPInputStream(Files.newInputStream(file))
+            : Files.newInputStream(file)) {
+            byte[] head = input.readNBytes(WINDOW_SIZE);
+            int end = head.length < WINDOW_SIZE ? head.length : lastLineFeed(head) + 1;
+            new ByteLineReader(this::accept).read(ByteBuffer.wrap(head, 0, end));
+        }
+    }
+
+    /**
+     * Reads the complete lines of the last bytes of a plain file, or the lines after the last checkpoint of
+     * the index of a gzip file.
+     */
+    private void readTail(Path file, boolean gzip) throws IOException {
+        if (gzip) {
+            GzipIndex index = GzipIndex.load(file);
+            if (index != null) {
+                List<LineSource> chunks = index.chunks();
+                chunks.getLast().forEachRawLine(this::accept);
+            }
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long start = Math.max(0, channel.size() - WINDOW_SIZE);
+            ByteBuffer tail = ByteBuffer.allocate((int) (channel.size() - start));
+            int read = 0;
+            while (tail.hasRemaining() && read >= 0) {
+                read = channel.read(tail, start + tail.position());
+            }
+            tail.flip();
+            if (start > 0) {
+                int firstLineFeed = 0;
+                while (firstLineFeed < tail.limit() && tail.get(firstLineFeed) != LINE_FEED) {
+                    firstLineFeed++;
+                }
+                tail.position(Math.min(firstLineFeed + 1, tail.limit()));
+            }
+            new ByteLineReader(this::accept).read(tail);
+        }
+    }
+
+    private void accept(byte[] line, int length) {
+        if (!tokenizer.tokenizeTimestamp(line, length)) {
+            return;
+        }
+        try {
+            long epochSecond = timestampDecoder.decode(tokenizer.slice(LogParams.TIMESTAMP, timestamp));
+            earliest = Math.min(earliest, epochSecond);
+            latest = Math.max(latest, epochSecond);
+        } catch (DateTimeParseException e) {
+            // a malformed timestamp tells nothing about the time span
+        }
+    }
+
+    private static int lastLineFeed(byte[] data) {
+        int position = data.length - 1;
+        while (position >= 0 && data[position] != LINE_FEED) {
+            position--;
+        }
+        return position;
+    }
+}
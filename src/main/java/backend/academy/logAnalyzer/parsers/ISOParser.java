@@ -5,12 +5,14 @@ import java.time.LocalDateTime;
 import java.time.MonthDay;
 import java.time.OffsetDateTime;
 import java.time.Year;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 
 /**
  * Parses ISO8601 formatted date strings into LocalDateTime objects.
+ * Date-times with an offset are converted to UTC.
  */
 public class ISOParser {
     private static final String DATE_TIME_WITH_ZONE = "\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}([+-]\\d{2}:\\d{2}|Z)";
@@ -49,7 +51,8 @@ public class ISOParser {
             if (isoDate.endsWith("Z")) {
                 return ZonedDateTime.parse(isoDate, DateTimeFormatter.ISO_ZONED_DATE_TIME).toLocalDateTime();
             } else {
-                return OffsetDateTime.parse(isoDate, DateTimeFormatter.ISO_OFFSET_DATE_TIME).toLocalDateTime();
+                return OffsetDateTime.parse(isoDate, DateTimeFormatter.ISO_OFFSET_DATE_TIME)
+                    .withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
             }
         } catch (DateTimeParseException ignored) {
             return null;
@@ -2,17 +2,30 @@ package backend.academy.logAnalyzer.parsers;
 
 import backend.academy.logAnalyzer.exceptions.CorruptedInputStringException;
 import backend.academy.logAnalyzer.exceptions.EmptyInputStringException;
-import java.io.BufferedReader;
+import backend.academy.logAnalyzer.logs.AnalyzerOptions;
+import backend.academy.logAnalyzer.logs.PercentileMode;
+import backend.academy.logAnalyzer.logs.ReadAhead;
+import backend.academy.logAnalyzer.logs.ReadMode;
+import backend.academy.logAnalyzer.logs.RejectPolicy;
+import backend.academy.logAnalyzer.logs.RemoteLogCache;
+import backend.academy.logAnalyzer.logs.ResponseSizeHistogram;
+import backend.academy.logAnalyzer.logs.StandardInput;
+import backend.academy.logAnalyzer.tokenizers.LogFormat;
+import backend.academy.logAnalyzer.tokenizers.TokenizerType;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.PrintStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -22,14 +35,43 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j public class InputParser {
     private static final String AGENT_FILTER = "agent";
+    private static final String RAW_RESOURCES = "raw";
+    private static final String NORMALIZED_RESOURCES = "normalized";
+    private static final String SWITCH_ON = "on";
+    private static final String SWITCH_OFF = "off";
+    private static final String QUOTE = "\"";
+    private static final int KIBIBYTE = 1024;
+    private static final long MEBIBYTE = 1024L * 1024;
+    private static final int LINE_FEED = '\n';
+    private static final int END_OF_STREAM = -1;
+    private static final double HUNDRED_PERCENT = 100;
     @Getter private String path;
     @Getter private LocalDateTime from;
     @Getter private LocalDateTime to;
     @Getter private String format;
     @Getter private String agentValue;
+    @Getter private TokenizerType tokenizerType;
+    @Getter private LogFormat logFormat;
+    @Getter private boolean normalizeResources;
+    @Getter private RejectPolicy rejectPolicy;
+    @Getter private ReadMode readMode;
+    @Getter private int threads;
+    @Getter private boolean gzipIndex;
+    @Getter private int readAheadDepth;
+    @Getter private int readAheadBlockSize;
+    @Getter private int connections;
+    @Getter private Path cacheDirectory;
+    @Getter private long cacheSizeBudget;
+    @Getter private boolean compressCache;
+    @Getter private Path listingCache;
+    @Getter private boolean probeTimeSpans;
+    @Getter private int histogramDigits;
+    @Getter private List<Double> percentiles;
+    @Getter private PercentileMode percentileMode;
+    @Getter private long exactMemoryBudget;
     private boolean agentFilter;
     private final PrintStream output;
-    private final BufferedReader reader;
+    private final InputStream input;
 
     /**
      * Constructs an InputParser with the specified output and input streams.
@@ -39,8 +81,20 @@ import lombok.extern.slf4j.Slf4j;
      */
     public InputParser(PrintStream output, InputStream input) {
         this.agentFilter = false;
+        this.tokenizerType = TokenizerType.COMBINED;
+        this.rejectPolicy = RejectPolicy.DEFAULT;
+        this.readMode = ReadMode.LINES;
+        this.threads = Runtime.getRuntime().availableProcessors();
+        this.readAheadBlockSize = ReadAhead.DEFAULT_BLOCK_SIZE;
+        this.connections = AnalyzerOptions.DEFAULT_CONNECTIONS;
+        this.cacheSizeBudget = RemoteLogCache.DEFAULT_SIZE_BUDGET;
+        this.probeTimeSpans = false;
+        this.histogramDigits = ResponseSizeHistogram.DEFAULT_SIGNIFICANT_DIGITS;
+        this.percentiles = AnalyzerOptions.DEFAULT_PERCENTILES;
+        this.percentileMode = PercentileMode.HISTOGRAM;
+        this.exactMemoryBudget = AnalyzerOptions.DEFAULT_EXACT_MEMORY_BUDGET;
         this.output = output;
-        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.input = input;
     }
 
     /**
@@ -69,6 +123,79 @@ import lombok.extern.slf4j.Slf4j;
                 case "--format":
                     this.format = args[++pointer];
                     break;
+                case "--tokenizer":
+                    this.tokenizerType = parseTokenizerType(args[++pointer]);
+                    break;
+                case "--log-format":
+                    StringBuilder directive = new StringBuilder(args[++pointer]);
+                    while (pointer < args.length - 1 && !args[pointer + 1].startsWith("--")) {
+                        directive.append(" ").append(args[++pointer]);
+                    }
+                    this.logFormat = parseLogFormat(directive.toString());
+                    break;
+                case "--resources":
+                    this.normalizeResources = parseResourcesMode(args[++pointer]);
+                    break;
+                case "--read":
+                    this.readMode = parseReadMode(args[++pointer]);
+                    break;
+                case "--threads":
+                    this.threads = parseNumber(args[++pointer], 1, Integer.MAX_VALUE, threads,
+                        "The number of threads must be a positive integer!");
+                    break;
+                case "--read-ahead":
+                    this.readAheadDepth = parseNumber(args[++pointer], 0, Integer.MAX_VALUE, readAheadDepth,
+                        "The number of blocks read ahead must be a non-negative integer!");
+                    break;
+                case "--read-ahead-block":
+                    this.readAheadBlockSize = parseNumber(args[++pointer], 1, Integer.MAX_VALUE / KIBIBYTE,
+                        readAheadBlockSize / KIBIBYTE, "The size of a block must be a positive number of KiB!")
+                        * KIBIBYTE;
+                    break;
+                case "--connections":
+                    this.connections = parseNumber(args[++pointer], 1, Integer.MAX_VALUE, connections,
+                        "The number of connections must be a positive integer!");
+                    break;
+                case "--cache-dir":
+                    this.cacheDirectory = parseLocalPath(args[++pointer], cacheDirectory);
+                    break;
+                case "--walk-cache":
+                    this.listingCache = parseLocalPath(args[++pointer], listingCache);
+                    break;
+                case "--cache-size":
+                    this.cacheSizeBudget = parseNumber(args[++pointer], 1, Integer.MAX_VALUE,
+                        (int) (cacheSizeBudget / MEBIBYTE), "The size of the cache must be a positive number of MiB!")
+                        * MEBIBYTE;
+                    break;
+                case "--cache-compress":
+                    this.compressCache = parseSwitch(args[++pointer], compressCache);
+                    break;
+                case "--time-probe":
+                    this.probeTimeSpans = parseSwitch(args[++pointer], probeTimeSpans);
+                    break;
+                case "--histogram-digits":
+                    this.histogramDigits = parseNumber(args[++pointer], 1,
+                        ResponseSizeHistogram.MAX_SIGNIFICANT_DIGITS, histogramDigits,
+                        "The number of significant digits must be from 1 to "
+                            + ResponseSizeHistogram.MAX_SIGNIFICANT_DIGITS + "!");
+                    break;
+                case "--percentiles":
+                    this.percentiles = parsePercentiles(args[++pointer]);
+                    break;
+                case "--percentile-mode":
+                    this.percentileMode = parsePercentileMode(args[++pointer]);
+                    break;
+                case "--exact-memory":
+                    this.exactMemoryBudget = parseNumber(args[++pointer], 1, Integer.MAX_VALUE,
+                        (int) (exactMemoryBudget / MEBIBYTE), "The memory budget must be a positive number of MiB!")
+                        * MEBIBYTE;
+                    break;
+                case "--gzip-index":
+                    this.gzipIndex = parseSwitch(args[++pointer], gzipIndex);
+                    break;
+                case "--max-malformed":
+                    this.rejectPolicy = parseRejectPolicy(args[++pointer]);
+                    break;
                 case "--filter-field":
                     if (AGENT_FILTER.equals(args[++pointer])) {
                         agentFilter = true;
@@ -79,11 +206,11 @@ import lombok.extern.slf4j.Slf4j;
                     break;
                 case "--filter-value":
                     if (agentFilter) {
-                        StringBuilder filteredString = new StringBuilder(args[++pointer].substring(1));
+                        StringBuilder filteredString = new StringBuilder(args[++pointer]);
                         while (pointer < args.length - 1 && !args[++pointer].startsWith("--")) {
                             filteredString.append(" ").append(args[pointer]);
                         }
-                        this.agentValue = filteredString.substring(0, filteredString.length() - 1);
+                        this.agentValue = unquote(filteredString.toString());
                     } else {
                         pointer++;
                     }
@@ -98,10 +225,13 @@ import lombok.extern.slf4j.Slf4j;
      * Parses and validates the provided path argument.
      *
      * @param arg the path argument to be parsed.
-     * @return the validated path string.
+     * @return the validated path string, or {@code -} which stands for the standard input.
      * @throws InvalidPathException if the path has invalid symbols.
      */
     private String parsePath(String arg) {
+        if (StandardInput.PATH.equals(arg)) {
+            return arg;
+        }
         try {
             new URI(arg).toURL();
             return arg;
@@ -117,6 +247,227 @@ import lombok.extern.slf4j.Slf4j;
         }
     }
 
+    /**
+     * Strips the quotes around a value typed into the standard input. The shell has already removed them from
+     * command line arguments, so each end is stripped only if it is a quote.
+     *
+     * @param value the value to be unquoted.
+     * @return the value without the surrounding quotes.
+     */
+    private static String unquote(String value) {
+        int start = value.startsWith(QUOTE) ? 1 : 0;
+        int end = value.length() > start && value.endsWith(QUOTE) ? value.length() - 1 : value.length();
+        return value.substring(start, end);
+    }
+
+    /**
+     * Parses the name of the log line tokenizer.
+     *
+     * @param arg the tokenizer name argument to be parsed.
+     * @return the requested tokenizer type, or the current one if such a tokenizer doesn't exist.
+     */
+    private TokenizerType parseTokenizerType(String arg) {
+        try {
+            return TokenizerType.valueOf(arg.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            output.println("Such a tokenizer doesn't exist!");
+            return tokenizerType;
+        }
+    }
+
+    /**
+     * Parses the mode of counting requested resources.
+     *
+     * @param arg the mode argument to be parsed, either "raw" or "normalized".
+     * @return whether resources are normalized, or the current setting if such a mode doesn't exist.
+     */
+    private boolean parseResourcesMode(String arg) {
+        return switch (arg) {
+            case RAW_RESOURCES -> false;
+            case NORMALIZED_RESOURCES -> true;
+            default -> {
+                output.println("Such a resources mode doesn't exist!");
+                yield normalizeResources;
+            }
+        };
+    }
+
+    /**
+     * Parses the way local log files are read.
+     *
+     * @param arg the read mode argument to be parsed, either "lines" or "mapped".
+     * @return the requested read mode, or the current one if such a mode doesn't exist.
+     */
+    private ReadMode parseReadMode(String arg) {
+        try {
+            return ReadMode.valueOf(arg.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            output.println("Such a read mode doesn't exist!");
+            return readMode;
+        }
+    }
+
+    /**
+     * Parses the way percentiles of response sizes are computed.
+     *
+     * @param arg the percentile mode argument to be parsed, either "histogram" or "exact".
+     * @return the requested percentile mode, or the current one if such a mode doesn't exist.
+     */
+    private PercentileMode parsePercentileMode(String arg) {
+        try {
+            return PercentileMode.valueOf(arg.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            output.println("Such a percentile mode doesn't exist!");
+            return percentileMode;
+        }
+    }
+
+    /**
+     * Parses an integer setting such as the number of workers parsing local log files.
+     *
+     * @param arg     the number to be parsed.
+     * @param minimum the minimal valid value of the setting.
+     * @param maximum the maximal valid value of the setting.
+     * @param current the current value of the setting.
+     * @param error   the message printed if the argument isn't a valid value.
+     * @return the parsed number, or the current one if the argument isn't an integer within the bounds.
+     */
+    private int parseNumber(String arg, int minimum, int maximum, int current, String error) {
+        int number;
+        try {
+            number = Integer.parseInt(arg);
+        } catch (NumberFormatException e) {
+            number = Integer.MIN_VALUE;
+        }
+        if (number >= minimum && number <= maximum) {
+            return number;
+        }
+        output.println(error);
+        return current;
+    }
+
+    /**
+     * Parses the path of a local file or directory.
+     *
+     * @param arg     the path to be parsed.
+     * @param current the current value of the path.
+     * @return the path, or the current value if the argument isn't a valid path.
+     */
+    private Path parseLocalPath(String arg, Path current) {
+        try {
+            return Path.of(arg);
+        } catch (InvalidPathException e) {
+            output.println("Such a local path is invalid!");
+            return current;
+        }
+    }
+
+    /**
+     * Parses an on/off switch.
+     *
+     * @param arg     the switch argument to be parsed, either "on" or "off".
+     * @param current the current value of the switch.
+     * @return whether the switch is on, or the current value if the argument is neither "on" nor "off".
+     */
+    private boolean parseSwitch(String arg, boolean current) {
+        return switch (arg) {
+            case SWITCH_ON -> true;
+            case SWITCH_OFF -> false;
+            default -> {
+                output.println("Such a switch value doesn't exist, use on or off!");
+                yield current;
+            }
+        };
+    }
+
+    /**
+     * Parses the maximal ratio of malformed lines among the first lines of a source.
+     *
+     * @param arg the ratio argument to be parsed, a number from 0 to 1.
+     * @return the reject policy with the ratio, or the current one if the ratio is invalid.
+     */
+    private RejectPolicy parseRejectPolicy(String arg) {
+        double ratio;
+        try {
+            ratio = Double.parseDouble(arg);
+        } catch (NumberFormatException e) {
+            ratio = Double.NaN;
+        }
+        if (ratio >= 0 && ratio <= 1) {
+            return new RejectPolicy(RejectPolicy.DEFAULT_CHECKED_LINES, ratio);
+        }
+        output.println("The ratio of malformed lines must be a number from 0 to 1!");
+        return rejectPolicy;
+    }
+
+    /**
+     * Parses a comma-separated list of percentiles.
+     *
+     * @param arg the list to be parsed, such as {@code 50,90,99.9}.
+     * @return the percentiles, or the current ones if any of them isn't a number from 0 to 100.
+     */
+    private List<Double> parsePercentiles(String arg) {
+        List<Double> parsed = new ArrayList<>();
+        for (String value : arg.split(",")) {
+            double percentile;
+            try {
+                percentile = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                percentile = Double.NaN;
+            }
+            if (!(percentile >= 0 && percentile <= HUNDRED_PERCENT)) {
+                output.println("The percentiles must be comma-separated numbers from 0 to 100!");
+                return percentiles;
+            }
+            parsed.add(percentile);
+        }
+        return List.copyOf(parsed);
+    }
+
+    /**
+     * Builds the settings of the analysis from the parsed parameters.
+     *
+     * @return the settings of the log analyzer.
+     */
+    public AnalyzerOptions analyzerOptions() {
+        return AnalyzerOptions.builder()
+            .tokenizerType(tokenizerType)
+            .logFormat(logFormat)
+            .normalizeResources(normalizeResources)
+            .rejectPolicy(rejectPolicy)
+            .readMode(readMode)
+            .threads(threads)
+            .gzipIndex(gzipIndex)
+            .readAheadDepth(readAheadDepth)
+            .readAheadBlockSize(readAheadBlockSize)
+            .connections(connections)
+            .cacheDirectory(cacheDirectory)
+            .cacheSizeBudget(cacheSizeBudget)
+            .compressCache(compressCache)
+            .listingCache(listingCache)
+            .probeTimeSpans(probeTimeSpans)
+            .histogramDigits(histogramDigits)
+            .percentiles(percentiles)
+            .percentileMode(percentileMode)
+            .exactMemoryBudget(exactMemoryBudget)
+            .build();
+    }
+
+    /**
+     * Parses the nginx {@code log_format} directive.
+     *
+     * @param arg the directive or the format string to be parsed.
+     * @return the parsed log format, or the current one if the directive is malformed.
+     */
+    private LogFormat parseLogFormat(String arg) {
+        try {
+            return LogFormat.parse(arg);
+        } catch (IllegalArgumentException e) {
+            output.println("Such a log format can't be parsed: " + e.getMessage());
+            return logFormat;
+        }
+    }
+
     /**
      * Checks if the provided path or pattern is valid.
      *
@@ -132,14 +483,24 @@ import lombok.extern.slf4j.Slf4j;
     }
 
     /**
-     * Reads an input string from the input stream.
+     * Reads an input string from the input stream. The stream is read up to the end of the line only, so the rest
+     * of it can be analyzed as a log with {@code --path -}.
      *
-     * @return the input string.
+     * @return the input string, or {@code null} if the stream has ended.
      * @throws CorruptedInputStringException if the input string has been corrupted.
      */
     public String readInputString() {
         try {
-            return reader.readLine();
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int symbol = input.read();
+            if (symbol == END_OF_STREAM) {
+                return null;
+            }
+            while (symbol != END_OF_STREAM && symbol != LINE_FEED) {
+                line.write(symbol);
+                symbol = input.read();
+            }
+            return line.toString(StandardCharsets.UTF_8).stripTrailing();
         } catch (IOException e) {
             CorruptedInputStringException corruptedInputStringException =
                 new CorruptedInputStringException("input string has been corrupted");
@@ -0,0 +1,146 @@
+package backend.academy.logAnalyzer.parsers;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Decodes nginx {@code $time_local} timestamps ({@code dd/MMM/yyyy:HH:mm:ss Z}) into epoch seconds.
+ *
+ * <p>Consecutive log lines almost always share the same timestamp, so the decoder remembers the last few
+ * distinct timestamps and their values. Cache misses of the standard fixed-width layout are decoded with plain
+ * arithmetic, anything else goes through {@link DateTimeFormatter}. The offset of the timestamp is taken into
+ * account, so the result is the same instant regardless of the time zone the log was written in.
+ *
+ * <p>An instance keeps a mutable cache and must not be shared between threads.
+ */
+public class TimestampDecoder {
+    private static final DateTimeFormatter LOG_DATE_FORMATTER =
+        DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
+    private static final String MONTHS = "JanFebMarAprMayJunJulAugSepOctNovDec";
+    private static final int CACHE_SIZE = 4;
+    private static final int TIMESTAMP_LENGTH = 26;
+    private static final int MONTH_LENGTH = 3;
+    private static final int MONTH_POSITION = 3;
+    private static final int YEAR_POSITION = 7;
+    private static final int YEAR_LENGTH = 4;
+    private static final int HOUR_POSITION = 12;
+    private static final int MINUTE_POSITION = 15;
+    private static final int SECOND_POSITION = 18;
+    private static final int OFFSET_SIGN_POSITION = 21;
+    private static final int OFFSET_HOUR_POSITION = 22;
+    private static final int OFFSET_MINUTE_POSITION = 24;
+    private static final int MAX_HOUR = 23;
+    private static final int MAX_MINUTE = 59;
+    private static final int MAX_OFFSET_HOUR = 18;
+    private static final int SECONDS_PER_MINUTE = 60;
+    private static final int SECONDS_PER_HOUR = 3600;
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final int DECIMAL_BASE = 10;
+    private static final String SEPARATORS = "//:::";
+    private static final int[] SEPARATOR_POSITIONS = {2, 6, 11, 14, 17};
+
+    private final String[] cachedTimestamps = new String[CACHE_SIZE];
+    private final long[] cachedSeconds = new long[CACHE_SIZE];
+    private int nextCacheSlot;
+
+    /**
+     * Decodes the timestamp into seconds since the epoch.
+     *
+     * @param timestamp the timestamp in the {@code dd/MMM/yyyy:HH:mm:ss Z} format
+     * @return the number of seconds since 1970-01-01T00:00:00Z
+     * @throws DateTimeParseException if the timestamp can't be parsed
+     */
+    public long decode(CharSequence timestamp) {
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            String cached = cachedTimestamps[i];
+            if (cached != null && cached.contentEquals(timestamp)) {
+                return cachedSeconds[i];
+            }
+        }
+        long seconds = decodeUncached(timestamp);
+        cachedTimestamps[nextCacheSlot] = timestamp.toString();
+        cachedSeconds[nextCacheSlot] = seconds;
+        nextCacheSlot = (nextCacheSlot + 1) % CACHE_SIZE;
+        return seconds;
+    }
+
+    private static long decodeUncached(CharSequence timestamp) {
+        int month = hasStandardLayout(timestamp) ? monthOf(timestamp) : 0;
+        int hour = readNumber(timestamp, HOUR_POSITION, 2);
+        int minute = readNumber(timestamp, MINUTE_POSITION, 2);
+        int second = readNumber(timestamp, SECOND_POSITION, 2);
+        int offsetHour = readNumber(timestamp, OFFSET_HOUR_POSITION, 2);
+        int offsetMinute = readNumber(timestamp, OFFSET_MINUTE_POSITION, 2);
+        long epochDay = month == 0 ? Long.MIN_VALUE
+            : epochDayOf(readNumber(timestamp, YEAR_POSITION, YEAR_LENGTH), month, readNumber(timestamp, 0, 2));
+        if (epochDay == Long.MIN_VALUE || hour > MAX_HOUR || minute > MAX_MINUTE || second > MAX_MINUTE
+            || offsetHour > MAX_OFFSET_HOUR || offsetMinute > MAX_MINUTE) {
+            return OffsetDateTime.parse(timestamp, LOG_DATE_FORMATTER).toEpochSecond();
+        }
+        int offset = offsetHour * SECONDS_PER_HOUR + offsetMinute * SECONDS_PER_MINUTE;
+        if (timestamp.charAt(OFFSET_SIGN_POSITION) == '-') {
+            offset = -offset;
+        }
+        return epochDay * SECONDS_PER_DAY + (long) hour * SECONDS_PER_HOUR + (long) minute * SECONDS_PER_MINUTE
+            + second - offset;
+    }
+
+    /**
+     * Returns the epoch day of the date, or {@link Long#MIN_VALUE} if there is no such date.
+     */
+    private static long epochDayOf(int year, int month, int day) {
+        try {
+            return LocalDate.of(year, month, day).toEpochDay();
+        } catch (DateTimeException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private static boolean hasStandardLayout(CharSequence timestamp) {
+        if (timestamp.length() != TIMESTAMP_LENGTH || timestamp.charAt(OFFSET_SIGN_POSITION - 1) != ' ') {
+            return false;
+        }
+        char sign = timestamp.charAt(OFFSET_SIGN_POSITION);
+        boolean valid = sign == '+' || sign == '-';
+        for (int i = 0; i < SEPARATOR_POSITIONS.length; i++) {
+            valid &= timestamp.charAt(SEPARATOR_POSITIONS[i]) == SEPARATORS.charAt(i);
+        }
+        return valid;
+    }
+
+    /**
+     * Returns the month number (1-12), or {@code 0} if the month abbreviation is unknown.
+     */
+    private static int monthOf(CharSequence timestamp) {
+        for (int i = 0; i < MONTHS.length(); i += MONTH_LENGTH) {
+            if (MONTHS.charAt(i) == timestamp.charAt(MONTH_POSITION)
+                && MONTHS.charAt(i + 1) == timestamp.charAt(MONTH_POSITION + 1)
+                && MONTHS.charAt(i + 2) == timestamp.charAt(MONTH_POSITION + 2)) {
+                return i / MONTH_LENGTH + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Reads a non-negative decimal number, returns {@link Integer#MAX_VALUE} if there are non-digit symbols.
+     */
+    private static int readNumber(CharSequence timestamp, int position, int length) {
+        if (position + length > timestamp.length()) {
+            return Integer.MAX_VALUE;
+        }
+        int result = 0;
+        for (int i = position; i < position + length; i++) {
+            char digit = timestamp.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return Integer.MAX_VALUE;
+            }
+            result = result * DECIMAL_BASE + digit - '0';
+        }
+        return result;
+    }
+}
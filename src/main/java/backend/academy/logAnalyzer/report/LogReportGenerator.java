@@ -1,9 +1,13 @@
 package backend.academy.logAnalyzer.report;
 
 import backend.academy.logAnalyzer.logs.CollectedData;
+import backend.academy.logAnalyzer.logs.RejectReason;
 import backend.academy.logAnalyzer.logs.ResponseCodeNames;
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -11,9 +15,8 @@ import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -23,6 +26,7 @@ import lombok.extern.slf4j.Slf4j;
     private static final String GENERAL_INFORMATION = " General Information";
     private static final String REQUESTED_RESOURCES = " Requested resources";
     private static final String RESPONSE_CODES = " Response codes";
+    private static final String REJECTED_LINES = " Rejected lines";
     private final String format;
     private final LocalDateTime fromDate;
     private final LocalDateTime toDate;
@@ -83,12 +87,16 @@ import lombok.extern.slf4j.Slf4j;
             writer.printf("| File(-s) | %s%n", String.join(", ", fileNames));
             writer.printf("| From date | %s %n", Objects.requireNonNullElse(fromDate, "-"));
             writer.printf("| To date | %s %n", Objects.requireNonNullElse(toDate, "-"));
+            writer.printf("| Number of lines | %,d %n", collectedData.rejects().lines());
+            writer.printf("| Skipped files | %,d (%,d b) %n", collectedData.rejects().skippedFiles(),
+                collectedData.rejects().skippedBytes());
             writer.printf("| Number of requests | %,d %n", collectedData.totalRequests());
             writer.printf("| Average response size | %,d b %n",
                 collectedData.totalRequests() > 0 ? collectedData.totalResponseSize() / collectedData.totalRequests()
                     : 0);
 
-            writer.printf("| 95p answer size | %.2f b %n", collectedData.percentile());
+            collectedData.sizePercentiles().double2LongEntrySet().forEach(entry -> writer.printf(
+                "| %s response size | %,d b %n", percentileName(entry.getDoubleKey()), entry.getLongValue()));
             writer.printf("| Most frequent IP | %s %n", frequentIp);
             writer.printf("| Most frequent user | %s %n", frequentUser);
             writer.println(AsciiDocStructure.TABLE.structure());
@@ -99,11 +107,8 @@ import lombok.extern.slf4j.Slf4j;
             writer.println(AsciiDocStructure.TABLE.structure());
             writer.println("| Resource | Amount ");
             writer.println();
-            collectedData.resourceFrequency().entrySet()
-                .stream()
-                .sorted(Map.Entry.<String, AtomicLong>comparingByValue(Comparator.comparingLong(AtomicLong::get))
-                    .reversed())
-                .forEach(entry -> writer.printf("| %s | %,d %n", entry.getKey(), entry.getValue().get()));
+            sortedByCount(collectedData.resourceFrequency())
+                .forEach(entry -> writer.printf("| %s | %,d %n", entry.getKey(), entry.getLongValue()));
             writer.println(AsciiDocStructure.TABLE.structure());
 
             writer.println();
@@ -113,13 +118,20 @@ import lombok.extern.slf4j.Slf4j;
             writer.println();
             writer.println("| Code | Name | Amount ");
 
-            collectedData.responseCodes().entrySet()
-                .stream()
-                .sorted(Map.Entry.<String, AtomicLong>comparingByValue(Comparator.comparingLong(AtomicLong::get))
-                    .reversed())
-                .forEach(
-                    entry -> writer.printf("| %s | %s | %,d %n", entry.getKey(), getResponseCodeName(entry.getKey()),
-                        entry.getValue().get()));
+            sortedResponseCodes(collectedData.responseCodes())
+                .forEach(entry -> writer.printf("| %d | %s | %,d %n", entry.getIntKey(),
+                    getResponseCodeName(entry.getIntKey()), entry.getLongValue()));
+            writer.println(AsciiDocStructure.TABLE.structure());
+
+            writer.println();
+
+            writer.println(AsciiDocStructure.HEADER.structure() + REJECTED_LINES);
+            writer.println(AsciiDocStructure.TABLE.structure());
+            writer.println("| Reason | Amount ");
+            writer.println();
+            for (RejectReason reason : RejectReason.values()) {
+                writer.printf("| %s | %,d %n", reason.description(), collectedData.rejects().rejected(reason));
+            }
             writer.println(AsciiDocStructure.TABLE.structure());
 
         } catch (IOException e) {
@@ -150,13 +162,17 @@ import lombok.extern.slf4j.Slf4j;
             writer.printf("| File(-s) | `%s` |%n", String.join(", ", fileNames));
             writer.printf("| From date | %s | %n", Objects.requireNonNullElse(fromDate, "-"));
             writer.printf("| To date | %s | %n", Objects.requireNonNullElse(toDate, "-"));
+            writer.printf("| Number of lines | %,d |%n", collectedData.rejects().lines());
+            writer.printf("| Skipped files | %,d (%,d b) |%n", collectedData.rejects().skippedFiles(),
+                collectedData.rejects().skippedBytes());
             writer.printf(
                 "| Number of requests | %,d |%n", collectedData.totalRequests());
             writer.printf("| Average response size | %,d b |%n",
                 collectedData.totalRequests() > 0 ? collectedData.totalResponseSize() / collectedData.totalRequests()
                     : 0);
 
-            writer.printf("| 95p answer size | %.2f b |%n", collectedData.percentile());
+            collectedData.sizePercentiles().double2LongEntrySet().forEach(entry -> writer.printf(
+                "| %s response size | %,d b |%n", percentileName(entry.getDoubleKey()), entry.getLongValue()));
             writer.printf("| Most frequent IP | %s |%n", frequentIp);
             writer.printf("| Most frequent user | %s |%n", frequentUser);
 
@@ -166,11 +182,8 @@ import lombok.extern.slf4j.Slf4j;
             writer.println();
             writer.println("| Resource | Amount |");
             writer.println(MarkdownStructure.SPLITERATOR_2.structure());
-            collectedData.resourceFrequency().entrySet()
-                .stream()
-                .sorted(Map.Entry.<String, AtomicLong>comparingByValue(Comparator.comparingLong(AtomicLong::get))
-                    .reversed())
-                .forEach(entry -> writer.printf("| %s | %,d |%n", entry.getKey(), entry.getValue().get()));
+            sortedByCount(collectedData.resourceFrequency())
+                .forEach(entry -> writer.printf("| %s | %,d |%n", entry.getKey(), entry.getLongValue()));
 
             writer.println();
 
@@ -178,29 +191,45 @@ import lombok.extern.slf4j.Slf4j;
             writer.println();
             writer.println("| Code | Name | Amount |");
             writer.println(MarkdownStructure.SPLITERATOR_3.structure());
-            collectedData.responseCodes().entrySet()
-                .stream()
-                .sorted(Map.Entry.<String, AtomicLong>comparingByValue(Comparator.comparingLong(AtomicLong::get))
-                    .reversed())
-                .forEach(
-                    entry -> writer.printf("| %s | %s | %,d |%n", entry.getKey(), getResponseCodeName(entry.getKey()),
-                        entry.getValue().get()));
+            sortedResponseCodes(collectedData.responseCodes())
+                .forEach(entry -> writer.printf("| %d | %s | %,d |%n", entry.getIntKey(),
+                    getResponseCodeName(entry.getIntKey()), entry.getLongValue()));
+
+            writer.println();
+
+            writer.println(MarkdownStructure.HEADER.structure() + REJECTED_LINES);
+            writer.println();
+            writer.println("| Reason | Amount |");
+            writer.println(MarkdownStructure.SPLITERATOR_2.structure());
+            for (RejectReason reason : RejectReason.values()) {
+                writer.printf("| %s | %,d |%n", reason.description(), collectedData.rejects().rejected(reason));
+            }
 
         } catch (IOException e) {
             throw new RuntimeException("An error occurred while writing to the .md file", e);
         }
     }
 
+    /**
+     * Names a percentile without insignificant zeros, like {@code p95} or {@code p99.9}.
+     *
+     * @param percentile the percentile, from 0 to 100.
+     * @return the name of the percentile.
+     */
+    private String percentileName(double percentile) {
+        return "p" + BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString();
+    }
+
     /**
      * Searches for the most frequent user in the log files.
      *
      * @param users a map stores the frequency of each user.
      * @return the most frequent user.
      */
-    private String theMostFrequentUser(Map<String, AtomicLong> users) {
-        return users.entrySet().stream()
-            .max(Map.Entry.comparingByValue(Comparator.comparingLong(AtomicLong::get)))
-            .map(Map.Entry::getKey)
+    private String theMostFrequentUser(Object2LongMap<String> users) {
+        return users.object2LongEntrySet().stream()
+            .max(Comparator.comparingLong(Object2LongMap.Entry::getLongValue))
+            .map(Object2LongMap.Entry::getKey)
             .orElse("");
     }
 
@@ -210,29 +239,50 @@ import lombok.extern.slf4j.Slf4j;
      * @param ips a map stores the frequency of each ip.
      * @return the most frequent ip.
      */
-    private String theMostFrequentIp(Map<String, AtomicLong> ips) {
-        return ips.entrySet().stream()
-            .max(Map.Entry.comparingByValue(Comparator.comparingLong(AtomicLong::get)))
-            .map(Map.Entry::getKey)
+    private String theMostFrequentIp(Object2LongMap<String> ips) {
+        return ips.object2LongEntrySet().stream()
+            .max(Comparator.comparingLong(Object2LongMap.Entry::getLongValue))
+            .map(Object2LongMap.Entry::getKey)
             .orElse("");
     }
 
+    /**
+     * Sorts the counters by their values in descending order.
+     *
+     * @param counters a map stores the frequency of each key.
+     * @return the entries of the map sorted by frequency.
+     */
+    private Stream<Object2LongMap.Entry<String>> sortedByCount(Object2LongMap<String> counters) {
+        return counters.object2LongEntrySet().stream()
+            .sorted(Comparator.comparingLong(Object2LongMap.Entry<String>::getLongValue).reversed());
+    }
+
+    /**
+     * Sorts the response codes by their frequency in descending order.
+     *
+     * @param responseCodes a map stores the frequency of each response code.
+     * @return the entries of the map sorted by frequency.
+     */
+    private Stream<Int2LongMap.Entry> sortedResponseCodes(Int2LongMap responseCodes) {
+        return responseCodes.int2LongEntrySet().stream()
+            .sorted(Comparator.comparingLong(Int2LongMap.Entry::getLongValue).reversed());
+    }
+
     /**
      * Defines the type of each response code.
      *
-     * @param code a string representing the response code of the specific log.
+     * @param code the response code of the specific log.
      * @return the type of the response code.
      */
-    private String getResponseCodeName(String code) {
-        int intRepresentation = Integer.parseInt(code);
+    private String getResponseCodeName(int code) {
         String returnCode;
-        if (intRepresentation >= Integer.parseInt(ResponseCodeNames.SERVER_ERROR_RESPONSES.responseCode())) {
+        if (code >= ResponseCodeNames.SERVER_ERROR_RESPONSES.responseCode()) {
             returnCode = "Server error responses";
-        } else if (intRepresentation >= Integer.parseInt(ResponseCodeNames.CLIENT_ERROR_RESPONSES.responseCode())) {
+        } else if (code >= ResponseCodeNames.CLIENT_ERROR_RESPONSES.responseCode()) {
             returnCode = "Client error responses";
-        } else if (intRepresentation >= Integer.parseInt(ResponseCodeNames.REDIRECT_RESPONSES.responseCode())) {
+        } else if (code >= ResponseCodeNames.REDIRECT_RESPONSES.responseCode()) {
             returnCode = "Redirection messages";
-        } else if (intRepresentation >= Integer.parseInt(ResponseCodeNames.SUCCESS_RESPONSES.responseCode())) {
+        } else if (code >= ResponseCodeNames.SUCCESS_RESPONSES.responseCode()) {
             returnCode = "Successful responses";
         } else {
             returnCode = "Informational responses";
@@ -0,0 +1,207 @@
+package backend.academy.logAnalyzer.tokenizers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A view of a range of bytes, which is used to look up and compare log fields without creating Strings.
+ *
+ * <p>A slice returned by a tokenizer is a mutable flyweight: it points into the tokenizer buffer and is
+ * repointed on the next line, so it may be used as a lookup key but must never be stored. {@link #copy()}
+ * creates an immutable slice which owns its bytes and may be stored as a map key.
+ *
+ * <p>As a {@link CharSequence} every byte is exposed as an ISO-8859-1 char. It is exact for ASCII, which is
+ * what nginx writes, because it escapes any other byte as {@code \xNN}. {@link #toString()} always decodes
+ * the bytes as UTF-8.
+ */
+public final class ByteSlice implements CharSequence {
+    private static final int BYTE_MASK = 0xFF;
+    private static final int HASH_MULTIPLIER = 31;
+    private static final int DECIMAL_BASE = 10;
+
+    private byte[] bytes;
+    private int offset;
+    private int length;
+    private int hash;
+    private String string;
+
+    /**
+     * Constructs an empty slice.
+     */
+    public ByteSlice() {
+        this(new byte[0], 0, 0);
+    }
+
+    private ByteSlice(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Repoints the slice to another range of bytes.
+     *
+     * @param source     the array holding the bytes
+     * @param fromOffset the offset of the first byte of the slice
+     * @param toOffset   the offset right after the last byte of the slice
+     * @return this slice
+     */
+    public ByteSlice set(byte[] source, int fromOffset, int toOffset) {
+        this.bytes = source;
+        this.offset = fromOffset;
+        this.length = toOffset - fromOffset;
+        this.hash = 0;
+        this.string = null;
+        return this;
+    }
+
+    /**
+     * Creates an immutable copy of the slice which owns its bytes. The String representation of the copy
+     * is decoded right away, since copies are created only for new map keys.
+     *
+     * @return the copy of the slice
+     */
+    public ByteSlice copy() {
+        ByteSlice copy = new ByteSlice(Arrays.copyOfRange(bytes, offset, offset + length), 0, length);
+        copy.string = new String(copy.bytes, StandardCharsets.UTF_8);
+        return copy;
+    }
+
+    /**
+     * Finds the first occurrence of the byte in the slice.
+     *
+     * @param symbol    the byte to search for
+     * @param fromIndex the index to start the search from
+     * @return the index of the byte within the slice, or {@code -1} if there is no such byte
+     */
+    public int indexOf(byte symbol, int fromIndex) {
+        for (int i = offset + fromIndex; i < offset + length; i++) {
+            if (bytes[i] == symbol) {
+                return i - offset;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks whether the slice consists of the given bytes.
+     *
+     * @param other the bytes to compare with
+     * @return {@code true} if the slice has the same bytes; {@code false} otherwise
+     */
+    public boolean contentEquals(byte[] other) {
+        return Arrays.equals(bytes, offset, offset + length, other, 0, other.length);
+    }
+
+    /**
+     * Checks whether the slice starts with the given bytes.
+     *
+     * @param prefix the bytes to search for
+     * @return {@code true} if the slice starts with the bytes; {@code false} otherwise
+     */
+    public boolean startsWith(byte[] prefix) {
+        return prefix.length <= length && Arrays.equals(bytes, offset, offset + prefix.length, prefix, 0,
+            prefix.length);
+    }
+
+    /**
+     * Checks whether the slice ends with the given bytes.
+     *
+     * @param suffix the bytes to search for
+     * @return {@code true} if the slice ends with the bytes; {@code false} otherwise
+     */
+    public boolean endsWith(byte[] suffix) {
+        return suffix.length <= length && Arrays.equals(bytes, offset + length - suffix.length, offset + length,
+            suffix, 0, suffix.length);
+    }
+
+    /**
+     * Checks whether the slice contains the given bytes.
+     *
+     * @param target the bytes to search for
+     * @return {@code true} if the bytes occur in the slice; {@code false} otherwise
+     */
+    public boolean contains(byte[] target) {
+        if (target.length == 0) {
+            return true;
+        }
+        int last = offset + length - target.length;
+        for (int i = offset; i <= last; i++) {
+            if (bytes[i] == target[0] && Arrays.equals(bytes, i, i + target.length, target, 0, target.length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Repoints the given slice to a part of this slice.
+     *
+     * @param target the slice to repoint
+     * @param start  the start index within this slice (inclusive)
+     * @param end    the end index within this slice (exclusive)
+     * @return the target slice
+     */
+    public ByteSlice slice(ByteSlice target, int start, int end) {
+        return target.set(bytes, offset + start, offset + end);
+    }
+
+    /**
+     * Parses the slice as a non-negative decimal number.
+     *
+     * @return the parsed number
+     * @throws NumberFormatException if the slice is empty, contains non-digit bytes or the number overflows
+     */
+    public long parseLong() {
+        if (length == 0) {
+            throw new NumberFormatException("empty number");
+        }
+        long result = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit >= DECIMAL_BASE || result > (Long.MAX_VALUE - digit) / DECIMAL_BASE) {
+                throw new NumberFormatException("invalid number: " + this);
+            }
+            result = result * DECIMAL_BASE + digit;
+        }
+        return result;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (bytes[offset + index] & BYTE_MASK);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new ByteSlice(bytes, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return string != null ? string : new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = hash;
+        if (result == 0) {
+            for (int i = offset; i < offset + length; i++) {
+                result = HASH_MULTIPLIER * result + bytes[i];
+            }
+            hash = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof ByteSlice slice
+            && Arrays.equals(bytes, offset, offset + length, slice.bytes, slice.offset, slice.offset + slice.length);
+    }
+}
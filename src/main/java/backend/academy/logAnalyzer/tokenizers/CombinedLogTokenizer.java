@@ -0,0 +1,209 @@
+package backend.academy.logAnalyzer.tokenizers;
+
+import backend.academy.logAnalyzer.logs.LogParams;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A hand-written tokenizer of the nginx combined log format.
+ *
+ * <p>The line is copied into a reusable byte buffer and scanned exactly once from left to right:
+ * every field ends at the first occurrence of its delimiter, so no backtracking is ever needed.
+ * The scan stops right after the timestamp until the rest of the line is requested.
+ * The accepted lines and the extracted fields are the same as the ones of {@link RegexLogTokenizer}.
+ */
+public class CombinedLogTokenizer implements LogTokenizer {
+    static final int NOT_FOUND = -1;
+    static final int STATUS_LENGTH = 3;
+    static final byte[] USER_SEPARATOR = " - ".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] TIMESTAMP_START = " [".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] TIMESTAMP_END = "] \"".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] QUOTED_END = "\" ".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] SPACE = " ".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] QUOTED_START = " \"".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] QUOTED_SEPARATOR = "\" \"".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] LINE_END = "\"".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Start and end offsets of every {@link LogParams} field, two values per field.
+     */
+    private final int[] bounds = new int[LogParams.values().length * 2];
+    private final LineBuffer lineBuffer = new LineBuffer();
+    private byte[] buffer;
+    private int length;
+    private int headEnd;
+
+    @Override
+    public boolean tokenizeTimestamp(String line) {
+        int lineLength = lineBuffer.load(line);
+        return tokenizeTimestamp(lineBuffer.bytes(), lineLength);
+    }
+
+    @Override
+    public boolean tokenizeTimestamp(byte[] line, int lineLength) {
+        buffer = line;
+        length = lineLength;
+        headEnd = tokenizeHead(buffer, 0, length, bounds);
+        return headEnd != NOT_FOUND;
+    }
+
+    @Override
+    public boolean tokenizeRest() {
+        return tokenizeTail(buffer, headEnd, length, bounds);
+    }
+
+    @Override
+    public String field(LogParams param) {
+        int start = bounds[param.ordinal() * 2];
+        int end = bounds[param.ordinal() * 2 + 1];
+        return new String(buffer, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public ByteSlice slice(LogParams param, ByteSlice target) {
+        return target.set(buffer, bounds[param.ordinal() * 2], bounds[param.ordinal() * 2 + 1]);
+    }
+
+    /**
+     * Locates the fields of a combined format line stored in {@code buffer[from, to)}.
+     *
+     * @param buffer the bytes of the line
+     * @param from   the offset of the first byte of the line
+     * @param to     the offset right after the last byte of the line
+     * @param bounds the array receiving start and end offsets of every {@link LogParams} field
+     * @return {@code true} if the line has the combined format; {@code false} otherwise
+     */
+    public static boolean tokenize(byte[] buffer, int from, int to, int[] bounds) {
+        return tokenizeTail(buffer, tokenizeHead(buffer, from, to, bounds), to, bounds);
+    }
+
+    /**
+     * Locates the fields of the line up to and including the timestamp.
+     *
+     * @param buffer the bytes of the line
+     * @param from   the offset of the first byte of the line
+     * @param to     the offset right after the last byte of the line
+     * @param bounds the array receiving start and end offsets of the located fields
+     * @return the offset right after the timestamp, or {@code -1} if the line doesn't have the combined format
+     */
+    public static int tokenizeHead(byte[] buffer, int from, int to, int[] bounds) {
+        int position = readToken(buffer, from, to, bounds, LogParams.REMOTE_ADDR);
+        position = expect(buffer, position, to, USER_SEPARATOR);
+        position = readToken(buffer, position, to, bounds, LogParams.REMOTE_USER);
+        position = expect(buffer, position, to, TIMESTAMP_START);
+        return readUntil(buffer, position, to, bounds, LogParams.TIMESTAMP, (byte) ']', false);
+    }
+
+    /**
+     * Locates the fields of the line which follow the timestamp.
+     *
+     * @param buffer   the bytes of the line
+     * @param from   the offset returned by {@link #tokenizeHead(byte[], int, int, int[])}
+     * @param to     the offset right after the last byte of the line
+     * @param bounds the array receiving start and end offsets of the located fields
+     * @return {@code true} if the line has the combined format; {@code false} otherwise
+     */
+    public static boolean tokenizeTail(byte[] buffer, int from, int to, int[] bounds) {
+        int position = expect(buffer, from, to, TIMESTAMP_END);
+        position = readUntil(buffer, position, to, bounds, LogParams.REQUEST, (byte) '"', false);
+        position = expect(buffer, position, to, QUOTED_END);
+        position = readDigits(buffer, position, to, bounds, LogParams.STATUS, STATUS_LENGTH, STATUS_LENGTH);
+        position = expect(buffer, position, to, SPACE);
+        position = readDigits(buffer, position, to, bounds, LogParams.BODY_BYTES_SENT, 1, Integer.MAX_VALUE);
+        position = expect(buffer, position, to, QUOTED_START);
+        position = readUntil(buffer, position, to, bounds, LogParams.HTTP_REFERER, (byte) '"', true);
+        position = expect(buffer, position, to, QUOTED_SEPARATOR);
+        position = readUntil(buffer, position, to, bounds, LogParams.HTTP_USER_AGENT, (byte) '"', true);
+        position = expect(buffer, position, to, LINE_END);
+        return position == to;
+    }
+
+    /**
+     * Reads a non-empty sequence of non-whitespace bytes ({@code \S+}).
+     */
+    private static int readToken(byte[] buffer, int position, int to, int[] bounds, LogParams param) {
+        if (position == NOT_FOUND) {
+            return NOT_FOUND;
+        }
+        int end = position;
+        while (end < to && !isWhitespace(buffer[end])) {
+            end++;
+        }
+        return setBounds(bounds, param, position, end, false);
+    }
+
+    /**
+     * Reads bytes up to the first occurrence of the delimiter ({@code [^delimiter]*} or {@code [^delimiter]+}).
+     */
+    private static int readUntil(
+        byte[] buffer,
+        int position,
+        int to,
+        int[] bounds,
+        LogParams param,
+        byte delimiter,
+        boolean allowEmpty
+    ) {
+        if (position == NOT_FOUND) {
+            return NOT_FOUND;
+        }
+        int end = position;
+        while (end < to && buffer[end] != delimiter) {
+            end++;
+        }
+        return setBounds(bounds, param, position, end, allowEmpty);
+    }
+
+    /**
+     * Reads a sequence of decimal digits which length is within {@code [minLength, maxLength]}.
+     */
+    static int readDigits(
+        byte[] buffer,
+        int position,
+        int to,
+        int[] bounds,
+        LogParams param,
+        int minLength,
+        int maxLength
+    ) {
+        if (position == NOT_FOUND) {
+            return NOT_FOUND;
+        }
+        int end = position;
+        while (end < to && buffer[end] >= '0' && buffer[end] <= '9') {
+            end++;
+        }
+        if (end - position < minLength || end - position > maxLength) {
+            return NOT_FOUND;
+        }
+        return setBounds(bounds, param, position, end, false);
+    }
+
+    /**
+     * Checks that the literal is located at the given position.
+     */
+    static int expect(byte[] buffer, int position, int to, byte[] literal) {
+        if (position == NOT_FOUND || to - position < literal.length) {
+            return NOT_FOUND;
+        }
+        for (int i = 0; i < literal.length; i++) {
+            if (buffer[position + i] != literal[i]) {
+                return NOT_FOUND;
+            }
+        }
+        return position + literal.length;
+    }
+
+    static int setBounds(int[] bounds, LogParams param, int start, int end, boolean allowEmpty) {
+        if (!allowEmpty && start == end) {
+            return NOT_FOUND;
+        }
+        bounds[param.ordinal() * 2] = start;
+        bounds[param.ordinal() * 2 + 1] = end;
+        return end;
+    }
+
+    private static boolean isWhitespace(byte symbol) {
+        return symbol == ' ' || symbol == '\t' || symbol == '\n' || symbol == '\u000B' || symbol == '\f'
+            || symbol == '\r';
+    }
+}
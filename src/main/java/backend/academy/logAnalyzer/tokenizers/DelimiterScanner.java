@@ -0,0 +1,44 @@
+package backend.academy.logAnalyzer.tokenizers;
+
+/**
+ * Locates the delimiters of log fields in a buffer and records them as bitmaps: the bit {@code i % 64} of the
+ * word {@code i / 64} is set when the byte {@code i} is a delimiter of the corresponding kind.
+ *
+ * <p>{@link #best()} returns the scanner built on the Vector API when the {@code jdk.incubator.vector} module
+ * is present, and the scalar scanner otherwise.
+ */
+public interface DelimiterScanner {
+    /**
+     * The number of bytes described by a single bitmap word.
+     */
+    int BYTES_PER_WORD = Long.SIZE;
+
+    /**
+     * Records the positions of whitespace bytes ({@code \s}), quotes and closing brackets of {@code buffer[0, length)}.
+     *
+     * @param buffer     the bytes to scan
+     * @param length     the number of bytes to scan
+     * @param whitespace the bitmap receiving the positions of whitespace bytes
+     * @param quotes     the bitmap receiving the positions of {@code "}
+     * @param brackets   the bitmap receiving the positions of {@code ]}
+     */
+    void scan(byte[] buffer, int length, long[] whitespace, long[] quotes, long[] brackets);
+
+    /**
+     * Returns the scanner which checks bytes one by one.
+     *
+     * @return the scalar scanner
+     */
+    static DelimiterScanner scalar() {
+        return ScalarDelimiterScanner.INSTANCE;
+    }
+
+    /**
+     * Returns the fastest scanner available in the current JVM.
+     *
+     * @return the vector scanner if the {@code jdk.incubator.vector} module is present; the scalar one otherwise
+     */
+    static DelimiterScanner best() {
+        return DelimiterScannerSelector.BEST;
+    }
+}
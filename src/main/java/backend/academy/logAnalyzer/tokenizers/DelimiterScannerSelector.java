@@ -0,0 +1,33 @@
+package backend.academy.logAnalyzer.tokenizers;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lazily selects the best {@link DelimiterScanner}, so the vector classes are never loaded without the module.
+ */
+@Slf4j
+@UtilityClass
+class DelimiterScannerSelector {
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_SCANNER = "backend.academy.logAnalyzer.tokenizers.VectorDelimiterScanner";
+
+    /**
+     * The fastest scanner available in the current JVM.
+     */
+    static final DelimiterScanner BEST = select();
+
+    private static DelimiterScanner select() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            log.warn("Module {} isn't available, falling back to the scalar delimiter scanner; start java with "
+                + "--add-modules {} to use the vector one", VECTOR_MODULE, VECTOR_MODULE);
+            return DelimiterScanner.scalar();
+        }
+        try {
+            return (DelimiterScanner) Class.forName(VECTOR_SCANNER).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("The vector delimiter scanner can't be loaded, falling back to the scalar one", e);
+            return DelimiterScanner.scalar();
+        }
+    }
+}
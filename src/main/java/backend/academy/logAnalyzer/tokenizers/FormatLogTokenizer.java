@@ -0,0 +1,157 @@
+package backend.academy.logAnalyzer.tokenizers;
+
+import backend.academy.logAnalyzer.logs.LogParams;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A tokenizer of a custom nginx log format compiled by {@link LogFormat#compile(java.util.Set)}.
+ *
+ * <p>The line is scanned once by a fixed sequence of steps: every literal of the format is compared byte by
+ * byte, and every variable ends at the first byte of the literal following it. nginx escapes quotes and
+ * control characters inside variables, so the first occurrence of that byte always terminates the variable.
+ * Only the variables needed by the analysis record their bounds, and the scan stops right after the last
+ * of them.
+ */
+public class FormatLogTokenizer implements LogTokenizer {
+    static final int NOT_FOUND = -1;
+
+    private final int[] bounds = new int[LogParams.values().length * 2];
+    private final LineBuffer lineBuffer = new LineBuffer();
+    private final Step[] headSteps;
+    private final Step[] tailSteps;
+    private final boolean wholeLine;
+    private byte[] buffer;
+    private int length;
+    private int headEnd;
+
+    /**
+     * Constructs a tokenizer which runs the compiled steps.
+     *
+     * @param headSteps the steps locating the fields up to and including the timestamp
+     * @param tailSteps the steps locating the remaining needed fields
+     * @param wholeLine whether the tail steps cover the rest of the format, so the line must end right after them
+     */
+    FormatLogTokenizer(Step[] headSteps, Step[] tailSteps, boolean wholeLine) {
+        this.headSteps = headSteps;
+        this.tailSteps = tailSteps;
+        this.wholeLine = wholeLine;
+    }
+
+    @Override
+    public boolean tokenizeTimestamp(String line) {
+        int lineLength = lineBuffer.load(line);
+        return tokenizeTimestamp(lineBuffer.bytes(), lineLength);
+    }
+
+    @Override
+    public boolean tokenizeTimestamp(byte[] line, int lineLength) {
+        buffer = line;
+        length = lineLength;
+        headEnd = run(headSteps, 0);
+        return headEnd != NOT_FOUND;
+    }
+
+    @Override
+    public boolean tokenizeRest() {
+        int position = run(tailSteps, headEnd);
+        return position != NOT_FOUND && (!wholeLine || position == length);
+    }
+
+    @Override
+    public String field(LogParams param) {
+        int start = bounds[param.ordinal() * 2];
+        int end = bounds[param.ordinal() * 2 + 1];
+        return new String(buffer, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public ByteSlice slice(LogParams param, ByteSlice target) {
+        return target.set(buffer, bounds[param.ordinal() * 2], bounds[param.ordinal() * 2 + 1]);
+    }
+
+    private int run(Step[] steps, int from) {
+        int position = from;
+        for (int i = 0; i < steps.length && position != NOT_FOUND; i++) {
+            position = steps[i].apply(buffer, position, length, bounds);
+        }
+        return position;
+    }
+
+    /**
+     * A single step of a compiled log format.
+     */
+    interface Step {
+        /**
+         * Matches the step at the given position of the line.
+         *
+         * @param buffer   the bytes of the line
+         * @param position the offset to start matching from
+         * @param to       the offset right after the last byte of the line
+         * @param bounds   the array receiving start and end offsets of every {@link LogParams} field
+         * @return the offset right after the matched bytes, or {@code -1} if the line doesn't match
+         */
+        int apply(byte[] buffer, int position, int to, int[] bounds);
+    }
+
+    /**
+     * Matches a literal of the format.
+     *
+     * @param literal the bytes of the literal
+     */
+    record Literal(byte[] literal) implements Step {
+        @Override
+        public int apply(byte[] buffer, int position, int to, int[] bounds) {
+            if (to - position < literal.length) {
+                return NOT_FOUND;
+            }
+            for (int i = 0; i < literal.length; i++) {
+                if (buffer[position + i] != literal[i]) {
+                    return NOT_FOUND;
+                }
+            }
+            return position + literal.length;
+        }
+    }
+
+    /**
+     * Matches a variable of the format.
+     *
+     * @param delimiter  the byte terminating the variable, or {@code -1} if the variable ends the line
+     * @param boundsSlot the index of the start offset of the field in the bounds array, or {@code -1} if
+     *                   the variable isn't extracted
+     * @param minLength  the minimal length of the value
+     * @param maxLength  the maximal length of the value
+     * @param digits     whether the value must consist of decimal digits only
+     */
+    record Variable(int delimiter, int boundsSlot, int minLength, int maxLength, boolean digits) implements Step {
+        @Override
+        public int apply(byte[] buffer, int position, int to, int[] bounds) {
+            int end = position;
+            if (delimiter == NOT_FOUND) {
+                end = to;
+            } else {
+                while (end < to && buffer[end] != delimiter) {
+                    end++;
+                }
+            }
+            int valueLength = end - position;
+            if (valueLength < minLength || valueLength > maxLength || digits && !isDigits(buffer, position, end)) {
+                return NOT_FOUND;
+            }
+            if (boundsSlot != NOT_FOUND) {
+                bounds[boundsSlot] = position;
+                bounds[boundsSlot + 1] = end;
+            }
+            return end;
+        }
+
+        private static boolean isDigits(byte[] buffer, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (buffer[i] < '0' || buffer[i] > '9') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package backend.academy.logAnalyzer.tokenizers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A reusable byte buffer holding the current line of a byte-level tokenizer.
+ */
+final class LineBuffer {
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int MAX_ASCII = 0x7F;
+
+    private byte[] bytes = new byte[INITIAL_BUFFER_SIZE];
+
+    /**
+     * Returns the bytes of the current line. The array may be replaced by the next {@link #load(String)} call.
+     *
+     * @return the buffer holding the current line
+     */
+    byte[] bytes() {
+        return bytes;
+    }
+
+    /**
+     * Copies the line into the buffer. Pure ASCII lines are copied char by char without allocations,
+     * any other line is encoded as UTF-8.
+     *
+     * @param line the line to copy
+     * @return the number of bytes written to the buffer
+     */
+    int load(String line) {
+        int lineLength = line.length();
+        ensureCapacity(lineLength);
+        for (int i = 0; i < lineLength; i++) {
+            char symbol = line.charAt(i);
+            if (symbol > MAX_ASCII) {
+                byte[] encoded = line.getBytes(StandardCharsets.UTF_8);
+                ensureCapacity(encoded.length);
+                System.arraycopy(encoded, 0, bytes, 0, encoded.length);
+                return encoded.length;
+            }
+            bytes[i] = (byte) symbol;
+        }
+        return lineLength;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (bytes.length < capacity) {
+            bytes = new byte[Math.max(capacity, bytes.length * 2)];
+        }
+    }
+}
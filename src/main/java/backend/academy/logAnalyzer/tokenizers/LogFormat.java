@@ -0,0 +1,239 @@
+package backend.academy.logAnalyzer.tokenizers;
+
+import backend.academy.logAnalyzer.logs.LogParams;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * A custom nginx log format defined by a {@code log_format} directive.
+ *
+ * <p>The format is split into literals and variables once, and {@link #compile(Set)} turns it into the steps
+ * of a {@link FormatLogTokenizer} which locate only the requested fields. Variables which don't correspond to
+ * any {@link LogParams} (e.g. {@code $request_time} or {@code $host}) are skipped without being extracted.
+ */
+public final class LogFormat {
+    /**
+     * The predefined nginx {@code combined} format.
+     */
+    public static final String COMBINED = "$remote_addr - $remote_user [$time_local] \"$request\" $status "
+        + "$body_bytes_sent \"$http_referer\" \"$http_user_agent\"";
+
+    private static final String DIRECTIVE = "log_format";
+    private static final String ESCAPE_PARAMETER = "escape=";
+    private static final int STATUS_LENGTH = 3;
+
+    /**
+     * The literals and the variables of the format in their order.
+     */
+    private final List<Segment> segments;
+    private final String format;
+
+    private LogFormat(String format, List<Segment> segments) {
+        this.format = format;
+        this.segments = segments;
+    }
+
+    /**
+     * Parses a {@code log_format} directive. Both the whole directive, e.g.
+     * {@code log_format main '$remote_addr [$time_local] ' '"$request" $status';}, and the bare format string
+     * are accepted.
+     *
+     * @param directive the directive or the format string
+     * @return the parsed log format
+     * @throws IllegalArgumentException if the directive is malformed or two variables aren't separated
+     *                                  by a literal
+     */
+    public static LogFormat parse(String directive) {
+        String format = unwrap(directive.strip());
+        List<Segment> segments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int position = 0;
+        while (position < format.length()) {
+            int end = variableEnd(format, position);
+            if (end == position) {
+                literal.append(format.charAt(position++));
+                continue;
+            }
+            if (!literal.isEmpty()) {
+                segments.add(new Segment(literal.toString(), false));
+                literal.setLength(0);
+            } else if (!segments.isEmpty()) {
+                throw new IllegalArgumentException("Variables $" + segments.getLast().text() + " and "
+                    + format.substring(position, end) + " must be separated by a literal");
+            }
+            segments.add(new Segment(format.substring(position, end).replaceAll("[${}]", ""), true));
+            position = end;
+        }
+        if (!literal.isEmpty()) {
+            segments.add(new Segment(literal.toString(), false));
+        }
+        return new LogFormat(format, List.copyOf(segments));
+    }
+
+    /**
+     * Compiles the format into a factory of tokenizers which extract the given fields.
+     *
+     * @param params the fields needed by the analysis
+     * @return the factory producing new tokenizers, each of which must be used by a single thread only
+     * @throws IllegalArgumentException if the format doesn't contain some of the fields
+     */
+    public Supplier<LogTokenizer> compile(Set<LogParams> params) {
+        Set<LogParams> needed = EnumSet.copyOf(params);
+        needed.add(LogParams.TIMESTAMP);
+        Set<LogParams> extracted = EnumSet.noneOf(LogParams.class);
+        List<FormatLogTokenizer.Step> steps = new ArrayList<>();
+        int timestampStep = FormatLogTokenizer.NOT_FOUND;
+        int lastNeededStep = FormatLogTokenizer.NOT_FOUND;
+        for (int i = 0; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            if (!segment.variable()) {
+                steps.add(new FormatLogTokenizer.Literal(segment.bytes()));
+                continue;
+            }
+            int delimiter = i + 1 < segments.size() ? segments.get(i + 1).bytes()[0] : FormatLogTokenizer.NOT_FOUND;
+            LogParams param = paramOf(segment.text());
+            if (param != null && needed.contains(param) && extracted.add(param)) {
+                steps.add(variable(param, delimiter));
+                lastNeededStep = steps.size() - 1;
+                timestampStep = param == LogParams.TIMESTAMP ? lastNeededStep : timestampStep;
+            } else {
+                steps.add(new FormatLogTokenizer.Variable(delimiter, FormatLogTokenizer.NOT_FOUND, 0,
+                    Integer.MAX_VALUE, false));
+            }
+        }
+        needed.removeAll(extracted);
+        if (!needed.isEmpty()) {
+            throw new IllegalArgumentException("The log format doesn't contain " + needed.stream()
+                .map(param -> "$" + param.variable()).collect(Collectors.joining(", ")));
+        }
+        int tailEnd = Math.min(steps.size(), lastNeededStep + 2);
+        FormatLogTokenizer.Step[] head = steps.subList(0, timestampStep + 1).toArray(FormatLogTokenizer.Step[]::new);
+        FormatLogTokenizer.Step[] tail = steps.subList(timestampStep + 1, tailEnd)
+            .toArray(FormatLogTokenizer.Step[]::new);
+        boolean wholeLine = tailEnd == steps.size();
+        return () -> new FormatLogTokenizer(head, tail, wholeLine);
+    }
+
+    @Override
+    public String toString() {
+        return format;
+    }
+
+    /**
+     * Creates the step extracting a field, which also validates the shape of the field.
+     */
+    private static FormatLogTokenizer.Step variable(LogParams param, int delimiter) {
+        int slot = param.ordinal() * 2;
+        return switch (param) {
+            case STATUS -> new FormatLogTokenizer.Variable(delimiter, slot, STATUS_LENGTH, STATUS_LENGTH, true);
+            case BODY_BYTES_SENT -> new FormatLogTokenizer.Variable(delimiter, slot, 1, Integer.MAX_VALUE, true);
+            case HTTP_REFERER, HTTP_USER_AGENT ->
+                new FormatLogTokenizer.Variable(delimiter, slot, 0, Integer.MAX_VALUE, false);
+            default -> new FormatLogTokenizer.Variable(delimiter, slot, 1, Integer.MAX_VALUE, false);
+        };
+    }
+
+    private static LogParams paramOf(String variable) {
+        for (LogParams param : LogParams.values()) {
+            if (variable.equals(param.variable())) {
+                return param;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the end of the variable ({@code $name} or {@code ${name}}) starting at the given position.
+     *
+     * @return the offset right after the variable, or {@code position} if there is no variable
+     */
+    private static int variableEnd(String format, int position) {
+        if (format.charAt(position) != '$') {
+            return position;
+        }
+        boolean braced = position + 1 < format.length() && format.charAt(position + 1) == '{';
+        int end = braced ? position + 2 : position + 1;
+        while (end < format.length() && isNameChar(format.charAt(end))) {
+            end++;
+        }
+        if (braced) {
+            return end > position + 2 && end < format.length() && format.charAt(end) == '}' ? end + 1 : position;
+        }
+        return end > position + 1 ? end : position;
+    }
+
+    private static boolean isNameChar(char symbol) {
+        return symbol >= 'a' && symbol <= 'z' || symbol >= 'A' && symbol <= 'Z' || symbol >= '0' && symbol <= '9'
+            || symbol == '_';
+    }
+
+    /**
+     * Extracts the format string from a {@code log_format} directive: skips the directive name, the format name
+     * and the {@code escape} parameter, and concatenates the quoted strings.
+     */
+    private static String unwrap(String directive) {
+        String text = directive;
+        if (text.startsWith(DIRECTIVE) && text.length() > DIRECTIVE.length()
+            && Character.isWhitespace(text.charAt(DIRECTIVE.length()))) {
+            String[] parts = text.split("\\s+", 3);
+            text = parts.length > 2 ? parts[2] : "";
+            if (text.startsWith(ESCAPE_PARAMETER)) {
+                parts = text.split("\\s+", 2);
+                text = parts.length > 1 ? parts[1] : "";
+            }
+        }
+        if (text.endsWith(";")) {
+            text = text.substring(0, text.length() - 1).strip();
+        }
+        if (text.isEmpty()) {
+            throw new IllegalArgumentException("The log format is empty");
+        }
+        return text.charAt(0) == '\'' || text.charAt(0) == '"' ? joinQuoted(text) : text;
+    }
+
+    /**
+     * Concatenates a sequence of quoted strings separated by whitespace, unescaping {@code \'}, {@code \"}
+     * and {@code \\}.
+     */
+    private static String joinQuoted(String text) {
+        StringBuilder result = new StringBuilder();
+        int position = 0;
+        while (position < text.length()) {
+            char quote = text.charAt(position++);
+            if (quote != '\'' && quote != '"') {
+                throw new IllegalArgumentException("Unexpected symbol " + quote + " in the log format");
+            }
+            while (position < text.length() && text.charAt(position) != quote) {
+                char symbol = text.charAt(position++);
+                if (symbol == '\\' && position < text.length() && "'\"\\".indexOf(text.charAt(position)) >= 0) {
+                    symbol = text.charAt(position++);
+                }
+                result.append(symbol);
+            }
+            if (position++ == text.length()) {
+                throw new IllegalArgumentException("Unterminated quoted string in the log format");
+            }
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * A literal or a variable of the format.
+     *
+     * @param text     the text of the literal, or the name of the variable without {@code $}
+     * @param variable whether the segment is a variable
+     */
+    private record Segment(String text, boolean variable) {
+        byte[] bytes() {
+            return text.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
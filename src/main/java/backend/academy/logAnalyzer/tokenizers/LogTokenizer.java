@@ -0,0 +1,75 @@
+package backend.academy.logAnalyzer.tokenizers;
+
+import backend.academy.logAnalyzer.logs.LogParams;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits a single log line into the fields described by {@link LogParams}.
+ *
+ * <p>Implementations are stateful: {@link #tokenize(String)} remembers the boundaries of the last line,
+ * and {@link #field(LogParams)} materializes the requested field of that line. An instance must not be
+ * shared between threads.
+ *
+ * <p>A line can also be tokenized lazily: {@link #tokenizeTimestamp(String)} locates only the fields up to
+ * the timestamp, so lines outside the requested time range can be rejected before the rest of the line
+ * is scanned by {@link #tokenizeRest()}.
+ *
+ * <p>Lines read as raw bytes are passed to {@link #tokenizeTimestamp(byte[], int)}, which byte-level tokenizers
+ * scan in place without decoding and copying them.
+ */
+public interface LogTokenizer {
+    /**
+     * Locates the fields of the given line up to and including {@link LogParams#TIMESTAMP}.
+     *
+     * @param line the log line to tokenize
+     * @return {@code false} if the line doesn't have the expected format; {@code true} otherwise
+     */
+    boolean tokenizeTimestamp(String line);
+
+    /**
+     * Locates the fields of the given UTF-8 line up to and including {@link LogParams#TIMESTAMP}. The bytes must
+     * stay unchanged until the next line is tokenized. The default implementation decodes the line into a String.
+     *
+     * @param line   the buffer holding the bytes of the line from its start
+     * @param length the number of bytes of the line
+     * @return {@code false} if the line doesn't have the expected format; {@code true} otherwise
+     */
+    default boolean tokenizeTimestamp(byte[] line, int length) {
+        return tokenizeTimestamp(new String(line, 0, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Locates the remaining fields of the line passed to the last {@link #tokenizeTimestamp(String)} call.
+     *
+     * @return {@code true} if the line has the expected format; {@code false} otherwise
+     */
+    boolean tokenizeRest();
+
+    /**
+     * Locates all fields of the given line.
+     *
+     * @param line the log line to tokenize
+     * @return {@code true} if the line has the expected format; {@code false} otherwise
+     */
+    default boolean tokenize(String line) {
+        return tokenizeTimestamp(line) && tokenizeRest();
+    }
+
+    /**
+     * Returns the value of a field of the last successfully tokenized line.
+     *
+     * @param param the field to extract
+     * @return the field value
+     */
+    String field(LogParams param);
+
+    /**
+     * Repoints the slice to a field of the last successfully tokenized line without creating a String.
+     * The slice is valid only until the next line is tokenized.
+     *
+     * @param param  the field to locate
+     * @param target the slice to repoint
+     * @return the target slice
+     */
+    ByteSlice slice(LogParams param, ByteSlice target);
+}
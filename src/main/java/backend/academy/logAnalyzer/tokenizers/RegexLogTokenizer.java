@@ -0,0 +1,63 @@
+package backend.academy.logAnalyzer.tokenizers;
+
+import backend.academy.logAnalyzer.logs.LogParams;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The regular expression based tokenizer of the combined log format.
+ * It is kept as a reference implementation and a fallback for {@link CombinedLogTokenizer}.
+ */
+public class RegexLogTokenizer implements LogTokenizer {
+    /**
+     * Regular expression pattern for parsing log entries.
+     */
+    private static final Pattern LOG_PATTERN = Pattern.compile(
+        "^(\\S+) - (\\S+) \\[([^]]+)] "
+            + "\"([^\"]+)\" (\\d{3}) (\\d+) "
+            + "\"([^\"]*)\" \"([^\"]*)\"$"
+    );
+
+    /**
+     * Regular expression pattern for parsing the fields up to the timestamp.
+     */
+    private static final Pattern HEAD_PATTERN = Pattern.compile("^(\\S+) - (\\S+) \\[([^]]+)] ");
+
+    /**
+     * Matchers reused between lines to avoid allocating new ones for every line.
+     */
+    private final Matcher headMatcher = HEAD_PATTERN.matcher("");
+    private final Matcher matcher = LOG_PATTERN.matcher("");
+    private Matcher lastMatcher = matcher;
+
+    @Override
+    public boolean tokenize(String line) {
+        lastMatcher = matcher;
+        return matcher.reset(line).find();
+    }
+
+    @Override
+    public boolean tokenizeTimestamp(String line) {
+        matcher.reset(line);
+        lastMatcher = headMatcher;
+        return headMatcher.reset(line).lookingAt();
+    }
+
+    @Override
+    public boolean tokenizeRest() {
+        lastMatcher = matcher;
+        return matcher.find();
+    }
+
+    @Override
+    public String field(LogParams param) {
+        return lastMatcher.group(param.ordinal() + 1);
+    }
+
+    @Override
+    public ByteSlice slice(LogParams param, ByteSlice target) {
+        byte[] bytes = field(param).getBytes(StandardCharsets.UTF_8);
+        return target.set(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,41 @@
+package backend.academy.logAnalyzer.tokenizers;
+
+/**
+ * The delimiter scanner which checks bytes one by one.
+ */
+final class ScalarDelimiterScanner implements DelimiterScanner {
+    static final ScalarDelimiterScanner INSTANCE = new ScalarDelimiterScanner();
+
+    @Override
+    public void scan(byte[] buffer, int length, long[] whitespace, long[] quotes, long[] brackets) {
+        scanRange(buffer, 0, length, whitespace, quotes, brackets);
+    }
+
+    /**
+     * Records the delimiters of {@code buffer[from, to)}, where {@code from} is a multiple of
+     * {@link #BYTES_PER_WORD}.
+     */
+    static void scanRange(byte[] buffer, int from, int to, long[] whitespace, long[] quotes, long[] brackets) {
+        for (int word = from / BYTES_PER_WORD; word * BYTES_PER_WORD < to; word++) {
+            int start = word * BYTES_PER_WORD;
+            int end = Math.min(start + BYTES_PER_WORD, to);
+            long whitespaceBits = 0;
+            long quoteBits = 0;
+            long bracketBits = 0;
+            for (int i = start; i < end; i++) {
+                long bit = 1L << (i - start);
+                byte symbol = buffer[i];
+                if (symbol == ' ' || symbol >= '\t' && symbol <= '\r') {
+                    whitespaceBits |= bit;
+                } else if (symbol == '"') {
+                    quoteBits |= bit;
+                } else if (symbol == ']') {
+                    bracketBits |= bit;
+                }
+            }
+            whitespace[word] = whitespaceBits;
+            quotes[word] = quoteBits;
+            brackets[word] = bracketBits;
+        }
+    }
+}
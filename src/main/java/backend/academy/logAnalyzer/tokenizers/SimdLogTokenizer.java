@@ -0,0 +1,145 @@
+package backend.academy.logAnalyzer.tokenizers;
+
+import backend.academy.logAnalyzer.logs.LogParams;
+import java.nio.charset.StandardCharsets;
+import static backend.academy.logAnalyzer.tokenizers.CombinedLogTokenizer.LINE_END;
+import static backend.academy.logAnalyzer.tokenizers.CombinedLogTokenizer.NOT_FOUND;
+import static backend.academy.logAnalyzer.tokenizers.CombinedLogTokenizer.QUOTED_END;
+import static backend.academy.logAnalyzer.tokenizers.CombinedLogTokenizer.QUOTED_SEPARATOR;
+import static backend.academy.logAnalyzer.tokenizers.CombinedLogTokenizer.QUOTED_START;
+import static backend.academy.logAnalyzer.tokenizers.CombinedLogTokenizer.SPACE;
+import static backend.academy.logAnalyzer.tokenizers.CombinedLogTokenizer.STATUS_LENGTH;
+import static backend.academy.logAnalyzer.tokenizers.CombinedLogTokenizer.TIMESTAMP_END;
+import static backend.academy.logAnalyzer.tokenizers.CombinedLogTokenizer.TIMESTAMP_START;
+import static backend.academy.logAnalyzer.tokenizers.CombinedLogTokenizer.USER_SEPARATOR;
+import static backend.academy.logAnalyzer.tokenizers.CombinedLogTokenizer.expect;
+import static backend.academy.logAnalyzer.tokenizers.CombinedLogTokenizer.readDigits;
+import static backend.academy.logAnalyzer.tokenizers.CombinedLogTokenizer.setBounds;
+
+/**
+ * A tokenizer of the nginx combined log format which locates field delimiters in bulk.
+ *
+ * <p>The whole line is first scanned by a {@link DelimiterScanner}, 32 or 64 bytes at a time when the Vector API
+ * is available, into bitmaps of whitespace, quotes and closing brackets. Every variable-length field then ends at
+ * the next set bit of the bitmap of its delimiter, found with {@link Long#numberOfTrailingZeros(long)}, instead of
+ * a byte-by-byte search. The accepted lines and the extracted fields are the same as the ones of
+ * {@link CombinedLogTokenizer}.
+ */
+public class SimdLogTokenizer implements LogTokenizer {
+    private static final int WORD_SHIFT = 6;
+    private static final int BIT_MASK = DelimiterScanner.BYTES_PER_WORD - 1;
+
+    private final int[] bounds = new int[LogParams.values().length * 2];
+    private final LineBuffer lineBuffer = new LineBuffer();
+    private final DelimiterScanner scanner;
+    private long[] whitespace = new long[0];
+    private long[] quotes = new long[0];
+    private long[] brackets = new long[0];
+    private byte[] buffer;
+    private int length;
+    private int headEnd;
+
+    /**
+     * Constructs a SimdLogTokenizer which uses the best delimiter scanner of the current JVM.
+     */
+    public SimdLogTokenizer() {
+        this(DelimiterScanner.best());
+    }
+
+    /**
+     * Constructs a SimdLogTokenizer which uses the specified delimiter scanner.
+     *
+     * @param scanner the scanner locating the delimiters of a line
+     */
+    public SimdLogTokenizer(DelimiterScanner scanner) {
+        this.scanner = scanner;
+    }
+
+    @Override
+    public boolean tokenizeTimestamp(String line) {
+        int lineLength = lineBuffer.load(line);
+        return tokenizeTimestamp(lineBuffer.bytes(), lineLength);
+    }
+
+    @Override
+    public boolean tokenizeTimestamp(byte[] line, int lineLength) {
+        buffer = line;
+        length = lineLength;
+        int words = (length + BIT_MASK) >>> WORD_SHIFT;
+        if (whitespace.length < words) {
+            whitespace = new long[words];
+            quotes = new long[words];
+            brackets = new long[words];
+        }
+        scanner.scan(buffer, length, whitespace, quotes, brackets);
+        headEnd = tokenizeHead();
+        return headEnd != NOT_FOUND;
+    }
+
+    @Override
+    public boolean tokenizeRest() {
+        int position = expect(buffer, headEnd, length, TIMESTAMP_END);
+        position = readUntil(quotes, position, LogParams.REQUEST, false);
+        position = expect(buffer, position, length, QUOTED_END);
+        position = readDigits(buffer, position, length, bounds, LogParams.STATUS, STATUS_LENGTH, STATUS_LENGTH);
+        position = expect(buffer, position, length, SPACE);
+        position = readDigits(buffer, position, length, bounds, LogParams.BODY_BYTES_SENT, 1, Integer.MAX_VALUE);
+        position = expect(buffer, position, length, QUOTED_START);
+        position = readUntil(quotes, position, LogParams.HTTP_REFERER, true);
+        position = expect(buffer, position, length, QUOTED_SEPARATOR);
+        position = readUntil(quotes, position, LogParams.HTTP_USER_AGENT, true);
+        position = expect(buffer, position, length, LINE_END);
+        return position == length;
+    }
+
+    @Override
+    public String field(LogParams param) {
+        int start = bounds[param.ordinal() * 2];
+        int end = bounds[param.ordinal() * 2 + 1];
+        return new String(buffer, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public ByteSlice slice(LogParams param, ByteSlice target) {
+        return target.set(buffer, bounds[param.ordinal() * 2], bounds[param.ordinal() * 2 + 1]);
+    }
+
+    private int tokenizeHead() {
+        int position = readUntil(whitespace, 0, LogParams.REMOTE_ADDR, false);
+        position = expect(buffer, position, length, USER_SEPARATOR);
+        position = readUntil(whitespace, position, LogParams.REMOTE_USER, false);
+        position = expect(buffer, position, length, TIMESTAMP_START);
+        return readUntil(brackets, position, LogParams.TIMESTAMP, false);
+    }
+
+    /**
+     * Reads bytes up to the next delimiter recorded in the bitmap, or up to the end of the line.
+     */
+    private int readUntil(long[] delimiters, int position, LogParams param, boolean allowEmpty) {
+        if (position == NOT_FOUND) {
+            return NOT_FOUND;
+        }
+        return setBounds(bounds, param, position, nextDelimiter(delimiters, position), allowEmpty);
+    }
+
+    /**
+     * Finds the first delimiter at or after the position.
+     *
+     * @return the offset of the delimiter, or the length of the line if there is no delimiter
+     */
+    private int nextDelimiter(long[] delimiters, int position) {
+        int words = (length + BIT_MASK) >>> WORD_SHIFT;
+        int word = position >>> WORD_SHIFT;
+        if (word >= words) {
+            return length;
+        }
+        long bits = delimiters[word] & (-1L << (position & BIT_MASK));
+        while (bits == 0) {
+            if (++word == words) {
+                return length;
+            }
+            bits = delimiters[word];
+        }
+        return (word << WORD_SHIFT) + Long.numberOfTrailingZeros(bits);
+    }
+}
@@ -0,0 +1,43 @@
+package backend.academy.logAnalyzer.tokenizers;
+
+import java.util.function.Supplier;
+
+/**
+ * Enumeration of the available log line tokenizers.
+ */
+public enum TokenizerType {
+    /**
+     * The single-pass byte-level tokenizer of the combined log format.
+     */
+    COMBINED(CombinedLogTokenizer::new),
+
+    /**
+     * The regular expression based tokenizer.
+     */
+    REGEX(RegexLogTokenizer::new),
+
+    /**
+     * The tokenizer of the combined log format which locates delimiters with the Vector API when it is available.
+     */
+    SIMD(SimdLogTokenizer::new);
+
+    private final Supplier<LogTokenizer> factory;
+
+    /**
+     * Constructs a TokenizerType with the specified tokenizer factory.
+     *
+     * @param factory the factory producing new tokenizers of this type.
+     */
+    TokenizerType(Supplier<LogTokenizer> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Creates a new tokenizer of this type.
+     *
+     * @return a new tokenizer, which must be used by a single thread only.
+     */
+    public LogTokenizer create() {
+        return factory.get();
+    }
+}
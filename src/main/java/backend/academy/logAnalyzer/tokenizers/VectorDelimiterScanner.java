@@ -0,0 +1,53 @@
+package backend.academy.logAnalyzer.tokenizers;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The delimiter scanner built on the Vector API. Every 64 bytes are compared with the delimiters by
+ * {@code 64 / lanes} vector comparisons (a single one with AVX-512, two with AVX2), and the comparison masks
+ * become the bitmap words directly. The last incomplete vector is loaded with a mask, so the bytes after the
+ * scanned range are never read.
+ *
+ * <p>The class must be loaded only when the {@code jdk.incubator.vector} module is present, which is checked by
+ * {@link DelimiterScanner#best()}. It is the only class compiled with the module, by a separate execution of
+ * the compiler.
+ */
+final class VectorDelimiterScanner implements DelimiterScanner {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED.length() <= BYTES_PER_WORD
+        ? ByteVector.SPECIES_PREFERRED : ByteVector.SPECIES_512;
+    private static final int LANES = SPECIES.length();
+    private static final byte SPACE = ' ';
+    private static final byte QUOTE = '"';
+    private static final byte BRACKET = ']';
+    private static final byte FIRST_CONTROL_WHITESPACE = '\t';
+    private static final byte CONTROL_WHITESPACE_RANGE = '\r' - '\t';
+
+    @Override
+    public void scan(byte[] buffer, int length, long[] whitespace, long[] quotes, long[] brackets) {
+        int words = (length + BYTES_PER_WORD - 1) / BYTES_PER_WORD;
+        for (int word = 0; word < words; word++) {
+            long whitespaceBits = 0;
+            long quoteBits = 0;
+            long bracketBits = 0;
+            for (int lane = 0; lane < BYTES_PER_WORD; lane += LANES) {
+                int offset = word * BYTES_PER_WORD + lane;
+                if (offset >= length) {
+                    break;
+                }
+                ByteVector vector = offset + LANES <= length ? ByteVector.fromArray(SPECIES, buffer, offset)
+                    : ByteVector.fromArray(SPECIES, buffer, offset, SPECIES.indexInRange(offset, length));
+                VectorMask<Byte> controlWhitespace = vector.sub(FIRST_CONTROL_WHITESPACE)
+                    .compare(VectorOperators.UNSIGNED_LE, CONTROL_WHITESPACE_RANGE);
+                whitespaceBits |= vector.compare(VectorOperators.EQ, SPACE).or(controlWhitespace).toLong() << lane;
+                quoteBits |= vector.compare(VectorOperators.EQ, QUOTE).toLong() << lane;
+                bracketBits |= vector.compare(VectorOperators.EQ, BRACKET).toLong() << lane;
+            }
+            whitespace[word] = whitespaceBits;
+            quotes[word] = quoteBits;
+            brackets[word] = bracketBits;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.filters.AgentFilter;
+import backend.academy.logAnalyzer.tokenizers.ByteSlice;
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.Pattern;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AgentFilterTest {
+    private static final List<String> AGENTS = List.of(
+        "Debian APT-HTTP/1.3 (0.8.16~exp12ubuntu10.21)",
+        "Debian APT-HTTP/1.3 (0.8.10.3)",
+        "Mozilla/5.0 (X11; Linux x86_64)",
+        "curl/8.0.1",
+        "Opera/9.80 (Ünicode)",
+        ""
+    );
+
+    private static final List<String> FILTERS = List.of(
+        "curl/8.0.1",
+        "Debian*",
+        "*(0.8.10.3)",
+        "*APT*",
+        "*",
+        "**",
+        "Debian APT-HTTP/1.3 (0.8.10.3)",
+        "Mozilla/5.0 (X11; Linux x86_64)",
+        "Mozilla",
+        "curl/8.0.?",
+        "",
+        "*Linux*",
+        "*Ünicode*",
+        "Opera*"
+    );
+
+    @Test
+    void shouldMatchSameAgentsAsRegexFilter() {
+        for (String filter : FILTERS) {
+            AgentFilter agentFilter = AgentFilter.compile(filter);
+            for (String agent : AGENTS) {
+                assertEquals(matchesRegex(filter, agent), agentFilter.matches(agent), filter + " / " + agent);
+            }
+        }
+    }
+
+    @Test
+    void shouldMatchSameAgentsAsBytesAndStrings() {
+        for (String filter : FILTERS) {
+            AgentFilter agentFilter = AgentFilter.compile(filter);
+            for (String agent : AGENTS) {
+                byte[] line = ("\"" + agent + "\"").getBytes(StandardCharsets.UTF_8);
+                ByteSlice slice = new ByteSlice().set(line, 1, line.length - 1);
+                assertEquals(agentFilter.matches(agent), agentFilter.matches(slice), filter + " / " + agent);
+            }
+        }
+    }
+
+    @Test
+    void shouldAcceptAllWithoutFilter() {
+        AgentFilter agentFilter = AgentFilter.compile(null);
+        assertTrue(agentFilter.acceptsAll());
+        assertTrue(agentFilter.matches("curl/8.0.1"));
+    }
+
+    @Test
+    void shouldNotAcceptAllWithPrefixFilter() {
+        AgentFilter agentFilter = AgentFilter.compile("Debian*");
+        assertFalse(agentFilter.acceptsAll());
+        assertFalse(agentFilter.matches("curl/8.0.1"));
+    }
+
+    @Test
+    void shouldMatchInvalidRegexAsLiteralGlob() {
+        AgentFilter agentFilter = AgentFilter.compile("Debian*10.3)");
+        assertTrue(agentFilter.matches("Debian APT-HTTP/1.3 (0.8.10.3)"));
+        assertFalse(agentFilter.matches("Debian APT-HTTP/1.3 (0.8.10.3"));
+    }
+
+    private static boolean matchesRegex(String filter, String agent) {
+        return Pattern.compile(filter.replace("*", ".*")).matcher(agent).matches() || agent.equals(filter);
+    }
+}
@@ -0,0 +1,50 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.logs.FileChunk;
+import backend.academy.logAnalyzer.logs.LineSource;
+import backend.academy.logAnalyzer.logs.LogFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ByteLineReaderTest {
+    private static final Path LOG_FILE = Path.of("logs/10LinesTest.txt");
+
+    @Test
+    void shouldReadRawLinesSameAsDecodingReader(@TempDir Path directory) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] sample = Files.readAllBytes(LOG_FILE);
+        for (int i = 0; i < 1000; i++) {
+            content.write(sample);
+        }
+        content.write("crlf line\r\n\r\nutf-8 line: café 日本\n".getBytes(StandardCharsets.UTF_8));
+        content.write(new byte[] {'b', 'a', 'd', ' ', (byte) 0xFF, (byte) 0xC3, '\n'});
+        content.write("x".repeat(3 * 1024 * 1024).getBytes(StandardCharsets.US_ASCII));
+        content.write("\nlast line without a line feed".getBytes(StandardCharsets.US_ASCII));
+        Path file = directory.resolve("access.log");
+        Files.write(file, content.toByteArray());
+
+        List<String> expected;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(file),
+            StandardCharsets.UTF_8))) {
+            expected = reader.lines().toList();
+        }
+        assertEquals(expected, readAll(new LogFile(file, Files.size(file))));
+        assertEquals(expected, readAll(new FileChunk(file, 0, Files.size(file))));
+    }
+
+    private static List<String> readAll(LineSource source) throws IOException {
+        List<String> lines = new ArrayList<>();
+        source.forEachLine(lines::add);
+        return lines;
+    }
+}
@@ -0,0 +1,67 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.logs.Compression;
+import backend.academy.logAnalyzer.logs.LogFile;
+import backend.academy.logAnalyzer.logs.ReadAhead;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressionTest {
+    private static final Path LOG_FILE = Path.of("logs/10LinesTest.txt");
+
+    @Test
+    void shouldReadGzipFileSameAsPlainFile(@TempDir Path directory) throws IOException {
+        List<String> expected = Collections.nCopies(1000, Files.readAllLines(LOG_FILE)).stream()
+            .flatMap(List::stream).toList();
+        Path compressed = directory.resolve("access.log.2.gz");
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+            output.write((String.join("\n", expected) + "\n").getBytes());
+        }
+        assertTrue(Compression.isGzip(compressed));
+        assertFalse(Compression.isGzip(LOG_FILE));
+        List<String> lines = new ArrayList<>();
+        ReadAhead readAhead = new ReadAhead(4096, 0);
+        new LogFile(compressed, Files.size(compressed), readAhead).forEachLine(lines::add);
+        assertEquals(expected, lines);
+        assertTrue(readAhead.blocks() > 0);
+    }
+
+    @Test
+    void shouldDecompressOnlyGzipStreams() throws IOException {
+        byte[] bytes = Files.readAllBytes(LOG_FILE);
+        try (InputStream input = Compression.decompressIfGzip(new ByteArrayInputStream(bytes),
+            ReadAhead.DISABLED)) {
+            assertArrayEquals(bytes, input.readAllBytes());
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(bytes);
+        }
+        try (InputStream input = Compression.decompressIfGzip(new ByteArrayInputStream(compressed.toByteArray()),
+            ReadAhead.DISABLED)) {
+            assertArrayEquals(bytes, input.readAllBytes());
+        }
+        byte[] truncated = Arrays.copyOf(compressed.toByteArray(), compressed.size() / 2);
+        try (InputStream input = Compression.decompressIfGzip(new ByteArrayInputStream(truncated),
+            ReadAhead.DISABLED)) {
+            assertThrows(IOException.class, input::readAllBytes);
+        }
+    }
+}
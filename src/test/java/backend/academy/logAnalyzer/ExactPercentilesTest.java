@@ -0,0 +1,90 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.logs.AnalyzerOptions;
+import backend.academy.logAnalyzer.logs.CollectedData;
+import backend.academy.logAnalyzer.logs.LogAnalyzer;
+import backend.academy.logAnalyzer.logs.PercentileMode;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExactPercentilesTest {
+    private static final List<Double> PERCENTILES = List.of(0.0, 7.0, 50.0, 90.0, 95.0, 99.0, 99.9, 99.99, 100.0);
+    private static final int FILES = 4;
+    private static final int LINES_PER_FILE = 10_000;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldSelectExactPercentilesInMemoryAndOnDisk() throws IOException {
+        long[] sizes = writeLogs(new Random(7));
+        Arrays.sort(sizes);
+        String pattern = directory + "/access.log.*";
+        AnalyzerOptions exact = AnalyzerOptions.builder().threads(FILES).percentiles(PERCENTILES)
+            .percentileMode(PercentileMode.EXACT).build();
+
+        for (long memoryBudget : new long[] {AnalyzerOptions.DEFAULT_EXACT_MEMORY_BUDGET, 1}) {
+            CollectedData collectedData = new LogAnalyzer(exact.toBuilder().exactMemoryBudget(memoryBudget).build())
+                .analyze(pattern, null, null, null);
+
+            for (double percentile : PERCENTILES) {
+                assertEquals(nearestRank(sizes, percentile), collectedData.sizePercentiles().get(percentile),
+                    "p" + percentile + " with a budget of " + memoryBudget + " bytes");
+            }
+            assertEquals(nearestRank(sizes, 95), collectedData.percentile());
+        }
+    }
+
+    @Test
+    void shouldEstimatePercentilesWithinPrecisionOfExactOnes() throws IOException {
+        writeLogs(new Random(11));
+        String pattern = directory + "/access.log.*";
+        AnalyzerOptions options = AnalyzerOptions.builder().percentiles(PERCENTILES).histogramDigits(2).build();
+
+        CollectedData estimated = new LogAnalyzer(options).analyze(pattern, null, null, null);
+        CollectedData exact = new LogAnalyzer(options.toBuilder().percentileMode(PercentileMode.EXACT).build())
+            .analyze(pattern, null, null, null);
+
+        for (double percentile : PERCENTILES) {
+            long estimate = estimated.sizePercentiles().get(percentile);
+            long value = exact.sizePercentiles().get(percentile);
+            assertTrue(estimate >= value && estimate - value <= value / 100,
+                "p" + percentile + ": " + estimate + " instead of " + value);
+        }
+        assertEquals(exact.responseSizes(), estimated.responseSizes());
+    }
+
+    /**
+     * Writes log files with response sizes spread over several orders of magnitude, many of them repeated.
+     */
+    private long[] writeLogs(Random random) throws IOException {
+        long[] sizes = new long[FILES * LINES_PER_FILE];
+        for (int file = 0; file < FILES; file++) {
+            try (PrintStream printer = new PrintStream(Files.newOutputStream(directory.resolve("access.log." + file)),
+                false, StandardCharsets.UTF_8)) {
+                for (int line = 0; line < LINES_PER_FILE; line++) {
+                    long size = random.nextInt(4) == 0 ? 490 : (long) Math.exp(random.nextDouble() * 20);
+                    sizes[file * LINES_PER_FILE + line] = size;
+                    printer.printf("93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" "
+                        + "200 %d \"-\" \"Debian APT-HTTP/1.3 (0.8.16~exp12ubuntu10.21)\"%n", size);
+                }
+            }
+        }
+        return sizes;
+    }
+
+    private static long nearestRank(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(Math.round(percentile * sorted.length * 100) / 10_000.0);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+}
@@ -0,0 +1,49 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.logs.AnalyzerOptions;
+import backend.academy.logAnalyzer.logs.CollectedData;
+import backend.academy.logAnalyzer.logs.FileChunk;
+import backend.academy.logAnalyzer.logs.LogAnalyzer;
+import backend.academy.logAnalyzer.logs.ReadMode;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileChunkTest {
+    private static final Path LOG_FILE = Path.of("logs/10LinesTest.txt");
+
+    @Test
+    void shouldSplitFileIntoNewlineAlignedChunks() throws IOException {
+        List<FileChunk> chunks = FileChunk.split(LOG_FILE, 300);
+        assertTrue(chunks.size() > 1);
+        assertEquals(0, chunks.getFirst().start());
+        assertEquals(Files.size(LOG_FILE), chunks.getLast().end());
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            if (i > 0) {
+                assertEquals(chunks.get(i - 1).end(), chunks.get(i).start());
+            }
+            chunks.get(i).forEachLine(lines::add);
+        }
+        assertEquals(Files.readAllLines(LOG_FILE), lines);
+    }
+
+    @Test
+    void shouldCollectSameDataWithMappedFiles() {
+        CollectedData mapped = new LogAnalyzer(AnalyzerOptions.builder().readMode(ReadMode.MAPPED).build())
+            .analyze("logs/10LinesTest.txt", null, null, null);
+        CollectedData lines = new LogAnalyzer().analyze("logs/10LinesTest.txt", null, null, null);
+        assertEquals(lines.totalRequests(), mapped.totalRequests());
+        assertEquals(lines.totalResponseSize(), mapped.totalResponseSize());
+        assertEquals(lines.ips(), mapped.ips());
+        assertEquals(lines.users(), mapped.users());
+        assertEquals(lines.resourceFrequency(), mapped.resourceFrequency());
+        assertEquals(lines.percentile(), mapped.percentile());
+        assertEquals(lines.rejects().lines(), mapped.rejects().lines());
+    }
+}
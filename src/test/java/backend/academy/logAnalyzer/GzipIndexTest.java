@@ -0,0 +1,145 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.logs.AnalyzerOptions;
+import backend.academy.logAnalyzer.logs.CollectedData;
+import backend.academy.logAnalyzer.logs.GzipIndex;
+import backend.academy.logAnalyzer.logs.IndexingGzipFile;
+import backend.academy.logAnalyzer.logs.LineSource;
+import backend.academy.logAnalyzer.logs.LogAnalyzer;
+import backend.academy.logAnalyzer.logs.LogFile;
+import backend.academy.logAnalyzer.logs.LogFileFinder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GzipIndexTest {
+    private static final Path LOG_FILE = Path.of("logs/10LinesTest.txt");
+    private static final int COPIES = 5000;
+    private static final long SPAN = 4096;
+
+    @Test
+    void shouldReadChunksSameAsWholeFile(@TempDir Path directory) throws IOException {
+        List<String> expected = sampleLines();
+        for (int level : new int[] {Deflater.NO_COMPRESSION, Deflater.BEST_SPEED, Deflater.BEST_COMPRESSION}) {
+            for (int strategy : new int[] {Deflater.DEFAULT_STRATEGY, Deflater.HUFFMAN_ONLY}) {
+                Path compressed = directory.resolve("access.log." + level + "." + strategy + ".gz");
+                writeGzip(compressed, expected, level, strategy, false);
+                GzipIndex index = GzipIndex.build(compressed, SPAN);
+                assertTrue(index.checkpoints().size() > 1);
+                assertEquals(expected, readAll(index.chunks()));
+            }
+        }
+    }
+
+    @Test
+    void shouldReadMultiMemberFile(@TempDir Path directory) throws IOException {
+        List<String> expected = sampleLines();
+        Path compressed = directory.resolve("access.log.2.gz");
+        writeGzip(compressed, expected.subList(0, expected.size() / 2), Deflater.DEFAULT_COMPRESSION,
+            Deflater.DEFAULT_STRATEGY, false);
+        writeGzip(compressed, expected.subList(expected.size() / 2, expected.size()), Deflater.BEST_SPEED,
+            Deflater.DEFAULT_STRATEGY, true);
+        GzipIndex index = GzipIndex.build(compressed, SPAN);
+        assertEquals(expected, readAll(index.chunks()));
+    }
+
+    @Test
+    void shouldSaveIndexOnFirstReadAndDropItWhenFileChanges(@TempDir Path directory) throws IOException {
+        List<String> expected = sampleLines();
+        Path compressed = directory.resolve("access.log.2.gz");
+        writeGzip(compressed, expected, Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY, false);
+        assertNull(GzipIndex.load(compressed));
+        List<String> lines = new ArrayList<>();
+        new IndexingGzipFile(new LogFile(compressed, Files.size(compressed)), SPAN).forEachLine(lines::add);
+        assertEquals(expected, lines);
+        assertTrue(Files.exists(GzipIndex.sidecarOf(compressed)));
+        GzipIndex index = GzipIndex.load(compressed);
+        assertNotNull(index);
+        assertEquals(GzipIndex.build(compressed, SPAN).checkpoints().size(), index.checkpoints().size());
+        assertEquals(expected, readAll(index.chunks()));
+        Files.setLastModifiedTime(compressed, FileTime.fromMillis(index.lastModified() + 1000));
+        assertNull(GzipIndex.load(compressed));
+    }
+
+    @Test
+    void shouldRejectCorruptedMemberWithoutSavingIndex(@TempDir Path directory) throws IOException {
+        List<String> expected = sampleLines();
+        Path compressed = directory.resolve("access.log.2.gz");
+        writeGzip(compressed, expected.subList(0, expected.size() / 2), Deflater.DEFAULT_COMPRESSION,
+            Deflater.DEFAULT_STRATEGY, false);
+        writeGzip(compressed, expected.subList(expected.size() / 2, expected.size()), Deflater.NO_COMPRESSION,
+            Deflater.DEFAULT_STRATEGY, true);
+        byte[] bytes = Files.readAllBytes(compressed);
+        bytes[bytes.length - 1000] ^= 1;
+        Files.write(compressed, bytes);
+
+        assertThrows(ZipException.class, () -> GzipIndex.build(compressed, SPAN));
+        assertThrows(ZipException.class, () -> new IndexingGzipFile(new LogFile(compressed, Files.size(compressed)),
+            SPAN).forEachLine(line -> { }));
+        assertFalse(Files.exists(GzipIndex.sidecarOf(compressed)));
+    }
+
+    @Test
+    void shouldNotTakeIndexFilesForLogs(@TempDir Path directory) throws IOException {
+        Path compressed = directory.resolve("access.log.1.gz");
+        writeGzip(compressed, sampleLines(), Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY, false);
+        Files.createFile(directory.resolve("access.log.1.gz.gzidx123456789.tmp"));
+        LogAnalyzer analyzer = new LogAnalyzer(AnalyzerOptions.builder().gzipIndex(true).build());
+        CollectedData first = analyzer.analyze(compressed.toString(), null, null, null);
+        assertTrue(Files.exists(GzipIndex.sidecarOf(compressed)));
+
+        for (String pattern : List.of("access.log*", "*", "**")) {
+            List<Path> found = new LogFileFinder(null, 1).find(directory + "/" + pattern).stream()
+                .map(LogFile::file).toList();
+            CollectedData collectedData = new LogAnalyzer(AnalyzerOptions.builder().gzipIndex(true).build())
+                .analyze(directory + "/" + pattern, null, null, null);
+
+            assertEquals(List.of(compressed), found, pattern);
+            assertEquals(first.totalRequests(), collectedData.totalRequests(), pattern);
+            assertEquals(0, collectedData.rejects().malformed(), pattern);
+        }
+    }
+
+    private static List<String> sampleLines() throws IOException {
+        return Collections.nCopies(COPIES, Files.readAllLines(LOG_FILE)).stream().flatMap(List::stream).toList();
+    }
+
+    private static void writeGzip(Path file, List<String> lines, int level, int strategy, boolean append)
+        throws IOException {
+        OutputStream target = append ? Files.newOutputStream(file, StandardOpenOption.APPEND)
+            : Files.newOutputStream(file);
+        try (OutputStream output = new GZIPOutputStream(target) {
+            {
+                def.setLevel(level);
+                def.setStrategy(strategy);
+            }
+        }) {
+            output.write((String.join("\n", lines) + "\n").getBytes());
+        }
+    }
+
+    private static List<String> readAll(List<LineSource> sources) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (LineSource source : sources) {
+            source.forEachLine(lines::add);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,33 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.parsers.InputParser;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InputParserTest {
+    @Test
+    void shouldKeepUnquotedFilterValueOfCommandLine() {
+        assertEquals("curl", parseAgentValue("--path - --filter-field agent --filter-value curl"));
+        assertEquals("Debian APT-HTTP/1.3",
+            parseAgentValue("--path - --filter-field agent --filter-value Debian APT-HTTP/1.3 --format adoc"));
+        assertEquals("c", parseAgentValue("--path - --filter-field agent --filter-value c"));
+    }
+
+    @Test
+    void shouldStripQuotesOfFilterValueTypedIntoStandardInput() {
+        assertEquals("Debian APT-HTTP/1.3", parseAgentValue("--path logs/10LinesTest.txt --filter-field agent "
+            + "--filter-value \"Debian APT-HTTP/1.3\""));
+        assertEquals("Debian*", parseAgentValue("--path logs/10LinesTest.txt --filter-field agent "
+            + "--filter-value \"Debian*\" --format adoc"));
+    }
+
+    private static String parseAgentValue(String inputString) {
+        InputParser inputParser = new InputParser(new PrintStream(OutputStream.nullOutputStream()),
+            new ByteArrayInputStream(new byte[0]));
+        inputParser.parseData(inputString);
+        return inputParser.agentValue();
+    }
+}
@@ -0,0 +1,80 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.logs.IpAddresses;
+import backend.academy.logAnalyzer.logs.IpCounter;
+import backend.academy.logAnalyzer.tokenizers.ByteSlice;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IpAddressesTest {
+    @Test
+    void shouldPackAndFormatIpv4() {
+        for (String ip : List.of("0.0.0.0", "93.180.71.3", "217.168.17.5", "255.255.255.255")) {
+            long address = IpAddresses.parseIpv4(ip, 0, ip.length());
+            assertEquals(ip, IpAddresses.formatIpv4((int) address));
+        }
+    }
+
+    @Test
+    void shouldRejectMalformedIpv4() {
+        for (String ip : List.of("", "1.2.3", "1.2.3.4.5", "256.1.1.1", "01.2.3.4", "1..2.3", "1.2.3.4 ", "a.b.c.d")) {
+            assertEquals(IpAddresses.NOT_IPV4, IpAddresses.parseIpv4(ip, 0, ip.length()), ip);
+        }
+    }
+
+    @Test
+    void shouldFormatIpv6InCanonicalForm() {
+        Map<String, String> addresses = Map.of(
+            "2001:0db8:0000:0000:0000:0000:0000:0001", "2001:db8::1",
+            "2001:DB8:0:0:1:0:0:1", "2001:db8::1:0:0:1",
+            "::", "::",
+            "::1", "::1",
+            "fe80::", "fe80::",
+            "2001:db8:0:1:1:1:1:1", "2001:db8:0:1:1:1:1:1",
+            "::ffff:192.0.2.1", "::ffff:192.0.2.1",
+            "64:ff9b::192.0.2.33", "64:ff9b::c000:221"
+        );
+        int[] groups = new int[IpAddresses.IPV6_GROUPS];
+        addresses.forEach((ip, canonical) -> {
+            assertTrue(IpAddresses.parseIpv6(ip, groups), ip);
+            String formatted = IpAddresses.formatIpv6(IpAddresses.pack(groups, 0),
+                IpAddresses.pack(groups, IpAddresses.IPV6_GROUPS / 2));
+            assertEquals(canonical, formatted);
+        });
+    }
+
+    @Test
+    void shouldRejectMalformedIpv6() {
+        int[] groups = new int[IpAddresses.IPV6_GROUPS];
+        for (String ip : List.of("", ":", ":::", "1::2::3", "1:2:3:4:5:6:7", "1:2:3:4:5:6:7:8:9", "1:2:3:4::5:6:7:8",
+            "12345::", "1:", ":1", "1.2.3.4::", "::1.2.3", "g::1", "localhost")) {
+            assertFalse(IpAddresses.parseIpv6(ip, groups), ip);
+        }
+    }
+
+    @Test
+    void shouldCountEqualAddressesTogether() {
+        IpCounter counter = new IpCounter();
+        for (String ip : List.of("93.180.71.3", "2001:db8::1", "2001:DB8:0::1", "93.180.71.3", "localhost",
+            "localhost", "93.180.71.3")) {
+            byte[] bytes = ip.getBytes(StandardCharsets.UTF_8);
+            counter.increment(new ByteSlice().set(bytes, 0, bytes.length));
+        }
+        for (int i = 0; i < 100; i++) {
+            byte[] bytes = ("fe80::" + Integer.toHexString(i)).getBytes(StandardCharsets.UTF_8);
+            counter.increment(new ByteSlice().set(bytes, 0, bytes.length));
+        }
+        Object2LongMap<String> counters = counter.toMap();
+        assertEquals(103, counters.size());
+        assertEquals(1, counters.getLong("fe80::63"));
+        assertEquals(3, counters.getLong("93.180.71.3"));
+        assertEquals(2, counters.getLong("2001:db8::1"));
+        assertEquals(2, counters.getLong("localhost"));
+    }
+}
@@ -1,7 +1,10 @@
 package backend.academy.logAnalyzer;
 
+import backend.academy.logAnalyzer.logs.AnalyzerOptions;
 import backend.academy.logAnalyzer.logs.CollectedData;
 import backend.academy.logAnalyzer.logs.LogAnalyzer;
+import backend.academy.logAnalyzer.logs.RejectReason;
+import backend.academy.logAnalyzer.tokenizers.TokenizerType;
 import org.junit.jupiter.api.Test;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -70,14 +73,14 @@ class LogAnalyzerTest {
     void shouldReturn5() {
         LogAnalyzer logAnalyzer = new LogAnalyzer();
         CollectedData collectedData = logAnalyzer.analyze("logs/10LinesTest.txt", null, null, null);
-        assertEquals(5, collectedData.users().get("usr").get());
+        assertEquals(5, collectedData.users().getLong("usr"));
     }
 
     @Test
     void shouldReturn8TimesProduct1() {
         LogAnalyzer logAnalyzer = new LogAnalyzer();
         CollectedData collectedData = logAnalyzer.analyze("logs/10LinesTest.txt", null, null, null);
-        assertEquals(8, collectedData.resourceFrequency().get("/downloads/product_1").get());
+        assertEquals(8, collectedData.resourceFrequency().getLong("/downloads/product_1"));
     }
 
     @Test
@@ -86,4 +89,33 @@ class LogAnalyzerTest {
         CollectedData collectedData = logAnalyzer.analyze("logs/10LinesTest.txt", null, null, null);
         assertEquals(490.00, collectedData.percentile());
     }
+
+    @Test
+    void shouldCollectSameDataWithRegexTokenizer() {
+        CollectedData combined = new LogAnalyzer(TokenizerType.COMBINED)
+            .analyze("logs/10LinesTest.txt", null, null, null);
+        CollectedData regex = new LogAnalyzer(TokenizerType.REGEX)
+            .analyze("logs/10LinesTest.txt", null, null, null);
+        assertEquals(regex.totalRequests(), combined.totalRequests());
+        assertEquals(regex.totalResponseSize(), combined.totalResponseSize());
+        assertEquals(regex.ips(), combined.ips());
+        assertEquals(regex.users(), combined.users());
+        assertEquals(regex.resourceFrequency(), combined.resourceFrequency());
+        assertEquals(regex.responseCodes().toString(), combined.responseCodes().toString());
+    }
+
+    @Test
+    void shouldCollectSameDataWithParallelWorkers() {
+        CollectedData sequential = new LogAnalyzer(AnalyzerOptions.builder().threads(1).build())
+            .analyze("logs/*.txt", null, null, null);
+        CollectedData parallel = new LogAnalyzer(AnalyzerOptions.builder().threads(4).build())
+            .analyze("logs/*.txt", null, null, null);
+        assertEquals(20, parallel.rejects().lines());
+        assertEquals(10, parallel.rejects().rejected(RejectReason.NO_MATCH));
+        assertEquals(sequential.totalRequests(), parallel.totalRequests());
+        assertEquals(sequential.ips(), parallel.ips());
+        assertEquals(sequential.users(), parallel.users());
+        assertEquals(sequential.resourceFrequency(), parallel.resourceFrequency());
+        assertEquals(sequential.responseSizes(), parallel.responseSizes());
+    }
 }
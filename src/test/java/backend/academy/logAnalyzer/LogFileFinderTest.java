@@ -0,0 +1,73 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.logs.LogFile;
+import backend.academy.logAnalyzer.logs.LogFileFinder;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LogFileFinderTest {
+    private static final int LARGE_DIRECTORY = 1500;
+
+    @TempDir
+    private Path root;
+
+    @Test
+    void findsTheSameFilesAsFullWalk() throws IOException {
+        for (String file : List.of("a/x.log", "a/y.txt", "a/sub/x.log", "b/x.log", "b/c/d/x.log", "x.log",
+            "nginx/access.log", "nginx/access.log.1.gz", "nginx/error.log")) {
+            Files.createDirectories(root.resolve(file).getParent());
+            Files.writeString(root.resolve(file), file);
+        }
+        for (int i = 0; i < LARGE_DIRECTORY; i++) {
+            Files.createFile(root.resolve("a/sub/" + i + (i % 2 == 0 ? ".log" : ".txt")));
+        }
+
+        for (String pattern : List.of("*/x.log", "a/*/*.log", "**/x.log", "**.log", "nginx/access*",
+            "{a,b}/x.log", "{a,b/c}/**", "a/sub/1?.log", "nginx/error.log", "missing*/x.log")) {
+            String absolute = root + "/" + pattern;
+            List<Path> found = new LogFileFinder(null, 2).find(absolute).stream().map(LogFile::file).toList();
+
+            assertEquals(fullWalk(absolute), found, pattern);
+        }
+    }
+
+    @Test
+    void reusesListingsOfUnchangedDirectories() throws IOException {
+        Path cache = root.resolve("cache/listings");
+        Path logs = Files.createDirectories(root.resolve("logs"));
+        Files.createFile(logs.resolve("access.log"));
+        FileTime past = FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS));
+        Files.setLastModifiedTime(logs, past);
+        String pattern = logs + "/*.log";
+
+        assertEquals(1, new LogFileFinder(cache, 1).find(pattern).size());
+        assertTrue(Files.exists(cache));
+
+        Files.createFile(logs.resolve("error.log"));
+        Files.setLastModifiedTime(logs, past);
+        assertEquals(1, new LogFileFinder(cache, 1).find(pattern).size());
+
+        Files.setLastModifiedTime(logs, FileTime.from(Instant.now()));
+        assertEquals(2, new LogFileFinder(cache, 1).find(pattern).size());
+        assertEquals(2, new LogFileFinder(null, 1).find(pattern).size());
+    }
+
+    private List<Path> fullWalk(String pattern) throws IOException {
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).filter(matcher::matches).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.logs.AnalyzerOptions;
+import backend.academy.logAnalyzer.logs.CollectedData;
+import backend.academy.logAnalyzer.logs.LogAnalyzer;
+import backend.academy.logAnalyzer.logs.LogParams;
+import backend.academy.logAnalyzer.tokenizers.CombinedLogTokenizer;
+import backend.academy.logAnalyzer.tokenizers.LogFormat;
+import backend.academy.logAnalyzer.tokenizers.LogTokenizer;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogFormatTest {
+    private static final String CUSTOM_DIRECTIVE = "log_format timed '$remote_addr - $remote_user [$time_local] "
+        + "\"$request\" $status $body_bytes_sent ' '\"$http_referer\" \"$http_user_agent\" $request_time "
+        + "$upstream_response_time ${host}';";
+    private static final String CUSTOM_LINE = "93.180.71.3 - alice [17/May/2015:08:05:32 +0000] "
+        + "\"GET /downloads/product_1 HTTP/1.1\" 200 490 \"-\" \"Debian APT-HTTP/1.3\" 0.012 0.010 example.com";
+
+    @Test
+    void shouldTokenizeCombinedFormatSameAsCombinedTokenizer() throws IOException {
+        LogTokenizer compiled = LogFormat.parse(LogFormat.COMBINED).compile(EnumSet.allOf(LogParams.class)).get();
+        List<String> lines = new ArrayList<>(Files.readAllLines(Path.of("logs/10LinesTest.txt")));
+        lines.add("93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET / HTTP/1.1\" 2000 0 \"-\" \"agent\"");
+        lines.add("93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET / HTTP/1.1\" 200 - \"-\" \"agent\"");
+        lines.add("93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET / HTTP/1.1\" 200 0 \"-\" \"ag\"ent\"");
+        lines.add("93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET / HTTP/1.1\" 200 0 \"\" \"\"");
+        for (String line : lines) {
+            LogTokenizer combined = new CombinedLogTokenizer();
+            boolean matched = combined.tokenize(line);
+            assertEquals(matched, compiled.tokenize(line), line);
+            if (matched) {
+                for (LogParams param : LogParams.values()) {
+                    assertEquals(combined.field(param), compiled.field(param), line);
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldExtractFieldsOfCustomDirective() {
+        LogTokenizer tokenizer = LogFormat.parse(CUSTOM_DIRECTIVE).compile(EnumSet.allOf(LogParams.class)).get();
+        assertTrue(tokenizer.tokenize(CUSTOM_LINE));
+        assertEquals("alice", tokenizer.field(LogParams.REMOTE_USER));
+        assertEquals("GET /downloads/product_1 HTTP/1.1", tokenizer.field(LogParams.REQUEST));
+        assertEquals("490", tokenizer.field(LogParams.BODY_BYTES_SENT));
+        assertEquals("Debian APT-HTTP/1.3", tokenizer.field(LogParams.HTTP_USER_AGENT));
+        assertFalse(tokenizer.tokenize(CUSTOM_LINE.substring(0, CUSTOM_LINE.indexOf("\" 0.012"))));
+    }
+
+    @Test
+    void shouldStopAfterLastNeededField() {
+        Set<LogParams> params = EnumSet.of(LogParams.TIMESTAMP, LogParams.STATUS);
+        LogTokenizer tokenizer = LogFormat.parse(CUSTOM_DIRECTIVE).compile(params).get();
+        String truncated = CUSTOM_LINE.substring(0, CUSTOM_LINE.indexOf(" 490"));
+        assertFalse(tokenizer.tokenize(truncated));
+        assertTrue(tokenizer.tokenize(truncated + " garbage"));
+        assertEquals("200", tokenizer.field(LogParams.STATUS));
+    }
+
+    @Test
+    void shouldRejectInvalidFormats() {
+        Set<LogParams> all = EnumSet.allOf(LogParams.class);
+        assertThrows(IllegalArgumentException.class, () -> LogFormat.parse("$remote_addr$remote_user"));
+        assertThrows(IllegalArgumentException.class, () -> LogFormat.parse("log_format main '$status"));
+        assertThrows(IllegalArgumentException.class, () -> LogFormat.parse("log_format main;"));
+        assertThrows(IllegalArgumentException.class, () -> LogFormat.parse("$remote_addr [$time_local]").compile(all));
+    }
+
+    @Test
+    void shouldCollectSameDataWithCustomFormat() {
+        LogFormat format = LogFormat.parse(LogFormat.COMBINED + " $request_time $host");
+        CollectedData custom = new LogAnalyzer(AnalyzerOptions.builder().logFormat(format).build())
+            .analyze("logs/10LinesCustomFormatTest.txt", null, null, "Debian*");
+        CollectedData combined = new LogAnalyzer().analyze("logs/10LinesTest.txt", null, null, "Debian*");
+        assertEquals(combined.totalRequests(), custom.totalRequests());
+        assertEquals(combined.totalResponseSize(), custom.totalResponseSize());
+        assertEquals(combined.ips(), custom.ips());
+        assertEquals(combined.resourceFrequency(), custom.resourceFrequency());
+    }
+}
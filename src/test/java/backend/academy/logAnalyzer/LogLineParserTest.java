@@ -0,0 +1,96 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.exceptions.TooManyRejectedLinesException;
+import backend.academy.logAnalyzer.filters.LogFilter;
+import backend.academy.logAnalyzer.logs.AnalyzerOptions;
+import backend.academy.logAnalyzer.logs.CollectedData;
+import backend.academy.logAnalyzer.logs.LogAnalyzer;
+import backend.academy.logAnalyzer.logs.LogLineParser;
+import backend.academy.logAnalyzer.logs.RejectCounters;
+import backend.academy.logAnalyzer.logs.RejectPolicy;
+import backend.academy.logAnalyzer.logs.RejectReason;
+import backend.academy.logAnalyzer.tokenizers.CombinedLogTokenizer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LogLineParserTest {
+    @TempDir
+    private Path directory;
+
+    private static final String LINE = "93.180.71.3 - - [17/May/2015:08:05:32 +0000] "
+        + "\"GET /downloads/product_1 HTTP/1.1\" 304 0 \"-\" \"Debian APT-HTTP/1.3\"";
+
+    @Test
+    void shouldCountRejectedLinesPerReason() {
+        LogLineParser parser = new LogLineParser(new CombinedLogTokenizer(),
+            LogFilter.of(null, null, "Debian*"), RejectPolicy.DEFAULT);
+        assertNotNull(parser.parse(LINE));
+        assertNull(parser.parse("garbage"));
+        assertNull(parser.parse(LINE.replace("May", "Mai")));
+        assertNull(parser.parse(LINE.replace(" 0 ", " 99999999999999999999 ")));
+        assertNull(parser.parse(LINE.replace("Debian", "Wget")));
+        RejectCounters counters = parser.rejectCounters();
+        assertEquals(5, counters.lines());
+        assertEquals(3, counters.malformed());
+        assertEquals(1, counters.rejected(RejectReason.NO_MATCH));
+        assertEquals(1, counters.rejected(RejectReason.BAD_TIMESTAMP));
+        assertEquals(1, counters.rejected(RejectReason.BAD_SIZE));
+        assertEquals(1, counters.rejected(RejectReason.FILTERED_BY_AGENT));
+    }
+
+    @Test
+    void shouldAbortWhenTooManyLinesAreMalformed() {
+        LogLineParser parser = new LogLineParser(new CombinedLogTokenizer(),
+            LogFilter.of(LocalDateTime.of(2020, 1, 1, 0, 0), null, null), new RejectPolicy(4, 0.5));
+        parser.parse("garbage");
+        parser.parse(LINE);
+        parser.parse("garbage");
+        assertThrows(TooManyRejectedLinesException.class, () -> parser.parse("garbage"));
+        parser.parse("garbage");
+    }
+
+    @Test
+    void shouldApplyRejectPolicyToEverySourceOfWorker() throws IOException {
+        Files.write(directory.resolve("a.log"), List.of(LINE, LINE, LINE, "garbage"));
+        Files.write(directory.resolve("b.log"), List.of("garbage", "garbage", "garbage", "garbage"));
+        LogAnalyzer analyzer = new LogAnalyzer(AnalyzerOptions.builder().threads(1)
+            .rejectPolicy(new RejectPolicy(4, 0.5)).build());
+
+        assertThrows(TooManyRejectedLinesException.class, () -> analyzer.analyze(directory + "/*.log", null, null,
+            null));
+        Files.delete(directory.resolve("b.log"));
+        assertEquals(3, analyzer.analyze(directory + "/*.log", null, null, null).totalRequests());
+    }
+
+    @Test
+    void shouldApplyRejectPolicyToManyShortSources() throws IOException {
+        for (int i = 0; i < 20; i++) {
+            Files.write(directory.resolve(i + ".log"), List.of(LINE, "garbage", "garbage"));
+        }
+        for (int threads : new int[] {1, 4}) {
+            LogAnalyzer analyzer = new LogAnalyzer(AnalyzerOptions.builder().threads(threads)
+                .rejectPolicy(new RejectPolicy(10, 0.5)).build());
+            assertThrows(TooManyRejectedLinesException.class, () -> analyzer.analyze(directory + "/*.log", null,
+                null, null));
+        }
+    }
+
+    @Test
+    void shouldReportLinesFilteredByDate() {
+        CollectedData collectedData = new LogAnalyzer()
+            .analyze("logs/10LinesTest.txt", LocalDateTime.of(2019, 5, 17, 8, 5, 32), null, null);
+        assertEquals(10, collectedData.rejects().lines());
+        assertEquals(collectedData.rejects().lines() - collectedData.totalRequests(),
+            collectedData.rejects().rejected(RejectReason.FILTERED_BY_DATE));
+        assertEquals(0, collectedData.rejects().malformed());
+    }
+}
@@ -0,0 +1,79 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.logs.LogData;
+import backend.academy.logAnalyzer.logs.LogRecordView;
+import backend.academy.logAnalyzer.tokenizers.ByteSlice;
+import backend.academy.logAnalyzer.tokenizers.CombinedLogTokenizer;
+import backend.academy.logAnalyzer.tokenizers.LogTokenizer;
+import backend.academy.logAnalyzer.tokenizers.RegexLogTokenizer;
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogRecordViewTest {
+    private static final String LINE = "217.168.17.5 - usr [17/May/2020:08:05:34 +0000] "
+        + "\"GET /downloads/product_1 HTTP/1.1\" 200 490 \"-\" \"Debian APT-HTTP/1.3 (0.8.10.3)\"";
+
+    @Test
+    void shouldExposeSameValuesAsLogData() {
+        LogData expected = new LogData("217.168.17.5", "usr", "/downloads/product_1", "200", 490);
+        for (LogTokenizer tokenizer : new LogTokenizer[] {new CombinedLogTokenizer(), new RegexLogTokenizer()}) {
+            LogRecordView view = new LogRecordView();
+            assertTrue(tokenizer.tokenize(LINE));
+            assertTrue(view.load(tokenizer));
+            assertEquals(expected, view.toLogData());
+        }
+    }
+
+    @Test
+    void shouldSplitRequestLine() {
+        LogTokenizer tokenizer = new CombinedLogTokenizer();
+        LogRecordView view = new LogRecordView();
+        assertTrue(tokenizer.tokenize(LINE));
+        assertTrue(view.load(tokenizer));
+        assertEquals("GET", view.method().toString());
+        assertEquals("/downloads/product_1", view.resource().toString());
+        assertEquals("HTTP/1.1", view.protocol().toString());
+        assertTrue(tokenizer.tokenize(LINE.replace(" HTTP/1.1", "")));
+        assertTrue(view.load(tokenizer));
+        assertEquals("/downloads/product_1", view.resource().toString());
+        assertEquals("", view.protocol().toString());
+    }
+
+    @Test
+    void shouldRejectRequestWithoutResource() {
+        LogTokenizer tokenizer = new CombinedLogTokenizer();
+        assertTrue(tokenizer.tokenize(LINE.replace("GET /downloads/product_1 HTTP/1.1", "GET")));
+        assertFalse(new LogRecordView().load(tokenizer));
+    }
+
+    @Test
+    void shouldCompareSlicesByContent() {
+        byte[] first = "xx/downloads".getBytes(StandardCharsets.US_ASCII);
+        byte[] second = "/downloads!".getBytes(StandardCharsets.US_ASCII);
+        ByteSlice left = new ByteSlice().set(first, 2, first.length);
+        ByteSlice right = new ByteSlice().set(second, 0, second.length - 1);
+        assertEquals(left, right);
+        assertEquals(left.hashCode(), right.hashCode());
+        assertNotEquals(left, new ByteSlice().set(second, 0, second.length));
+    }
+
+    @Test
+    void shouldKeepCopyAfterBufferIsReused() {
+        byte[] buffer = "product_1".getBytes(StandardCharsets.US_ASCII);
+        ByteSlice slice = new ByteSlice().set(buffer, 0, buffer.length);
+        ByteSlice copy = slice.copy();
+        buffer[buffer.length - 1] = '2';
+        assertEquals("product_2", slice.toString());
+        assertEquals("product_1", copy.toString());
+    }
+
+    @Test
+    void shouldParseResponseSizeDigits() {
+        byte[] buffer = "12345".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(12345, new ByteSlice().set(buffer, 0, buffer.length).parseLong());
+    }
+}
@@ -0,0 +1,140 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.logs.LogParams;
+import backend.academy.logAnalyzer.tokenizers.CombinedLogTokenizer;
+import backend.academy.logAnalyzer.tokenizers.DelimiterScanner;
+import backend.academy.logAnalyzer.tokenizers.LogTokenizer;
+import backend.academy.logAnalyzer.tokenizers.RegexLogTokenizer;
+import backend.academy.logAnalyzer.tokenizers.SimdLogTokenizer;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogTokenizerTest {
+    private static final List<String> EDGE_CASES = List.of(
+        "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /a]b HTTP/1.1\" 304 0 \"\" \"\"",
+        "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /ünïcode HTTP/1.1\" 200 12 \"-\" \"Агент\"",
+        "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET / HTTP/1.1\" 2000 0 \"-\" \"agent\"",
+        "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET / HTTP/1.1\" 20 0 \"-\" \"agent\"",
+        "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET / HTTP/1.1\" 200 - \"-\" \"agent\"",
+        "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"\" 200 0 \"-\" \"agent\"",
+        "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET / HTTP/1.1\" 200 0 \"-\" \"agent\" ",
+        "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET / HTTP/1.1\" 200 0 \"-\" \"ag\"ent\"",
+        "93.180.71.3\t- - [17/May/2015:08:05:32 +0000] \"GET / HTTP/1.1\" 200 0 \"-\" \"agent\"",
+        "93.180.71.3 -  - [17/May/2015:08:05:32 +0000] \"GET / HTTP/1.1\" 200 0 \"-\" \"agent\"",
+        "93.180.71.3 - - [] \"GET / HTTP/1.1\" 200 0 \"-\" \"agent\"",
+        "",
+        "garbage"
+    );
+
+    @Test
+    void shouldProduceSameFieldsAsRegexForTestLog() throws IOException {
+        for (String line : Files.readAllLines(Path.of("logs/10LinesTest.txt"))) {
+            assertTrue(new CombinedLogTokenizer().tokenize(line));
+            assertSameFields(line);
+        }
+    }
+
+    @Test
+    void shouldProduceSameFieldsAsRegexForEdgeCases() {
+        EDGE_CASES.forEach(LogTokenizerTest::assertSameFields);
+    }
+
+    @Test
+    void shouldRejectTruncatedLine() {
+        String line = "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" 304 0 \"-\"";
+        assertFalse(new CombinedLogTokenizer().tokenize(line));
+    }
+
+    @Test
+    void shouldExtractAllFields() {
+        LogTokenizer tokenizer = new CombinedLogTokenizer();
+        assertTrue(tokenizer.tokenize("80.91.33.133 - usr [17/May/2020:08:05:24 +0000] "
+            + "\"GET /downloads/product_1 HTTP/1.1\" 304 0 \"-\" \"Debian APT-HTTP/1.3 (0.8.16~exp12ubuntu10.17)\""));
+        assertEquals("80.91.33.133", tokenizer.field(LogParams.REMOTE_ADDR));
+        assertEquals("usr", tokenizer.field(LogParams.REMOTE_USER));
+        assertEquals("17/May/2020:08:05:24 +0000", tokenizer.field(LogParams.TIMESTAMP));
+        assertEquals("GET /downloads/product_1 HTTP/1.1", tokenizer.field(LogParams.REQUEST));
+        assertEquals("304", tokenizer.field(LogParams.STATUS));
+        assertEquals("0", tokenizer.field(LogParams.BODY_BYTES_SENT));
+        assertEquals("-", tokenizer.field(LogParams.HTTP_REFERER));
+        assertEquals("Debian APT-HTTP/1.3 (0.8.16~exp12ubuntu10.17)", tokenizer.field(LogParams.HTTP_USER_AGENT));
+    }
+
+    @Test
+    void shouldLocateTimestampBeforeRestOfLine() {
+        String line = "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" 304";
+        for (LogTokenizer tokenizer : List.of(new CombinedLogTokenizer(), new RegexLogTokenizer())) {
+            assertTrue(tokenizer.tokenizeTimestamp(line));
+            assertEquals("17/May/2015:08:05:32 +0000", tokenizer.field(LogParams.TIMESTAMP));
+            assertFalse(tokenizer.tokenizeRest());
+        }
+    }
+
+    @Test
+    void shouldTokenizeLazilySameAsEagerly() {
+        for (String line : EDGE_CASES) {
+            LogTokenizer lazy = new CombinedLogTokenizer();
+            LogTokenizer eager = new RegexLogTokenizer();
+            boolean matched = eager.tokenize(line);
+            assertEquals(matched, lazy.tokenizeTimestamp(line) && lazy.tokenizeRest(), line);
+            if (matched) {
+                assertEquals(eager.field(LogParams.HTTP_USER_AGENT), lazy.field(LogParams.HTTP_USER_AGENT));
+            }
+        }
+    }
+
+    @Test
+    void shouldProduceSameFieldsWithDelimiterBitmaps() throws IOException {
+        List<String> lines = new ArrayList<>(EDGE_CASES);
+        lines.addAll(Files.readAllLines(Path.of("logs/10LinesTest.txt")));
+        lines.add("93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /" + "a".repeat(200) + " HTTP/1.1\" 200 0 \"-\" "
+            + "\"" + "b".repeat(63) + "\"");
+        for (DelimiterScanner scanner : List.of(DelimiterScanner.scalar(), DelimiterScanner.best())) {
+            for (String line : lines) {
+                LogTokenizer combined = new CombinedLogTokenizer();
+                LogTokenizer simd = new SimdLogTokenizer(scanner);
+                boolean matched = combined.tokenize(line);
+                assertEquals(matched, simd.tokenize(line), line);
+                if (matched) {
+                    for (LogParams param : LogParams.values()) {
+                        assertEquals(combined.field(param), simd.field(param), line);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldScanSameDelimitersWithVectors() {
+        byte[] buffer = ("93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET / HTTP/1.1\"\t200 \"Агент\"\n"
+            .repeat(5)).getBytes(StandardCharsets.UTF_8);
+        long[][] expected = new long[3][buffer.length / DelimiterScanner.BYTES_PER_WORD + 1];
+        long[][] actual = new long[3][buffer.length / DelimiterScanner.BYTES_PER_WORD + 1];
+        DelimiterScanner.scalar().scan(buffer, buffer.length, expected[0], expected[1], expected[2]);
+        DelimiterScanner.best().scan(buffer, buffer.length, actual[0], actual[1], actual[2]);
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], actual[i]);
+        }
+    }
+
+    private static void assertSameFields(String line) {
+        LogTokenizer regex = new RegexLogTokenizer();
+        LogTokenizer combined = new CombinedLogTokenizer();
+        boolean matched = regex.tokenize(line);
+        assertEquals(matched, combined.tokenize(line), line);
+        if (matched) {
+            for (LogParams param : LogParams.values()) {
+                assertEquals(regex.field(param), combined.field(param), line);
+            }
+        }
+    }
+}
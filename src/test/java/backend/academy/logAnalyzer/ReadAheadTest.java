@@ -0,0 +1,61 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.logs.AnalyzerOptions;
+import backend.academy.logAnalyzer.logs.CollectedData;
+import backend.academy.logAnalyzer.logs.LogAnalyzer;
+import backend.academy.logAnalyzer.logs.LogFile;
+import backend.academy.logAnalyzer.logs.ReadAhead;
+import backend.academy.logAnalyzer.logs.StandardInput;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadAheadTest {
+    private static final Path LOG_FILE = Path.of("logs/10LinesTest.txt");
+
+    @Test
+    void shouldReadSameLinesInSmallBlocks() throws IOException {
+        ReadAhead readAhead = new ReadAhead(64, 2);
+        List<String> lines = new ArrayList<>();
+        new LogFile(LOG_FILE, Files.size(LOG_FILE), readAhead).forEachLine(lines::add);
+        assertEquals(Files.readAllLines(LOG_FILE), lines);
+        assertEquals((Files.size(LOG_FILE) + 63) / 64, readAhead.blocks());
+        assertTrue(readAhead.parserStalls() <= readAhead.blocks() + 1);
+    }
+
+    @Test
+    void shouldCollectSameDataWithReadAhead() {
+        LogAnalyzer readingAhead = new LogAnalyzer(AnalyzerOptions.builder().readAheadDepth(2).build());
+        CollectedData expected = new LogAnalyzer().analyze("logs/10LinesTest.txt", null, null, null);
+        CollectedData actual = readingAhead.analyze("logs/10LinesTest.txt", null, null, null);
+        assertEquals(expected.totalRequests(), actual.totalRequests());
+        assertEquals(expected.resourceFrequency(), actual.resourceFrequency());
+        assertEquals(expected.percentile(), actual.percentile());
+        assertEquals(expected.rejects().lines(), actual.rejects().lines());
+        assertTrue(readingAhead.readAhead().blocks() > 0);
+    }
+
+    @Test
+    void shouldPassRuntimeFailureOfSourceToReader() {
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() {
+                throw new IllegalStateException("corrupted source");
+            }
+        };
+        StandardInput source = new StandardInput(failing, new ReadAhead(64, 2));
+        IOException failure = assertTimeoutPreemptively(Duration.ofSeconds(10),
+            () -> assertThrows(IOException.class, () -> source.forEachLine(line -> { })));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+    }
+}
@@ -0,0 +1,160 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.logs.Compression;
+import backend.academy.logAnalyzer.logs.GzipIndex;
+import backend.academy.logAnalyzer.logs.LogFile;
+import backend.academy.logAnalyzer.logs.RemoteLog;
+import backend.academy.logAnalyzer.logs.RemoteLogCache;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RemoteLogCacheTest {
+    private static final Path LOG_FILE = Path.of("logs/10LinesTest.txt");
+
+    private final Map<Integer, AtomicInteger> responses = new ConcurrentHashMap<>();
+    private final AtomicLong sentBytes = new AtomicLong();
+    private volatile List<String> lines;
+    private volatile int version;
+    private HttpServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        lines = Collections.nCopies(50, Files.readAllLines(LOG_FILE)).stream().flatMap(List::stream).toList();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::serve);
+        server.start();
+        client = RemoteLog.newClient();
+    }
+
+    @AfterEach
+    void stopServer() {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    void shouldRevalidateAndDownloadOnlyAppendedTail(@TempDir Path directory) throws IOException {
+        RemoteLogCache cache = new RemoteLogCache(directory, RemoteLogCache.DEFAULT_SIZE_BUDGET, false);
+        assertEquals(lines, readAll(cache.fetch(client, uri("/access.log"))));
+        assertEquals(1, responses(200));
+
+        assertEquals(lines, readAll(cache.fetch(client, uri("/access.log"))));
+        assertEquals(1, responses(304));
+
+        List<String> appended = Files.readAllLines(LOG_FILE);
+        update(append(lines, appended));
+        sentBytes.set(0);
+        assertEquals(lines, readAll(cache.fetch(client, uri("/access.log"))));
+        assertEquals(1, responses(206));
+        assertEquals(String.join("\n", appended).length() + 1 + RemoteLogCache.TAIL_WINDOW, sentBytes.get());
+
+        update(List.of("rotated"));
+        assertEquals(lines, readAll(cache.fetch(client, uri("/access.log"))));
+        assertEquals(1, responses(416));
+        assertEquals(2, responses(200));
+    }
+
+    @Test
+    void shouldDownloadAgainRewrittenLogWhichHasGrown(@TempDir Path directory) throws IOException {
+        RemoteLogCache cache = new RemoteLogCache(directory, RemoteLogCache.DEFAULT_SIZE_BUDGET, false);
+        cache.fetch(client, uri("/access.log"));
+
+        List<String> rewritten = lines.stream().map(line -> line.replace("product_1", "product_9")).toList();
+        update(append(rewritten, Files.readAllLines(LOG_FILE)));
+        assertEquals(lines, readAll(cache.fetch(client, uri("/access.log"))));
+        assertEquals(1, responses(206));
+        assertEquals(2, responses(200));
+    }
+
+    @Test
+    void shouldAppendCompressedTailAndEvictLeastRecentlyUsed(@TempDir Path directory) throws IOException {
+        RemoteLogCache cache = new RemoteLogCache(directory, RemoteLogCache.DEFAULT_SIZE_BUDGET, true);
+        cache.fetch(client, uri("/first.log"));
+        update(append(lines, Files.readAllLines(LOG_FILE)));
+        LogFile first = cache.fetch(client, uri("/first.log"));
+        assertTrue(Compression.isGzip(first.file()));
+        assertEquals(lines, readAll(first));
+        assertEquals(1, responses(206));
+        GzipIndex.build(first.file(), GzipIndex.DEFAULT_SPAN).save();
+
+        LogFile second = new RemoteLogCache(directory, 1, true).fetch(client, uri("/second.log"));
+        assertFalse(Files.exists(first.file()));
+        assertFalse(Files.exists(GzipIndex.sidecarOf(first.file())));
+        assertEquals(lines, readAll(second));
+    }
+
+    private void update(List<String> newLines) {
+        lines = newLines;
+        version++;
+    }
+
+    private int responses(int status) {
+        return responses.getOrDefault(status, new AtomicInteger()).get();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        byte[] content = (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8);
+        String etag = "\"v" + version + "\"";
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+        int status;
+        int start = 0;
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            status = 304;
+        } else if (range != null) {
+            start = Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+            status = start < content.length ? 206 : 416;
+            exchange.getResponseHeaders().set("Content-Range", status == 206
+                ? "bytes " + start + "-" + (content.length - 1) + "/" + content.length : "bytes */" + content.length);
+        } else {
+            status = 200;
+        }
+        responses.computeIfAbsent(status, key -> new AtomicInteger()).incrementAndGet();
+        boolean withBody = status == 200 || status == 206;
+        exchange.sendResponseHeaders(status, withBody ? content.length - start : -1);
+        if (withBody) {
+            exchange.getResponseBody().write(content, start, content.length - start);
+            sentBytes.addAndGet(content.length - start);
+        }
+        exchange.close();
+    }
+
+    private static List<String> append(List<String> first, List<String> second) {
+        List<String> result = new ArrayList<>(first);
+        result.addAll(second);
+        return result;
+    }
+
+    private static List<String> readAll(LogFile file) throws IOException {
+        List<String> result = new ArrayList<>();
+        file.forEachLine(result::add);
+        return result;
+    }
+}
@@ -0,0 +1,136 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.logs.CollectedData;
+import backend.academy.logAnalyzer.logs.LineSource;
+import backend.academy.logAnalyzer.logs.LogAnalyzer;
+import backend.academy.logAnalyzer.logs.ReadAhead;
+import backend.academy.logAnalyzer.logs.RemoteLog;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RemoteLogTest {
+    private static final Path LOG_FILE = Path.of("logs/10LinesTest.txt");
+    private static final long RANGE_SIZE = 10_000;
+    private static final int BROKEN_LENGTH = 100;
+
+    private final AtomicInteger rangeRequests = new AtomicInteger();
+    private final AtomicInteger brokenResponses = new AtomicInteger();
+    private HttpServer server;
+    private List<String> expected;
+    private byte[] content;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        expected = Collections.nCopies(200, Files.readAllLines(LOG_FILE)).stream().flatMap(List::stream).toList();
+        content = (String.join("\n", expected) + "\n").getBytes(StandardCharsets.UTF_8);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ranged/access.log", this::serveRanges);
+        server.createContext("/whole/access.log", this::serveGzipped);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldDownloadRangesInParallelAndRetryBrokenOnes() throws IOException {
+        brokenResponses.set(2);
+        try (HttpClient client = RemoteLog.newClient()) {
+            List<LineSource> ranges = new RemoteLog(client, uri("/ranged/access.log"), ReadAhead.DISABLED)
+                .split(RANGE_SIZE);
+            assertEquals((content.length + RANGE_SIZE - 1) / RANGE_SIZE, ranges.size());
+            assertEquals(expected, readAll(ranges));
+        }
+        assertEquals(0, brokenResponses.get());
+        assertTrue(rangeRequests.get() > (content.length + RANGE_SIZE - 1) / RANGE_SIZE);
+    }
+
+    @Test
+    void shouldReadWholeGzippedBodyWithoutRangeSupport() throws IOException {
+        try (HttpClient client = RemoteLog.newClient()) {
+            RemoteLog remoteLog = new RemoteLog(client, uri("/whole/access.log"), ReadAhead.DISABLED);
+            List<LineSource> sources = remoteLog.split(RANGE_SIZE);
+            assertEquals(List.of(remoteLog), sources);
+            assertEquals(expected, readAll(sources));
+        }
+    }
+
+    @Test
+    void shouldCollectSameDataFromUrl() {
+        CollectedData local = new LogAnalyzer().analyze(LOG_FILE.toString(), null, null, null);
+        CollectedData remote = new LogAnalyzer().analyze(uri("/ranged/access.log").toString(), null, null, null);
+        assertEquals(local.totalRequests() * 200, remote.totalRequests());
+        assertEquals(local.rejects().lines() * 200, remote.rejects().lines());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    private void serveRanges(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Content-Length", String.valueOf(content.length));
+            exchange.sendResponseHeaders(200, -1);
+        } else if (range == null) {
+            exchange.sendResponseHeaders(200, content.length);
+            exchange.getResponseBody().write(content);
+        } else {
+            rangeRequests.incrementAndGet();
+            String[] bounds = range.substring("bytes=".length()).split("-");
+            int start = Integer.parseInt(bounds[0]);
+            int end = Math.min(Integer.parseInt(bounds[1]) + 1, content.length);
+            exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + (end - 1) + "/"
+                + content.length);
+            exchange.sendResponseHeaders(206, end - start);
+            boolean broken = start > 0 && brokenResponses.getAndUpdate(left -> Math.max(0, left - 1)) > 0;
+            exchange.getResponseBody().write(content, start, broken ? BROKEN_LENGTH : end - start);
+        }
+        exchange.close();
+    }
+
+    private void serveGzipped(HttpExchange exchange) throws IOException {
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(200, -1);
+        } else {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (OutputStream output = new GZIPOutputStream(compressed)) {
+                output.write(content);
+            }
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, compressed.size());
+            exchange.getResponseBody().write(compressed.toByteArray());
+        }
+        exchange.close();
+    }
+
+    private static List<String> readAll(List<LineSource> sources) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (LineSource source : sources) {
+            source.forEachLine(lines::add);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,50 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.logs.AnalyzerOptions;
+import backend.academy.logAnalyzer.logs.CollectedData;
+import backend.academy.logAnalyzer.logs.LogAnalyzer;
+import backend.academy.logAnalyzer.logs.ResourceNormalizer;
+import backend.academy.logAnalyzer.tokenizers.ByteSlice;
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ResourceNormalizerTest {
+    @Test
+    void shouldTemplatizeIdentifiers() {
+        Map<String, String> resources = Map.of(
+            "/downloads/product_1", "/downloads/product_{n}",
+            "/downloads/product_2?mirror=3#top", "/downloads/product_{n}",
+            "/users/42/orders/7", "/users/{n}/orders/{n}",
+            "/api/v2/items", "/api/v2/items",
+            "/files/123abc", "/files/123abc",
+            "/archive/2015-05-17.tar.gz", "/archive/{n}-{n}-{n}.tar.gz",
+            "/sessions/3f2b8c1e-9a4d-4e7f-8b21-0c9d5e6f7a8b/state", "/sessions/{uuid}/state",
+            "/sessions/3f2b8c1e-9a4d-4e7f-8b21-0c9d5e6f7a8", "/sessions/3f2b8c1e-9a4d-4e7f-8b21-0c9d5e6f7a8",
+            "/", "/"
+        );
+        ResourceNormalizer normalizer = new ResourceNormalizer();
+        resources.forEach((raw, normalized) -> assertEquals(normalized, normalizer.normalize(slice(raw)).toString()));
+    }
+
+    @Test
+    void shouldReuseCachedForm() {
+        ResourceNormalizer normalizer = new ResourceNormalizer();
+        ByteSlice first = normalizer.normalize(slice("/downloads/product_1"));
+        assertSame(first, normalizer.normalize(slice("/downloads/product_1")));
+    }
+
+    @Test
+    void shouldCountNormalizedResources() {
+        CollectedData collectedData = new LogAnalyzer(AnalyzerOptions.builder().normalizeResources(true).build())
+            .analyze("logs/10LinesTest.txt", null, null, null);
+        assertEquals(10, collectedData.resourceFrequency().getLong("/downloads/product_{n}"));
+    }
+
+    private static ByteSlice slice(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        return new ByteSlice().set(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,93 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.logs.AnalyzerOptions;
+import backend.academy.logAnalyzer.logs.CollectedData;
+import backend.academy.logAnalyzer.logs.LogAnalyzer;
+import backend.academy.logAnalyzer.logs.ResponseSizeHistogram;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseSizeHistogramTest {
+    private static final double[] PERCENTILES = {0, 1, 7, 25, 50, 90, 95, 99, 99.9, 99.99, 100};
+
+    @Test
+    void shouldCountSmallValuesExactly() {
+        ResponseSizeHistogram histogram = new ResponseSizeHistogram(3);
+        long[] values = new long[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i * 7919L) % 2000;
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double percentile : PERCENTILES) {
+            assertEquals(nearestRank(values, percentile), histogram.valueAtPercentile(percentile),
+                "p" + percentile);
+        }
+        assertEquals(values[0], histogram.min());
+        assertEquals(values[values.length - 1], histogram.max());
+    }
+
+    @Test
+    void shouldEstimateLargeValuesWithinPrecision() {
+        Random random = new Random(42);
+        for (int digits = 1; digits <= ResponseSizeHistogram.MAX_SIGNIFICANT_DIGITS; digits++) {
+            ResponseSizeHistogram histogram = new ResponseSizeHistogram(digits);
+            long[] values = new long[100_000];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = (long) Math.exp(random.nextDouble() * 30);
+                histogram.record(values[i]);
+            }
+            Arrays.sort(values);
+
+            for (double percentile : PERCENTILES) {
+                long exact = nearestRank(values, percentile);
+                long estimate = histogram.valueAtPercentile(percentile);
+                assertTrue(estimate >= exact && estimate - exact <= exact * Math.pow(10, -digits),
+                    "p" + percentile + " with " + digits + " digits: " + estimate + " instead of " + exact);
+            }
+        }
+    }
+
+    @Test
+    void shouldMergeIntoSameHistogram() {
+        ResponseSizeHistogram whole = new ResponseSizeHistogram(2);
+        ResponseSizeHistogram small = new ResponseSizeHistogram(2);
+        ResponseSizeHistogram large = new ResponseSizeHistogram(2);
+        for (long value = 0; value < 1_000_000; value += 37) {
+            whole.record(value);
+            (value < 500 ? small : large).record(value);
+        }
+        small.merge(large);
+
+        assertEquals(whole, small);
+        assertEquals(whole.hashCode(), small.hashCode());
+        assertEquals(whole.count(), small.count());
+        assertEquals(whole.valueAtPercentile(99.9), small.valueAtPercentile(99.9));
+        assertThrows(IllegalArgumentException.class, () -> whole.merge(new ResponseSizeHistogram(3)));
+        assertThrows(IllegalArgumentException.class, () -> new ResponseSizeHistogram(0));
+        assertThrows(IllegalArgumentException.class, () -> whole.record(-1));
+        assertEquals(0, new ResponseSizeHistogram(3).valueAtPercentile(50));
+    }
+
+    @Test
+    void shouldReportRequestedPercentiles() {
+        AnalyzerOptions options = AnalyzerOptions.builder().percentiles(List.of(99.0, 50.0, 100.0)).build();
+        CollectedData collectedData = new LogAnalyzer(options).analyze("logs/10LinesTest.txt", null, null, null);
+
+        assertEquals(List.of(50.0, 99.0, 100.0), List.copyOf(collectedData.sizePercentiles().keySet()));
+        assertEquals(490, collectedData.sizePercentiles().get(99.0));
+        assertEquals(490.00, collectedData.percentile());
+        assertEquals(10, collectedData.responseSizes().count());
+    }
+
+    private static long nearestRank(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(Math.round(percentile * sorted.length * 100) / 10_000.0);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+}
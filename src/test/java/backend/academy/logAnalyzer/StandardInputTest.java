@@ -0,0 +1,76 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.logs.AnalyzerOptions;
+import backend.academy.logAnalyzer.logs.CollectedData;
+import backend.academy.logAnalyzer.logs.LogAnalyzer;
+import backend.academy.logAnalyzer.logs.ReadAhead;
+import backend.academy.logAnalyzer.logs.StandardInput;
+import backend.academy.logAnalyzer.parsers.InputParser;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StandardInputTest {
+    private static final Path LOG_FILE = Path.of("logs/10LinesTest.txt");
+
+    @Test
+    void shouldAnalyzePlainAndGzipStandardInput() throws IOException {
+        byte[] plain = Files.readAllBytes(LOG_FILE);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(plain);
+        }
+        CollectedData expected = new LogAnalyzer().analyze(LOG_FILE.toString(), null, null, null);
+
+        for (byte[] piped : List.of(plain, compressed.toByteArray())) {
+            for (int readAheadDepth : new int[] {0, 2}) {
+                LogAnalyzer analyzer = new LogAnalyzer(AnalyzerOptions.builder().readAheadDepth(readAheadDepth)
+                    .build());
+                CollectedData actual = analyzeStandardInput(analyzer, piped);
+
+                assertEquals(expected.totalRequests(), actual.totalRequests());
+                assertEquals(expected.totalResponseSize(), actual.totalResponseSize());
+                assertEquals(List.of(StandardInput.NAME), analyzer.processedFiles());
+            }
+        }
+    }
+
+    @Test
+    void shouldLeaveLogAfterArgumentsLine() throws IOException {
+        byte[] arguments = "--path - --format markdown\r\n".getBytes(StandardCharsets.UTF_8);
+        byte[] log = Files.readAllBytes(LOG_FILE);
+        byte[] piped = new byte[arguments.length + log.length];
+        System.arraycopy(arguments, 0, piped, 0, arguments.length);
+        System.arraycopy(log, 0, piped, arguments.length, log.length);
+        InputStream input = new ByteArrayInputStream(piped);
+        InputParser inputParser = new InputParser(new PrintStream(OutputStream.nullOutputStream()), input);
+
+        inputParser.parseData(inputParser.readInputString());
+        List<String> lines = new ArrayList<>();
+        new StandardInput(input, ReadAhead.DISABLED).forEachLine(lines::add);
+
+        assertEquals(StandardInput.PATH, inputParser.path());
+        assertEquals(Files.readAllLines(LOG_FILE), lines);
+    }
+
+    private static CollectedData analyzeStandardInput(LogAnalyzer analyzer, byte[] piped) {
+        InputStream standardInput = System.in;
+        System.setIn(new ByteArrayInputStream(piped));
+        try {
+            return analyzer.analyze(StandardInput.PATH, null, null, null);
+        } finally {
+            System.setIn(standardInput);
+        }
+    }
+}
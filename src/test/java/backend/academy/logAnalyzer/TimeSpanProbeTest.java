@@ -0,0 +1,179 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.logs.AnalyzerOptions;
+import backend.academy.logAnalyzer.logs.CollectedData;
+import backend.academy.logAnalyzer.logs.GzipIndex;
+import backend.academy.logAnalyzer.logs.LogAnalyzer;
+import backend.academy.logAnalyzer.logs.ReadMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeSpanProbeTest {
+    private static final DateTimeFormatter TIME_LOCAL =
+        DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss '+0000'", Locale.ENGLISH);
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 0, 0);
+    private static final int LINES_PER_DAY = 1440;
+    private static final int SPARSE_LINES = 3000;
+    private static final long SPARSE_INTERVAL = 600;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldSkipFilesOutsideTimeRange() throws IOException {
+        for (int day = 0; day < 3; day++) {
+            writeDay(directory.resolve("access.log." + day), day, false);
+        }
+        String pattern = directory + "/access.log.*";
+        LocalDateTime from = START.plusDays(1).plusHours(10);
+        LocalDateTime to = from.plusHours(1);
+
+        CollectedData probed = new LogAnalyzer(AnalyzerOptions.builder().probeTimeSpans(true).build())
+            .analyze(pattern, from, to, null);
+        CollectedData parsed = new LogAnalyzer().analyze(pattern, from, to, null);
+
+        assertEquals(61, probed.totalRequests());
+        assertEquals(parsed.totalRequests(), probed.totalRequests());
+        assertEquals(2, probed.rejects().skippedFiles());
+        assertEquals(Files.size(directory.resolve("access.log.0")) + Files.size(directory.resolve("access.log.2")),
+            probed.rejects().skippedBytes());
+        assertEquals(LINES_PER_DAY, probed.rejects().lines());
+        assertEquals(0, parsed.rejects().skippedFiles());
+    }
+
+    @Test
+    void shouldProbeTailOfGzipFileByIndex() throws IOException {
+        Path compressed = directory.resolve("access.log.1.gz");
+        writeDay(compressed, 0, true);
+        String pattern = compressed.toString();
+        LocalDateTime from = START.plusDays(2);
+        LogAnalyzer analyzer = new LogAnalyzer(AnalyzerOptions.builder().gzipIndex(true).probeTimeSpans(true)
+            .build());
+
+        CollectedData withoutIndex = analyzer.analyze(pattern, from, null, null);
+        assertTrue(Files.exists(GzipIndex.sidecarOf(compressed)));
+        CollectedData withIndex = analyzer.analyze(pattern, from, null, null);
+
+        assertEquals(0, withoutIndex.rejects().skippedFiles());
+        assertEquals(LINES_PER_DAY, withoutIndex.rejects().lines());
+        assertEquals(1, withIndex.rejects().skippedFiles());
+        assertEquals(0, withIndex.rejects().lines());
+        assertEquals(0, analyzer.analyze(pattern, START.plusHours(5), START.plusHours(6), null).rejects()
+            .skippedFiles());
+    }
+
+    @Test
+    void shouldReadOnlyTimeRangeOfLargeFile() throws IOException {
+        Path file = directory.resolve("access.log");
+        for (int day = 0; day < 7; day++) {
+            writeDay(file, day, false);
+        }
+        LocalDateTime from = START.plusDays(3).plusHours(10);
+        LocalDateTime to = from.plusHours(1);
+
+        for (ReadMode readMode : ReadMode.values()) {
+            AnalyzerOptions options = AnalyzerOptions.builder().readMode(readMode).probeTimeSpans(true).build();
+            CollectedData seeked = new LogAnalyzer(options).analyze(file.toString(), from, to, null);
+            CollectedData parsed = new LogAnalyzer(options.toBuilder().probeTimeSpans(false).build())
+                .analyze(file.toString(), from, to, null);
+
+            assertEquals(61, seeked.totalRequests());
+            assertEquals(parsed.totalRequests(), seeked.totalRequests());
+            assertEquals(7 * LINES_PER_DAY, parsed.rejects().lines());
+            assertTrue(seeked.rejects().lines() < LINES_PER_DAY / 4, seeked.rejects().lines() + " lines read");
+            assertEquals(LINES_PER_DAY * 4 - 600, new LogAnalyzer(options)
+                .analyze(file.toString(), from, null, null).totalRequests());
+            assertEquals(LINES_PER_DAY * 3 + 600 + 61, new LogAnalyzer(options)
+                .analyze(file.toString(), null, to, null).totalRequests());
+        }
+    }
+
+    @Test
+    void shouldReadAllLinesWithinTimeRangeAcrossLargeGaps() throws IOException {
+        Path file = directory.resolve("access.log");
+        writeLines(file, SPARSE_LINES, SPARSE_INTERVAL);
+        long last = (SPARSE_LINES - 1L) * SPARSE_INTERVAL;
+        long[] bounds = {-1, 0, 1, 4799, 4800, 5000, last / 2, last / 2 + 1, last - 1, last, last + 1, 2 * last};
+
+        for (ReadMode readMode : ReadMode.values()) {
+            AnalyzerOptions options = AnalyzerOptions.builder().readMode(readMode).probeTimeSpans(true).build();
+            for (long toSecond : bounds) {
+                for (long fromSecond : new long[] {-1, 0, 4800, last / 2 - 1, last}) {
+                    LocalDateTime from = fromSecond < 0 ? null : START.plusSeconds(fromSecond);
+                    LocalDateTime to = START.plusSeconds(toSecond);
+                    long expected = Math.max(0, Math.min(toSecond, last) / SPARSE_INTERVAL + 1
+                        - (Math.max(fromSecond, 0) + SPARSE_INTERVAL - 1) / SPARSE_INTERVAL);
+
+                    CollectedData seeked = new LogAnalyzer(options).analyze(file.toString(), from, to, null);
+
+                    assertEquals(toSecond < 0 ? 0 : expected, seeked.totalRequests(),
+                        readMode + " from " + from + " to " + to);
+                }
+            }
+            assertEquals(SPARSE_LINES, new LogAnalyzer(options)
+                .analyze(file.toString(), null, START.plusSeconds(last + 1), null).totalRequests());
+        }
+    }
+
+    @Test
+    void shouldReadAllLinesOfLargeUnorderedFileByDefault() throws IOException {
+        Path file = directory.resolve("all.log");
+        for (int day : new int[] {4, 5, 6, 0, 1, 2, 3}) {
+            writeDay(file, day, false);
+        }
+        assertTrue(Files.size(file) > 4L * 64 * 1024);
+        LocalDateTime from = START.plusDays(3).plusHours(10);
+        LocalDateTime to = from.plusHours(1);
+
+        for (ReadMode readMode : ReadMode.values()) {
+            CollectedData collectedData = new LogAnalyzer(AnalyzerOptions.builder().readMode(readMode).build())
+                .analyze(file.toString(), from, to, null);
+
+            assertEquals(61, collectedData.totalRequests());
+            assertEquals(7 * LINES_PER_DAY, collectedData.rejects().lines());
+            assertEquals(0, collectedData.rejects().skippedFiles());
+        }
+    }
+
+    /**
+     * Writes a line per minute of the day after the start.
+     */
+    private static void writeDay(Path file, int day, boolean gzip) throws IOException {
+        try (OutputStream output = gzip ? new GZIPOutputStream(Files.newOutputStream(file))
+            : Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+             PrintStream printer = new PrintStream(output, false, StandardCharsets.UTF_8)) {
+            for (int minute = 0; minute < LINES_PER_DAY; minute++) {
+                printLine(printer, START.plusDays(day).plusMinutes(minute));
+            }
+        }
+    }
+
+    /**
+     * Writes lines from the start with the interval between them.
+     */
+    private static void writeLines(Path file, int lines, long intervalSeconds) throws IOException {
+        try (PrintStream printer = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+            for (int line = 0; line < lines; line++) {
+                printLine(printer, START.plusSeconds(line * intervalSeconds));
+            }
+        }
+    }
+
+    private static void printLine(PrintStream printer, LocalDateTime time) {
+        printer.printf("93.180.71.3 - - [%s] \"GET /downloads/product_1 HTTP/1.1\" 200 490 \"-\" "
+            + "\"Debian APT-HTTP/1.3 (0.8.16~exp12ubuntu10.21)\"%n", TIME_LOCAL.format(time));
+    }
+}
@@ -0,0 +1,61 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.parsers.TimestampDecoder;
+import org.junit.jupiter.api.Test;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimestampDecoderTest {
+    private static final DateTimeFormatter LOG_DATE_FORMATTER =
+        DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
+
+    @Test
+    void shouldDecodeSameInstantAsFormatter() {
+        TimestampDecoder decoder = new TimestampDecoder();
+        List<String> timestamps = List.of(
+            "17/May/2015:08:05:32 +0000",
+            "01/Jan/1970:00:00:00 +0000",
+            "31/Dec/1969:23:59:59 +0000",
+            "29/Feb/2024:12:30:45 +0300",
+            "28/Oct/2023:01:02:03 -0930",
+            "30/Feb/2015:08:05:32 +0000",
+            "17/May/2015:08:05:32 +0000"
+        );
+        for (String timestamp : timestamps) {
+            assertEquals(OffsetDateTime.parse(timestamp, LOG_DATE_FORMATTER).toEpochSecond(),
+                decoder.decode(timestamp), timestamp);
+        }
+    }
+
+    @Test
+    void shouldTakeOffsetIntoAccount() {
+        TimestampDecoder decoder = new TimestampDecoder();
+        long utc = decoder.decode("17/May/2015:08:05:32 +0000");
+        assertEquals(utc - 3 * 3600, decoder.decode("17/May/2015:08:05:32 +0300"));
+        assertEquals(utc + 3600 + 1800, decoder.decode("17/May/2015:08:05:32 -0130"));
+    }
+
+    @Test
+    void shouldReturnCachedValueForRepeatedTimestamps() {
+        TimestampDecoder decoder = new TimestampDecoder();
+        long first = decoder.decode("17/May/2015:08:05:32 +0000");
+        for (int i = 0; i < 10; i++) {
+            decoder.decode("17/May/2015:08:05:3" + i + " +0000");
+        }
+        assertEquals(first, decoder.decode(new StringBuilder("17/May/2015:08:05:32 +0000")));
+    }
+
+    @Test
+    void shouldRejectMalformedTimestamps() {
+        TimestampDecoder decoder = new TimestampDecoder();
+        assertThrows(DateTimeParseException.class, () -> decoder.decode("17/Foo/2015:08:05:32 +0000"));
+        assertThrows(DateTimeParseException.class, () -> decoder.decode("32/Jan/2015:08:05:32 +0000"));
+        assertThrows(DateTimeParseException.class, () -> decoder.decode("17/May/2015:25:05:32 +0000"));
+        assertThrows(DateTimeParseException.class, () -> decoder.decode("17/May/2015 08:05:32"));
+    }
+}
@@ -0,0 +1,104 @@
+package backend.academy.logAnalyzer;
+
+import backend.academy.logAnalyzer.tokenizers.CombinedLogTokenizer;
+import backend.academy.logAnalyzer.tokenizers.DelimiterScanner;
+import backend.academy.logAnalyzer.tokenizers.LogTokenizer;
+import backend.academy.logAnalyzer.tokenizers.SimdLogTokenizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar and the vector delimiter scanners, both on a whole buffer of lines and inside the tokenizer.
+ * Run with {@code main} after {@code mvn test-compile}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class TokenizerBenchmark {
+    private static final int COPIES = 100;
+
+    private List<String> lines;
+    private byte[] buffer;
+    private long[] whitespace;
+    private long[] quotes;
+    private long[] brackets;
+    private LogTokenizer combined;
+    private LogTokenizer scalar;
+    private LogTokenizer vector;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<String> sample = Files.readAllLines(Path.of("logs/10LinesTest.txt"));
+        lines = Collections.nCopies(COPIES, sample).stream().flatMap(List::stream).toList();
+        buffer = (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8);
+        int words = buffer.length / DelimiterScanner.BYTES_PER_WORD + 1;
+        whitespace = new long[words];
+        quotes = new long[words];
+        brackets = new long[words];
+        combined = new CombinedLogTokenizer();
+        scalar = new SimdLogTokenizer(DelimiterScanner.scalar());
+        vector = new SimdLogTokenizer(DelimiterScanner.best());
+    }
+
+    @Benchmark
+    public long scanBufferScalar() {
+        DelimiterScanner.scalar().scan(buffer, buffer.length, whitespace, quotes, brackets);
+        return quotes[0];
+    }
+
+    @Benchmark
+    public long scanBufferVector() {
+        DelimiterScanner.best().scan(buffer, buffer.length, whitespace, quotes, brackets);
+        return quotes[0];
+    }
+
+    @Benchmark
+    public int tokenizeCombined() {
+        return tokenizeAll(combined);
+    }
+
+    @Benchmark
+    public int tokenizeSimdScalar() {
+        return tokenizeAll(scalar);
+    }
+
+    @Benchmark
+    public int tokenizeSimdVector() {
+        return tokenizeAll(vector);
+    }
+
+    private int tokenizeAll(LogTokenizer tokenizer) {
+        int tokenized = 0;
+        for (String line : lines) {
+            if (tokenizer.tokenize(line)) {
+                tokenized++;
+            }
+        }
+        return tokenized;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TokenizerBenchmark.class.getSimpleName()).build()).run();
+    }
+}